@@ -7,6 +7,13 @@ module org.example.developed_app {
     requires kernel;
     requires sign;
     requires org.apache.pdfbox;
+    requires org.bouncycastle.provider;
+    requires org.bouncycastle.pkix;
+    requires org.bouncycastle.util;
+    requires jdk.crypto.cryptoki;
+    requires jdk.management;
+    requires jdk.httpserver;
+    requires java.net.http;
 
     opens org.example.developed_app to javafx.fxml;
     exports org.example.developed_app;
@@ -14,4 +21,14 @@ module org.example.developed_app {
     opens org.example.developed_app.sign to javafx.fxml;
     exports org.example.developed_app.verify;
     opens org.example.developed_app.verify to javafx.fxml;
+    exports org.example.developed_app.digest;
+    exports org.example.developed_app.keys;
+    exports org.example.developed_app.jobs;
+    exports org.example.developed_app.memory;
+    exports org.example.developed_app.daemon;
+    exports org.example.developed_app.tsa;
+    exports org.example.developed_app.validation;
+    exports org.example.developed_app.metrics;
+    exports org.example.developed_app.codec;
+    exports org.example.developed_app.queue;
 }
\ No newline at end of file
@@ -13,6 +13,11 @@ import java.io.IOException;
  */
 public class HelloApplication extends Application {
 
+    /**
+     * Controller of the main view, shut down when the application exits.
+     */
+    private HelloController controller;
+
     /**
      * The main method launches the JavaFX application.
      *
@@ -32,8 +37,19 @@ public class HelloApplication extends Application {
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("hello-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 400, 320);
+        controller = fxmlLoader.getController();
         stage.setTitle("Sign/verify PDF");
         stage.setScene(scene);
         stage.show();
     }
+
+    /**
+     * Stops the background work of the controller when the application exits.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
 }
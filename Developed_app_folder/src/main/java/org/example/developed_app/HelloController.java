@@ -1,18 +1,31 @@
 package org.example.developed_app;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import org.example.developed_app.jobs.Job;
+import org.example.developed_app.jobs.JobRunner;
+import org.example.developed_app.jobs.Progress;
 import org.example.developed_app.sign.Sign;
 import org.example.developed_app.sign.USBDetector;
+import org.example.developed_app.verify.VerificationResult;
+import org.example.developed_app.verify.VerificationStatus;
 import org.example.developed_app.verify.Verify;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 /**
  * The `HelloController` class manages the user interface for the PDF signing and verification application.
@@ -26,9 +39,9 @@ public class HelloController {
     private static final String DESKTOP = Paths.get(System.getProperty("user.home"), "Desktop").toString();
 
     /**
-     * Flag indicating whether the document has been signed.
+     * Logger receiving a structured record of every verification outcome shown to the user.
      */
-    public static boolean signed;
+    private static final System.Logger LOGGER = System.getLogger(HelloController.class.getName());
 
     /**
      * Main stage of the JavaFX application.
@@ -44,18 +57,48 @@ public class HelloController {
      * Object for verifying document signatures.
      */
     private final Verify verify = new Verify();
+
+    /**
+     * Detector watching for the USB drive with the private key.
+     */
+    private final USBDetector usbDetector = new USBDetector();
+
+    /**
+     * Runner executing signing and verification jobs off the JavaFX application thread.
+     */
+    private final JobRunner jobs = new JobRunner(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Signing jobs that are queued or running.
+     */
+    private final List<Job<Path>> signJobs = new CopyOnWriteArrayList<>();
+
+    /**
+     * Verification jobs that are queued or running.
+     */
+    private final List<Job<VerificationResult>> verifyJobs = new CopyOnWriteArrayList<>();
+
     @FXML
     private Text correctLabel;
 
     @FXML
     private Text changedLabel;
 
+    @FXML
+    private Text untrustedLabel;
+
     @FXML
     private Label pendriveLabel;
 
     @FXML
     private Label wrongLabel;
 
+    @FXML
+    private Label signStatusLabel;
+
+    @FXML
+    private ProgressBar signProgressBar;
+
     @FXML
     private PasswordField passwordField;
 
@@ -65,6 +108,9 @@ public class HelloController {
     @FXML
     private Button signButton;
 
+    @FXML
+    private Button cancelButton;
+
     @FXML
     private Button verifyDocumentSelectButton;
 
@@ -74,17 +120,34 @@ public class HelloController {
     @FXML
     private Button verifyButton;
 
+    @FXML
+    private Label verifyStatusLabel;
+
+    @FXML
+    private ProgressBar verifyProgressBar;
+
+    @FXML
+    private Button verifyCancelButton;
+
     /**
      * Constructor initializes the USB detector in a separate thread to monitor USB connections.
      */
     public HelloController() {
-        USBDetector usbDetector = new USBDetector();
         usbDetector.sign = sign;
         usbDetector.controller = this;
-        Thread thread = new Thread(usbDetector);
+        Thread thread = new Thread(usbDetector, "usb-detector");
+        thread.setDaemon(true);
         thread.start();
     }
 
+    /**
+     * Stops the background work of the controller. Called when the application exits.
+     */
+    public void shutdown() {
+        usbDetector.stop();
+        jobs.close();
+    }
+
     /**
      * Updates the state of signing buttons based on input data and USB status.
      */
@@ -132,15 +195,99 @@ public class HelloController {
     }
 
     /**
-     * Handles the signing process. Sets the PIN and initiates the signing operation.
+     * Handles the signing process. Sets the PIN and queues a signing job for the selected document.
      *
-     * @throws Exception If an error occurs during signing.
+     * <p>The job runs off the JavaFX application thread, so the window stays responsive and further
+     * documents can be queued while it runs. Progress and the result are shown in the status label.</p>
      */
     @FXML
-    protected void onSignButtonClick() throws Exception {
-        signed = true;
+    protected void onSignButtonClick() {
         sign.setPin(passwordField.getText());
-        sign.init();
+        String fileName = Paths.get(sign.getDocumentPath()).getFileName().toString();
+
+        Job<Path> job = sign.initAsync(jobs, progress -> Platform.runLater(() -> showSignProgress(fileName, progress)));
+        signJobs.add(job);
+        updateCancelButtons();
+        signProgressBar.setVisible(true);
+        signProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        signStatusLabel.setText("Queued " + fileName);
+
+        job.result().whenComplete((signedPath, error) -> Platform.runLater(() -> {
+            signJobs.remove(job);
+            updateCancelButtons();
+            signProgressBar.setVisible(!signJobs.isEmpty());
+
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                signStatusLabel.setText("Signed " + signedPath.getFileName());
+            } else if (cause instanceof CancellationException) {
+                signStatusLabel.setText("Cancelled " + fileName);
+            } else {
+                signStatusLabel.setText("Failed " + fileName);
+                wrongLabel.setVisible(true);
+            }
+        }));
+    }
+
+    /**
+     * Shows the progress of a signing job.
+     *
+     * @param fileName Name of the document being signed.
+     * @param progress Snapshot of the progress.
+     */
+    private void showSignProgress(String fileName, Progress progress) {
+        if (progress.totalPages() > 0 && progress.pagesProcessed() > 0) {
+            signProgressBar.setProgress((double) progress.pagesProcessed() / progress.totalPages());
+        }
+        signStatusLabel.setText(String.format("Signing %s: %d/%d pages, %d KB written", fileName,
+                progress.pagesProcessed(), progress.totalPages(), progress.bytesWritten() / 1024));
+    }
+
+    /**
+     * Shows the progress of a verification job.
+     *
+     * @param fileName Name of the document being verified.
+     * @param progress Snapshot of the progress.
+     */
+    private void showVerifyProgress(String fileName, Progress progress) {
+        if (progress.totalPages() > 0 && progress.pagesProcessed() > 0) {
+            verifyProgressBar.setProgress((double) progress.pagesProcessed() / progress.totalPages());
+        }
+        verifyStatusLabel.setText(String.format("Verifying %s: %d/%d pages", fileName,
+                progress.pagesProcessed(), progress.totalPages()));
+    }
+
+    /**
+     * Shows the outcome of a verification in the result labels.
+     *
+     * <p>Intact signatures whose signer or timestamp authority is not trusted, or whose certificate was
+     * revoked, are shown apart from modified documents.</p>
+     *
+     * @param status The verification status.
+     */
+    private void showVerificationStatus(VerificationStatus status) {
+        correctLabel.setVisible(status == VerificationStatus.VALID);
+        changedLabel.setVisible(status == VerificationStatus.MODIFIED || status == VerificationStatus.ERROR);
+        untrustedLabel.setText(status == VerificationStatus.REVOKED ? "Revoked" : "Untrusted");
+        untrustedLabel.setVisible(status == VerificationStatus.UNTRUSTED || status == VerificationStatus.REVOKED);
+    }
+
+    /**
+     * Enables the cancel buttons of both tabs while any job is queued or running.
+     */
+    private void updateCancelButtons() {
+        boolean idle = signJobs.isEmpty() && verifyJobs.isEmpty();
+        cancelButton.setDisable(idle);
+        verifyCancelButton.setDisable(idle);
+    }
+
+    /**
+     * Cancels all queued and running signing and verification jobs.
+     */
+    @FXML
+    protected void onCancelButtonClick() {
+        signJobs.forEach(Job::cancel);
+        verifyJobs.forEach(Job::cancel);
     }
 
     /**
@@ -182,12 +329,54 @@ public class HelloController {
     }
 
     /**
-     * Handles the verification process. Calls the verification method from the `Verify` class.
+     * Handles the verification process. Queues a verification job for the selected document.
      *
-     * @throws Exception If an error occurs during verification.
+     * <p>The job runs off the JavaFX application thread like a signing job; its progress is shown in the
+     * status label of the verification tab and it is cancelled together with the signing jobs. For a
+     * modified document the label lists the pages that no longer match their signed page digests.</p>
      */
     @FXML
-    protected void onVerifyButtonClick() throws Exception {
-        verify.init(correctLabel, changedLabel);
+    protected void onVerifyButtonClick() {
+        correctLabel.setVisible(false);
+        changedLabel.setVisible(false);
+        untrustedLabel.setVisible(false);
+        String fileName = Paths.get(verify.getDocumentPath()).getFileName().toString();
+
+        Job<VerificationResult> job = verify.verifyAsync(jobs,
+                progress -> Platform.runLater(() -> showVerifyProgress(fileName, progress)));
+        verifyJobs.add(job);
+        updateCancelButtons();
+        verifyProgressBar.setVisible(true);
+        verifyProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        verifyStatusLabel.setText("Queued " + fileName);
+
+        job.result().whenComplete((result, error) -> Platform.runLater(() -> {
+            verifyJobs.remove(job);
+            updateCancelButtons();
+            verifyProgressBar.setVisible(!verifyJobs.isEmpty());
+
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                verifyStatusLabel.setText("Cancelled " + fileName);
+                return;
+            }
+            if (cause != null) {
+                verifyStatusLabel.setText("Failed " + fileName);
+                LOGGER.log(System.Logger.Level.WARNING, "operation=verify document={0} status=failed error={1}",
+                        fileName, cause.getMessage());
+                return;
+            }
+            VerificationStatus status = result.status();
+            LOGGER.log(System.Logger.Level.INFO, "operation=verify document={0} status={1} pages={2}", fileName,
+                    status.name().toLowerCase(), result.modifiedPages());
+            if (status == VerificationStatus.UNSIGNED) {
+                verifyStatusLabel.setText("No signature in " + fileName);
+                return;
+            }
+            List<Integer> pages = result.modifiedPages();
+            verifyStatusLabel.setText(pages.isEmpty() ? "Verified " + fileName
+                    : "Modified pages: " + pages.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+            showVerificationStatus(status);
+        }));
     }
 }
@@ -0,0 +1,269 @@
+package org.example.developed_app;
+
+import org.example.developed_app.daemon.SigningClient;
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.digest.MerkleDigest;
+import org.example.developed_app.memory.MemoryMetrics;
+import org.example.developed_app.metrics.MetricsExporter;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Timer;
+import org.example.developed_app.queue.InboxWatcher;
+import org.example.developed_app.queue.SigningJournal;
+import org.example.developed_app.queue.SigningQueue;
+import org.example.developed_app.sign.BatchReport;
+import org.example.developed_app.sign.BatchSigner;
+import org.example.developed_app.sign.FileKeyProvider;
+import org.example.developed_app.sign.KeyProvider;
+import org.example.developed_app.sign.Pkcs11KeyProvider;
+import org.example.developed_app.tsa.HttpTimestampClient;
+import org.example.developed_app.tsa.LocalTimestampAuthority;
+import org.example.developed_app.validation.CertificateValidator;
+import org.example.developed_app.validation.RevocationCache;
+import org.example.developed_app.validation.RevocationSource;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The `SignCli` class is the headless entry point for signing many PDF documents at once.
+ *
+ * <p>Usage: {@code SignCli (--key <private.enc> | --pkcs11 <config> [--alias <alias>] [--sessions <n>] | --daemon <address>)
+ * [--pin <pin>] [--workers <n>] [--digest pades|text|bytes|merkle [--chunk-kib <n>]] [--hash <algorithm>] [--tsa <url>|local
+ * [--tsa-inflight <n>]] [--metrics <exporter>] [--output-dir <dir>] [--journal <file>] [--urgent <directory|manifest>]
+ * [--queue-capacity <n>] (<directory|manifest> | --watch <inbox> [--quiet-ms <n>])}.
+ * If `--pin` is omitted, the PIN is read from the `PADES_PIN` environment variable. With `--pkcs11`
+ * the PIN is the user PIN of the token and `--sessions` defaults to the number of workers.
+ * `--hash` selects the SHA-2 or SHA-3 function of the digest stage; by default the key's profile decides.
+ * `--digest merkle` hashes large documents on all cores in chunks of `--chunk-kib` KiB (4096 by default).
+ * With `--daemon` the documents are hashed locally and only the digests are signed by a running
+ * {@link SignDaemonCli signing daemon}; no PIN is needed, but the secret of a daemon that authenticates its
+ * clients is read from the `PADES_DAEMON_SECRET` environment variable.
+ * `--tsa` timestamps the PAdES signatures at an RFC 3161 authority, with at most `--tsa-inflight`
+ * requests (by default the number of workers) in flight; `--tsa local` starts a stand-in authority
+ * on the loopback interface for testing, whose self-signed timestamps verify as untrusted when `--trust`
+ * is used for verification.
+ * `--key` reads the certificate chain of the key, the signer certificate first, from the `.crt` file next to
+ * the key file (e.g. `private.crt`); if there is none, a self-signed certificate is created once and stored there.
+ * `--trust` names the trusted root certificates (a PEM or DER file, or a directory of them) and turns on
+ * PAdES-LT: the chain of the signer certificate, completed from `--chain`, and its CRLs or OCSP responses
+ * are embedded in the document security store. A self-signed `--key` certificate chains to no trusted root,
+ * so `--trust` with such a key is rejected before any document is signed. Revocation data is cached in `--revocation-cache`
+ * (by default `~/.pades/revocation`); with `--offline` only cached data is used.
+ * `--metrics` selects how the stage timers are published while the batch runs (see {@link MetricsExporter});
+ * a summary of the stage times is printed at the end.
+ * Signed copies are written next to the originals unless `--output-dir` names another directory.
+ * `--journal` records the progress in a {@link SigningJournal}; running the same command again after a
+ * crash skips the documents already signed and finishes the interrupted ones. Documents listed by
+ * `--urgent` are signed before the others, and at most `--queue-capacity` documents (by default four
+ * per worker) are held at once.
+ * `--watch` keeps running until interrupted and signs every PDF dropped into the inbox directory once it
+ * has not changed for `--quiet-ms` milliseconds (300 by default); the signed copies are written to the
+ * `--output-dir` outbox, which is required, and the originals are moved below it (see {@link InboxWatcher}).</p>
+ *
+ * <p>The memory used per document is bounded by the `pades.memory.*` system properties described in
+ * {@link org.example.developed_app.memory.MemoryPolicy}.</p>
+ */
+public class SignCli {
+
+    /**
+     * Parses the command-line arguments, signs the documents and prints the report.
+     *
+     * @param args Command-line arguments.
+     * @throws Exception If the signing key cannot be unlocked or the input cannot be read.
+     */
+    public static void main(String[] args) throws Exception {
+        String keyPath = null;
+        String pkcs11Config = null;
+        String alias = null;
+        String daemonAddress = null;
+        int sessions = 0;
+        String pin = System.getenv("PADES_PIN");
+        String daemonSecret = System.getenv("PADES_DAEMON_SECRET");
+        int workers = Runtime.getRuntime().availableProcessors();
+        DigestMode digestMode = DigestMode.PADES;
+        DigestAlgorithm digestAlgorithm = null;
+        String tsa = null;
+        int tsaInFlight = 0;
+        Path trust = null;
+        Path chain = null;
+        Path revocationCache = RevocationCache.defaultDirectory();
+        boolean offline = false;
+        String metrics = MetricsExporter.DEFAULT;
+        Path outputDirectory = null;
+        int merkleChunkSize = MerkleDigest.DEFAULT_CHUNK_SIZE;
+        Path journalPath = null;
+        Path urgentInput = null;
+        int queueCapacity = 0;
+        Path inbox = null;
+        long quietMillis = InboxWatcher.DEFAULT_QUIET_PERIOD.toMillis();
+        Path input = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--key" -> keyPath = requireValue(args, ++i);
+                case "--pkcs11" -> pkcs11Config = requireValue(args, ++i);
+                case "--alias" -> alias = requireValue(args, ++i);
+                case "--sessions" -> sessions = Integer.parseInt(requireValue(args, ++i));
+                case "--daemon" -> daemonAddress = requireValue(args, ++i);
+                case "--pin" -> pin = requireValue(args, ++i);
+                case "--workers" -> workers = Integer.parseInt(requireValue(args, ++i));
+                case "--digest" -> digestMode = DigestMode.valueOf(requireValue(args, ++i).toUpperCase());
+                case "--hash" -> digestAlgorithm = DigestAlgorithm.fromName(requireValue(args, ++i));
+                case "--chunk-kib" -> merkleChunkSize = Integer.parseInt(requireValue(args, ++i)) * 1024;
+                case "--tsa" -> tsa = requireValue(args, ++i);
+                case "--tsa-inflight" -> tsaInFlight = Integer.parseInt(requireValue(args, ++i));
+                case "--trust" -> trust = Paths.get(requireValue(args, ++i));
+                case "--chain" -> chain = Paths.get(requireValue(args, ++i));
+                case "--revocation-cache" -> revocationCache = Paths.get(requireValue(args, ++i));
+                case "--offline" -> offline = true;
+                case "--metrics" -> metrics = requireValue(args, ++i);
+                case "--output-dir" -> outputDirectory = Paths.get(requireValue(args, ++i));
+                case "--journal" -> journalPath = Paths.get(requireValue(args, ++i));
+                case "--urgent" -> urgentInput = Paths.get(requireValue(args, ++i));
+                case "--queue-capacity" -> queueCapacity = Integer.parseInt(requireValue(args, ++i));
+                case "--watch" -> inbox = Paths.get(requireValue(args, ++i));
+                case "--quiet-ms" -> quietMillis = Long.parseLong(requireValue(args, ++i));
+                default -> input = Paths.get(args[i]);
+            }
+        }
+
+        int keySources = (keyPath != null ? 1 : 0) + (pkcs11Config != null ? 1 : 0) + (daemonAddress != null ? 1 : 0);
+        if (keySources != 1 || (pin == null && daemonAddress == null) || (input == null) == (inbox == null)
+                || (inbox != null && outputDirectory == null)) {
+            System.err.println("Usage: SignCli (--key <private.enc> | --pkcs11 <config> [--alias <alias>] [--sessions <n>] | --daemon <address>)"
+                    + " [--pin <pin>] [--workers <n>] [--digest pades|text|bytes|merkle [--chunk-kib <n>]]"
+                    + " [--hash sha256|sha384|sha512|sha3-256|sha3-384|sha3-512]"
+                    + " [--tsa <url>|local [--tsa-inflight <n>]] [--trust <certs> [--chain <certs>]"
+                    + " [--revocation-cache <dir>] [--offline]] [--metrics jmx|prometheus:[<host>:]<port>|none] [--output-dir <dir>]"
+                    + " [--journal <file>] [--urgent <directory|manifest>] [--queue-capacity <n>]"
+                    + " (<directory|manifest> | --watch <inbox> [--quiet-ms <n>])");
+            System.err.println("--key reads the certificate chain of the key from the .crt file next to it;"
+                    + " --trust requires that chain to be issued by a CA, not self-signed.");
+            System.exit(2);
+        }
+
+        List<Path> documents = input != null ? BatchSigner.collectDocuments(input) : List.of();
+        List<Path> urgent = urgentInput != null ? BatchSigner.collectDocuments(urgentInput) : List.of();
+        boolean queued = journalPath != null || urgentInput != null;
+        BatchReport report = null;
+        MetricsExporter exporter = MetricsExporter.open(metrics, MetricsRegistry.shared());
+        LocalTimestampAuthority localTsa = "local".equals(tsa) ? new LocalTimestampAuthority(0) : null;
+        HttpTimestampClient timestampClient = tsa == null ? null : new HttpTimestampClient(
+                localTsa != null ? localTsa.getUri() : URI.create(tsa), tsaInFlight > 0 ? tsaInFlight : workers);
+        try (RevocationSource revocationSource = trust != null
+                ? new RevocationSource(new RevocationCache(revocationCache, RevocationCache.DEFAULT_TTL), offline) : null;
+             KeyProvider keyProvider = daemonAddress != null
+                ? SigningClient.connect(daemonAddress,
+                        daemonSecret != null ? daemonSecret.getBytes(StandardCharsets.UTF_8) : null)
+                : openKeyProvider(keyPath, pkcs11Config, pin, alias, sessions > 0 ? sessions : workers)) {
+            if (trust != null && keyProvider instanceof FileKeyProvider fileKey && fileKey.identity().isSelfSigned()) {
+                throw new IllegalArgumentException("--trust needs a CA-issued certificate for --key, but "
+                        + FileKeyProvider.certificatePathOf(Paths.get(keyPath))
+                        + " holds a self-signed one; store the certificate chain issued for the key there");
+            }
+            BatchSigner signer = new BatchSigner(keyProvider, workers, digestMode, digestAlgorithm, timestampClient);
+            signer.setOutputDirectory(outputDirectory);
+            signer.setMerkleChunkSize(merkleChunkSize);
+            if (trust != null) {
+                signer.setCertificateValidator(new CertificateValidator(CertificateValidator.readCertificates(trust),
+                        chain != null ? CertificateValidator.readCertificates(chain) : List.of(), revocationSource));
+            }
+            int capacity = queueCapacity > 0 ? queueCapacity : workers * SigningQueue.DEFAULT_CAPACITY_PER_WORKER;
+            if (inbox != null) {
+                watch(signer, inbox, outputDirectory, journalPath, capacity, Duration.ofMillis(quietMillis));
+            } else if (queued) {
+                try (SigningJournal journal = journalPath != null ? new SigningJournal(journalPath) : null) {
+                    report = signer.signQueued(documents, urgent, journal, capacity);
+                }
+            } else {
+                report = signer.signAll(documents);
+            }
+        } finally {
+            if (timestampClient != null) {
+                timestampClient.close();
+            }
+            if (localTsa != null) {
+                localTsa.close();
+            }
+            exporter.close();
+        }
+        if (report != null) {
+            report.print(System.out);
+        }
+        if (timestampClient != null) {
+            System.out.printf("Timestamps: %d requests to %s, %d failed%n",
+                    timestampClient.getRequests(), timestampClient.getUri(), timestampClient.getFailures());
+        }
+        MemoryMetrics.shared().print(System.out);
+        MetricsRegistry.shared().print(System.out);
+
+        System.exit(report == null || report.getFailed() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Signs the documents dropped into an inbox until the process is interrupted.
+     *
+     * @param signer      Batch signer providing the signing settings.
+     * @param inbox       Directory receiving the documents to sign.
+     * @param outbox      Directory receiving the signed copies.
+     * @param journalPath Path to the journal file, or `null` to record nothing.
+     * @param capacity    Maximum number of documents held by the queue.
+     * @param quietPeriod Time a document must stay unchanged before it is signed.
+     * @throws Exception If the inbox cannot be watched or the journal cannot be opened.
+     */
+    private static void watch(BatchSigner signer, Path inbox, Path outbox, Path journalPath, int capacity,
+                              Duration quietPeriod) throws Exception {
+        try (SigningJournal journal = journalPath != null ? new SigningJournal(journalPath) : null;
+             SigningQueue queue = signer.openQueue(journal, capacity);
+             InboxWatcher watcher = new InboxWatcher(inbox, outbox, queue, quietPeriod)) {
+            // On Ctrl+C, finish the documents being signed before the JVM exits.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                watcher.close();
+                queue.close();
+            }));
+            System.out.println("Watching " + inbox.toAbsolutePath() + ", signed documents go to " + outbox.toAbsolutePath());
+            watcher.run();
+        }
+    }
+
+    /**
+     * Unlocks the signing key held in a key file or on a PKCS#11 token.
+     *
+     * @param keyPath      Path to the encrypted private key file, or `null` to use the token.
+     * @param pkcs11Config Path to the SunPKCS11 configuration, used if `keyPath` is `null`.
+     * @param pin          PIN of the key file or user PIN of the token.
+     * @param alias        Alias of the key on the token, or `null` for the first key.
+     * @param sessions     Number of concurrent token sessions.
+     * @return The key provider.
+     * @throws Exception If the key cannot be unlocked.
+     */
+    static KeyProvider openKeyProvider(String keyPath, String pkcs11Config, String pin, String alias, int sessions)
+            throws Exception {
+        try (Timer.Sample sample = MetricsRegistry.shared().timer("sign", Stage.KEY_LOAD).start()) {
+            if (keyPath != null) {
+                return FileKeyProvider.load(Paths.get(keyPath), pin);
+            }
+            return new Pkcs11KeyProvider(Paths.get(pkcs11Config), pin.toCharArray(), alias, sessions);
+        }
+    }
+
+    /**
+     * Returns the value of an option, failing if it is missing.
+     *
+     * @param args  Command-line arguments.
+     * @param index Index of the option value.
+     * @return The option value.
+     */
+    static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.developed_app;
+
+import org.example.developed_app.daemon.DaemonAddress;
+import org.example.developed_app.daemon.SigningDaemon;
+import org.example.developed_app.metrics.MetricsExporter;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.sign.KeyProvider;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The `SignDaemonCli` class runs a signing daemon that keeps the signing key unlocked in memory
+ * and signs digests sent by {@link SignCli} instances started with `--daemon`.
+ *
+ * <p>Usage: {@code SignDaemonCli (--key <private.enc> | --pkcs11 <config> [--alias <alias>]) [--pin <pin>]
+ * [--listen <address>] [--signers <n>] [--batch <n>] [--metrics <exporter>]}. The address defaults to `unix:pades-sign.sock`
+ * in the working directory; see {@link DaemonAddress} for the syntax. If `--pin` is omitted, the PIN is
+ * read from the `PADES_PIN` environment variable. The daemon runs until it is interrupted.
+ * Without a shared secret the daemon only listens on Unix-domain sockets; to listen on any TCP address,
+ * loopback included, put the secret (at least 16 bytes) into the `PADES_DAEMON_SECRET` environment
+ * variable of the daemon and of its clients.
+ * The time of the private key operations is published as selected by `--metrics`, over JMX by default;
+ * see {@link MetricsExporter}.</p>
+ */
+public class SignDaemonCli {
+
+    /**
+     * Logger receiving the address the daemon listens on and failures to shut it down.
+     */
+    private static final System.Logger LOGGER = System.getLogger(SignDaemonCli.class.getName());
+
+    /**
+     * Parses the command-line arguments, unlocks the key and serves clients until the process is stopped.
+     *
+     * @param args Command-line arguments.
+     * @throws Exception If the signing key cannot be unlocked or the socket cannot be bound.
+     */
+    public static void main(String[] args) throws Exception {
+        String keyPath = null;
+        String pkcs11Config = null;
+        String alias = null;
+        String pin = System.getenv("PADES_PIN");
+        String secret = System.getenv("PADES_DAEMON_SECRET");
+        String listen = "unix:pades-sign.sock";
+        int signers = Runtime.getRuntime().availableProcessors();
+        int batch = 64;
+        String metrics = MetricsExporter.DEFAULT;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--key" -> keyPath = SignCli.requireValue(args, ++i);
+                case "--pkcs11" -> pkcs11Config = SignCli.requireValue(args, ++i);
+                case "--alias" -> alias = SignCli.requireValue(args, ++i);
+                case "--pin" -> pin = SignCli.requireValue(args, ++i);
+                case "--listen" -> listen = SignCli.requireValue(args, ++i);
+                case "--signers" -> signers = Integer.parseInt(SignCli.requireValue(args, ++i));
+                case "--batch" -> batch = Integer.parseInt(SignCli.requireValue(args, ++i));
+                case "--metrics" -> metrics = SignCli.requireValue(args, ++i);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if ((keyPath == null) == (pkcs11Config == null) || pin == null) {
+            System.err.println("Usage: SignDaemonCli (--key <private.enc> | --pkcs11 <config> [--alias <alias>])"
+                    + " [--pin <pin>] [--listen unix:<path>|<host>:<port>] [--signers <n>] [--batch <n>]"
+                    + " [--metrics jmx|prometheus:[<host>:]<port>|none]");
+            System.err.println("A TCP --listen address requires the PADES_DAEMON_SECRET environment variable.");
+            System.exit(2);
+        }
+
+        try (MetricsExporter exporter = MetricsExporter.open(metrics, MetricsRegistry.shared());
+             KeyProvider keyProvider = SignCli.openKeyProvider(keyPath, pkcs11Config, pin, alias, signers);
+             SigningDaemon daemon = new SigningDaemon(keyProvider, DaemonAddress.parse(listen),
+                     secret != null ? secret.getBytes(StandardCharsets.UTF_8) : null, signers, batch)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    daemon.close();
+                } catch (Exception e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "operation=daemon status=close_failed error={0}", e.getMessage());
+                }
+            }));
+            LOGGER.log(System.Logger.Level.INFO, "operation=daemon status=listening address={0} metrics={1}",
+                    daemon.getAddress(), exporter.describe());
+            daemon.serve();
+            System.out.printf("Signed %d digests in %d batches, %d failed%n",
+                    daemon.getSignatures(), daemon.getBatches(), daemon.getFailures());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.developed_app;
+
+import org.example.developed_app.memory.MemoryMetrics;
+import org.example.developed_app.metrics.MetricsExporter;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.validation.CertificateValidator;
+import org.example.developed_app.validation.RevocationCache;
+import org.example.developed_app.validation.RevocationSource;
+import org.example.developed_app.verify.BulkVerifier;
+import org.example.developed_app.verify.ReportFormat;
+import org.example.developed_app.verify.VerificationCache;
+import org.example.developed_app.verify.VerificationReportWriter;
+import org.example.developed_app.verify.VerificationStatus;
+import org.example.developed_app.verify.VerificationSummary;
+import org.example.developed_app.verify.Verify;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The `VerifyCli` class is the headless entry point for verifying every PDF document in a directory tree.
+ *
+ * <p>Usage: {@code VerifyCli (--key <public.pem> | --trust <certs> [--key <public.pem>]) [--workers <n>]
+ * [--format csv|json] [--output <file>] [--cache <file> [--cache-size <n>]] [--revocation-cache <dir>]
+ * [--revocation-ttl <minutes>] [--offline] [--metrics <exporter>] <directory>}.
+ * The report is written to standard output unless `--output` is given; the summary goes to standard error.
+ * With `--cache`, results are kept in a {@link VerificationCache} journal, so documents that have not
+ * changed since an earlier run are not verified again.</p>
+ *
+ * <p>With `--trust`, PAdES signers are identified by their certificates, which must chain to one of the
+ * trusted root certificates (a PEM or DER file, or a directory of them) and must not be revoked. The key
+ * is then only needed for metadata signatures. Revocation data embedded in the documents is used first;
+ * missing data is downloaded once per `--revocation-ttl` (by default 60 minutes) into
+ * `--revocation-cache` (by default `~/.pades/revocation`), and `--offline` uses the cache only.</p>
+ *
+ * <p>`--metrics` selects how the stage timers are published while the tree is verified
+ * (see {@link MetricsExporter}); a summary of the stage times is printed with the other statistics.</p>
+ *
+ * <p>The memory used per document is bounded by the `pades.memory.*` system properties described in
+ * {@link org.example.developed_app.memory.MemoryPolicy}.</p>
+ */
+public class VerifyCli {
+
+    /**
+     * Parses the command-line arguments, verifies the documents and writes the report.
+     *
+     * @param args Command-line arguments.
+     * @throws Exception If the public key cannot be loaded or the report cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        String keyPath = null;
+        int workers = Runtime.getRuntime().availableProcessors();
+        ReportFormat format = ReportFormat.CSV;
+        Path output = null;
+        Path cachePath = null;
+        int cacheSize = VerificationCache.DEFAULT_MAX_ENTRIES;
+        Path trust = null;
+        Path revocationCache = RevocationCache.defaultDirectory();
+        Duration revocationTtl = RevocationCache.DEFAULT_TTL;
+        boolean offline = false;
+        String metrics = MetricsExporter.DEFAULT;
+        Path root = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--key" -> keyPath = SignCli.requireValue(args, ++i);
+                case "--workers" -> workers = Integer.parseInt(SignCli.requireValue(args, ++i));
+                case "--format" -> format = ReportFormat.valueOf(SignCli.requireValue(args, ++i).toUpperCase());
+                case "--output" -> output = Paths.get(SignCli.requireValue(args, ++i));
+                case "--cache" -> cachePath = Paths.get(SignCli.requireValue(args, ++i));
+                case "--cache-size" -> cacheSize = Integer.parseInt(SignCli.requireValue(args, ++i));
+                case "--trust" -> trust = Paths.get(SignCli.requireValue(args, ++i));
+                case "--revocation-cache" -> revocationCache = Paths.get(SignCli.requireValue(args, ++i));
+                case "--revocation-ttl" -> revocationTtl = Duration.ofMinutes(Long.parseLong(SignCli.requireValue(args, ++i)));
+                case "--offline" -> offline = true;
+                case "--metrics" -> metrics = SignCli.requireValue(args, ++i);
+                default -> root = Paths.get(args[i]);
+            }
+        }
+
+        if ((keyPath == null && trust == null) || root == null) {
+            System.err.println("Usage: VerifyCli (--key <public.pem> | --trust <certs> [--key <public.pem>]) [--workers <n>]"
+                    + " [--format csv|json] [--output <file>] [--cache <file> [--cache-size <n>]]"
+                    + " [--revocation-cache <dir>] [--revocation-ttl <minutes>] [--offline]"
+                    + " [--metrics jmx|prometheus:[<host>:]<port>|none] <directory>");
+            System.exit(2);
+        }
+
+        MetricsExporter exporter = MetricsExporter.open(metrics, MetricsRegistry.shared());
+        PublicKey publicKey = null;
+        if (keyPath != null) {
+            Verify verify = new Verify();
+            verify.setKeyPath(keyPath);
+            publicKey = verify.loadPublicKey();
+        }
+        VerificationCache cache = cachePath != null ? new VerificationCache(cachePath, cacheSize) : null;
+        RevocationCache revocations = trust != null ? new RevocationCache(revocationCache, revocationTtl) : null;
+
+        Writer writer = output != null
+                ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        VerificationSummary summary;
+        try (RevocationSource revocationSource = revocations != null ? new RevocationSource(revocations, offline) : null;
+             VerificationReportWriter report = new VerificationReportWriter(writer, format)) {
+            CertificateValidator validator = trust != null
+                    ? new CertificateValidator(CertificateValidator.readCertificates(trust), List.of(), revocationSource) : null;
+            summary = new BulkVerifier(publicKey, workers, cache, validator).verifyTree(root, report);
+        } finally {
+            if (cache != null) {
+                cache.close();
+            }
+            exporter.close();
+        }
+
+        System.err.printf("Verified %d documents in %d ms (%.2f documents/s): %d valid, %d modified, %d unsigned,"
+                        + " %d revoked, %d untrusted, %d errors%n",
+                summary.total(), summary.elapsedMillis(), summary.documentsPerSecond(),
+                summary.count(VerificationStatus.VALID), summary.count(VerificationStatus.MODIFIED),
+                summary.count(VerificationStatus.UNSIGNED), summary.count(VerificationStatus.REVOKED),
+                summary.count(VerificationStatus.UNTRUSTED), summary.count(VerificationStatus.ERROR));
+        if (revocations != null) {
+            System.err.printf("Revocation cache: %d hits, %d misses%n", revocations.getHits(), revocations.getMisses());
+        }
+        if (cache != null) {
+            System.err.printf("Verification cache: %d hits, %d misses, %d entries%n",
+                    cache.getHits(), cache.getMisses(), cache.size());
+        }
+        MemoryMetrics.shared().print(System.err);
+        MetricsRegistry.shared().print(System.err);
+
+        System.exit(summary.total() == summary.count(VerificationStatus.VALID) ? 0 : 1);
+    }
+}
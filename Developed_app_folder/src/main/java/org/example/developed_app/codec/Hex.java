@@ -0,0 +1,83 @@
+package org.example.developed_app.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The `Hex` class encodes and decodes lowercase hexadecimal strings through lookup tables.
+ *
+ * <p>Encoding writes two table entries per byte into a single array that becomes the string, and
+ * decoding reads the digits straight from the string, so neither allocates anything per byte.</p>
+ */
+public final class Hex {
+
+    /**
+     * Lowercase hexadecimal digits.
+     */
+    private static final byte[] DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Value of every ASCII character as a hexadecimal digit, or -1 if it is none.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            VALUES['a' + i] = (byte) (10 + i);
+            VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private Hex() {
+    }
+
+    /**
+     * Encodes bytes as a lowercase hexadecimal string.
+     *
+     * @param bytes The bytes to encode.
+     * @return Two hexadecimal digits per byte.
+     */
+    public static String encode(byte[] bytes) {
+        byte[] chars = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            chars[2 * i] = DIGITS[b >>> 4];
+            chars[2 * i + 1] = DIGITS[b & 0x0f];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decodes a hexadecimal string in either case.
+     *
+     * @param hex The hexadecimal string.
+     * @return The decoded bytes.
+     * @throws IllegalArgumentException If the string has an odd length or contains a non-hexadecimal character.
+     */
+    public static byte[] decode(CharSequence hex) {
+        int length = hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("Hexadecimal string has an odd length: " + length);
+        }
+        byte[] result = new byte[length / 2];
+        for (int i = 0; i < length; i += 2) {
+            result[i / 2] = (byte) (digit(hex.charAt(i)) << 4 | digit(hex.charAt(i + 1)));
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the value of a hexadecimal digit.
+     */
+    private static int digit(char c) {
+        int value = c < 128 ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Not a hexadecimal digit: " + c);
+        }
+        return value;
+    }
+}
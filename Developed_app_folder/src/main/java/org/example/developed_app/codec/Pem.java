@@ -0,0 +1,147 @@
+package org.example.developed_app.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The `Pem` class reads the Base64 body of PEM files such as the `public.pem` and `private.enc` key files.
+ *
+ * <p>The file is read into one buffer and the Base64 characters are decoded straight from it through
+ * a lookup table, skipping the `-----BEGIN` and `-----END` lines and line breaks, so no line strings,
+ * joined string or second Base64 pass are created. Only the first block of a file is decoded; a file
+ * without boundary lines is decoded as a whole.</p>
+ */
+public final class Pem {
+
+    /**
+     * Standard Base64 alphabet.
+     */
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Value of every ASCII character in the Base64 alphabet, or -1 if it is none.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    /**
+     * Start of a closing boundary line.
+     */
+    private static final byte[] END = "-----END".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private Pem() {
+    }
+
+    /**
+     * Reads and decodes a PEM file.
+     *
+     * @param path Path to the file.
+     * @return The decoded DER bytes of the first block.
+     * @throws IOException If the file cannot be read or is not valid Base64.
+     */
+    public static byte[] read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until the buffer is full or the file ends.
+            }
+            return decode(buffer.flip());
+        }
+    }
+
+    /**
+     * Decodes the first PEM block of a buffer, from its position to its limit.
+     *
+     * @param pem The PEM text; its position is advanced past the decoded block.
+     * @return The decoded DER bytes.
+     * @throws IOException If the block is not valid Base64.
+     */
+    public static byte[] decode(ByteBuffer pem) throws IOException {
+        byte[] out = new byte[pem.remaining() / 4 * 3 + 2];
+        int length = 0;
+        int bits = 0;
+        int count = 0;
+        boolean padded = false;
+        boolean lineStart = true;
+
+        while (pem.hasRemaining()) {
+            if (lineStart && pem.get(pem.position()) == '-') {
+                boolean end = startsWith(pem, END);
+                skipLine(pem);
+                if (end) {
+                    break;
+                }
+                continue;
+            }
+            byte c = pem.get();
+            lineStart = c == '\n';
+            if (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
+                continue;
+            }
+            if (c == '=') {
+                padded = true;
+                continue;
+            }
+            int value = c >= 0 ? VALUES[c] : -1;
+            if (value < 0 || padded) {
+                throw new IOException("Invalid Base64 character at offset " + (pem.position() - 1));
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                out[length++] = (byte) (bits >> 16);
+                out[length++] = (byte) (bits >> 8);
+                out[length++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+
+        switch (count) {
+            case 0 -> {
+            }
+            case 2 -> out[length++] = (byte) (bits >> 4);
+            case 3 -> {
+                out[length++] = (byte) (bits >> 10);
+                out[length++] = (byte) (bits >> 2);
+            }
+            default -> throw new IOException("Truncated Base64 data");
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    /**
+     * Checks whether the buffer continues with a prefix, without moving its position.
+     */
+    private static boolean startsWith(ByteBuffer buffer, byte[] prefix) {
+        if (buffer.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(buffer.position() + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the position past the next line break.
+     */
+    private static void skipLine(ByteBuffer buffer) {
+        while (buffer.hasRemaining() && buffer.get() != '\n') {
+            // Skip the rest of the line.
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.developed_app.daemon;
+
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * The `DaemonAddress` class parses the addresses of the signing daemon.
+ *
+ * <p>An address is either `unix:&lt;path&gt;` for a Unix-domain socket or `[tcp:]&lt;host&gt;:&lt;port&gt;`
+ * for a TCP socket. Unix-domain sockets are preferred: access to them is limited by the file permissions,
+ * while the TCP socket accepts anyone who can reach it, including every local user on a loopback address.
+ * The daemon therefore only listens on a TCP address when a shared secret is configured
+ * (see {@link SigningDaemon}).</p>
+ */
+public final class DaemonAddress {
+
+    private DaemonAddress() {
+    }
+
+    /**
+     * Parses a daemon address.
+     *
+     * @param address The address, e.g. `unix:/run/pades/sign.sock` or `127.0.0.1:7301`.
+     * @return The socket address.
+     * @throws IllegalArgumentException If the address is malformed.
+     */
+    public static SocketAddress parse(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(Path.of(address.substring("unix:".length())));
+        }
+        String hostAndPort = address.startsWith("tcp:") ? address.substring("tcp:".length()) : address;
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Invalid daemon address: " + address);
+        }
+        try {
+            return new InetSocketAddress(hostAndPort.substring(0, colon), Integer.parseInt(hostAndPort.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid daemon port: " + address, e);
+        }
+    }
+
+    /**
+     * Gets the protocol family of an address.
+     *
+     * @param address The socket address.
+     * @return {@link StandardProtocolFamily#UNIX} for Unix-domain addresses, otherwise {@link StandardProtocolFamily#INET}
+     * or {@link StandardProtocolFamily#INET6}.
+     */
+    static StandardProtocolFamily family(SocketAddress address) {
+        if (address instanceof UnixDomainSocketAddress) {
+            return StandardProtocolFamily.UNIX;
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        return inet.getAddress() instanceof Inet6Address ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET;
+    }
+}
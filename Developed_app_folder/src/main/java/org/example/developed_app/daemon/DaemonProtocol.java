@@ -0,0 +1,177 @@
+package org.example.developed_app.daemon;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * The `DaemonProtocol` class holds the constants and framing of the signing daemon protocol.
+ *
+ * <p>The client opens with {@link #MAGIC} and {@link #VERSION}, then sends requests without waiting
+ * for the previous responses. A daemon configured with a shared secret instead expects
+ * {@link #VERSION_AUTHENTICATED} followed by a handshake in which both sides prove that they know the secret
+ * without sending it:</p>
+ * <ol>
+ *     <li>client: `nonce:32`,</li>
+ *     <li>daemon: `nonce:32 proof:32`, the {@link #proof proof} of the daemon over both nonces,</li>
+ *     <li>client: `proof:32`, the proof of the client over both nonces.</li>
+ * </ol>
+ * <p>The daemon closes the connection on a wrong version or proof. The handshake authenticates the peers
+ * but does not encrypt or protect the requests that follow; networks on which connections can be hijacked
+ * need a tunnel such as SSH or TLS in front of the daemon.</p>
+ * <p>Requests are:</p>
+ * <ul>
+ *     <li>{@link #TYPE_CERTIFICATE}: `type:u8 id:i32`, answered with the DER-encoded signer certificate,</li>
+ *     <li>{@link #TYPE_SIGN_DIGEST}: `type:u8 id:i32 algorithm:u8 length:u8 digest`, answered with the signature;
+ *     `algorithm` is the ordinal of {@link org.example.developed_app.digest.DigestAlgorithm}.</li>
+ * </ul>
+ * <p>Every response is `id:i32 status:u8 length:i32 payload`, where the payload of an error is its UTF-8 message.
+ * Responses may arrive in a different order than the requests.</p>
+ */
+final class DaemonProtocol {
+
+    /**
+     * First four bytes sent by a client: `PADS`.
+     */
+    static final int MAGIC = 0x50414453;
+
+    /**
+     * Protocol version of clients connecting without a shared secret.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Protocol version of clients that authenticate with a shared secret.
+     */
+    static final int VERSION_AUTHENTICATED = 2;
+
+    /**
+     * Length of the random nonces exchanged in the handshake.
+     */
+    static final int NONCE_LENGTH = 32;
+
+    /**
+     * Length of a proof of the shared secret, an HMAC-SHA256 value.
+     */
+    static final int PROOF_LENGTH = 32;
+
+    /**
+     * Shortest accepted shared secret, in bytes.
+     */
+    static final int MIN_SECRET_LENGTH = 16;
+
+    /**
+     * Role of a proof sent by the daemon, so a client proof cannot be replayed as a daemon proof.
+     */
+    static final String ROLE_DAEMON = "daemon";
+
+    /**
+     * Role of a proof sent by the client.
+     */
+    static final String ROLE_CLIENT = "client";
+
+    static final int TYPE_CERTIFICATE = 1;
+
+    static final int TYPE_SIGN_DIGEST = 2;
+
+    static final int STATUS_OK = 0;
+
+    static final int STATUS_ERROR = 1;
+
+    /**
+     * Largest accepted response payload, guarding the client against a corrupted stream.
+     */
+    static final int MAX_PAYLOAD = 1024 * 1024;
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * Opens a buffered input stream over a blocking channel.
+     *
+     * <p>The stream calls the channel directly instead of going through `Channels.newInputStream`,
+     * whose streams share a lock, so a thread blocked in a read would stall every write.</p>
+     */
+    static DataInputStream input(SocketChannel channel) {
+        return new DataInputStream(new BufferedInputStream(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return len == 0 ? 0 : channel.read(ByteBuffer.wrap(b, off, len));
+            }
+        }));
+    }
+
+    /**
+     * Opens a buffered output stream over a blocking channel.
+     */
+    static DataOutputStream output(SocketChannel channel) {
+        return new DataOutputStream(new BufferedOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Computes the proof of the shared secret one side of a connection sends in the handshake.
+     *
+     * @param secret      The shared secret.
+     * @param role        {@link #ROLE_DAEMON} or {@link #ROLE_CLIENT}.
+     * @param clientNonce Nonce sent by the client.
+     * @param daemonNonce Nonce sent by the daemon.
+     * @return HMAC-SHA256 of the role and both nonces, keyed with the secret.
+     */
+    static byte[] proof(byte[] secret, String role, byte[] clientNonce, byte[] daemonNonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(role.getBytes(StandardCharsets.US_ASCII));
+            mac.update(clientNonce);
+            mac.update(daemonNonce);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Writes one response frame without flushing it.
+     *
+     * @param out     The stream to write to.
+     * @param id      Identifier of the answered request.
+     * @param status  {@link #STATUS_OK} or {@link #STATUS_ERROR}.
+     * @param payload The signature, certificate or error message.
+     * @throws IOException If the frame cannot be written.
+     */
+    static void writeResponse(DataOutputStream out, int id, int status, byte[] payload) throws IOException {
+        out.writeInt(id);
+        out.writeByte(status);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+}
@@ -0,0 +1,308 @@
+package org.example.developed_app.daemon;
+
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.keys.SignatureProfile;
+import org.example.developed_app.sign.KeyProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `SigningClient` class is a {@link KeyProvider} whose private key operations are performed by a
+ * {@link SigningDaemon}, so `Sign` and `BatchSigner` work unchanged on machines without the key.
+ *
+ * <p>Only digests leave the client: documents are hashed locally by the digest stage and the daemon
+ * returns the signature. Requests are pipelined over one connection, so any number of threads may sign
+ * through the same client at once.</p>
+ *
+ * <p>Ed25519 keys can only sign digests as messages, so PAdES signatures, which need a pure Ed25519
+ * signature of the signed attributes, cannot be created through the daemon with an Ed25519 key.</p>
+ */
+public class SigningClient implements KeyProvider {
+
+    /**
+     * Connection to the daemon.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Stream the responses are read from.
+     */
+    private final DataInputStream in;
+
+    /**
+     * Stream the requests are written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Requests waiting for their response, by request identifier.
+     */
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Source of request identifiers.
+     */
+    private final AtomicInteger ids = new AtomicInteger();
+
+    /**
+     * Certificate of the signer held by the daemon.
+     */
+    private final X509Certificate certificate;
+
+    /**
+     * Error that ended the connection, or `null` while it is open.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Connects to a signing daemon that does not authenticate its clients and fetches its signer certificate.
+     *
+     * @param address Address of the daemon, see {@link DaemonAddress}.
+     * @throws IOException If the daemon cannot be reached or sends an invalid certificate.
+     */
+    public SigningClient(SocketAddress address) throws IOException {
+        this(address, null);
+    }
+
+    /**
+     * Connects to a signing daemon and fetches its signer certificate.
+     *
+     * @param address Address of the daemon, see {@link DaemonAddress}.
+     * @param secret  Secret shared with the daemon, or `null` if the daemon does not authenticate its clients.
+     * @throws IOException If the daemon cannot be reached, rejects the secret, cannot prove that it knows
+     *                     the secret or sends an invalid certificate.
+     */
+    public SigningClient(SocketAddress address, byte[] secret) throws IOException {
+        this.channel = SocketChannel.open(DaemonAddress.family(address));
+        try {
+            channel.connect(address);
+            this.in = DaemonProtocol.input(channel);
+            this.out = DaemonProtocol.output(channel);
+            synchronized (out) {
+                out.writeInt(DaemonProtocol.MAGIC);
+                out.writeByte(secret != null ? DaemonProtocol.VERSION_AUTHENTICATED : DaemonProtocol.VERSION);
+                if (secret != null) {
+                    authenticate(secret);
+                }
+                out.flush();
+            }
+            Thread.ofVirtual().name("signing-client-reader").start(this::readResponses);
+
+            byte[] encoded = await(send(DaemonProtocol.TYPE_CERTIFICATE, null, null));
+            this.certificate = (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(encoded));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (Exception e) {
+            channel.close();
+            throw new IOException("Cannot read the certificate of the signing daemon", e);
+        }
+    }
+
+    /**
+     * Runs the client side of the handshake of {@link DaemonProtocol#VERSION_AUTHENTICATED}.
+     *
+     * @param secret The shared secret.
+     * @throws IOException If the daemon closes the connection or cannot prove that it knows the secret.
+     */
+    private void authenticate(byte[] secret) throws IOException {
+        byte[] clientNonce = new byte[DaemonProtocol.NONCE_LENGTH];
+        new SecureRandom().nextBytes(clientNonce);
+        out.write(clientNonce);
+        out.flush();
+
+        byte[] daemonNonce = new byte[DaemonProtocol.NONCE_LENGTH];
+        byte[] proof = new byte[DaemonProtocol.PROOF_LENGTH];
+        try {
+            in.readFully(daemonNonce);
+            in.readFully(proof);
+        } catch (EOFException e) {
+            throw new IOException("The signing daemon rejected the connection; check the protocol version", e);
+        }
+        if (!MessageDigest.isEqual(proof, DaemonProtocol.proof(secret, DaemonProtocol.ROLE_DAEMON, clientNonce, daemonNonce))) {
+            throw new IOException("The signing daemon does not know the shared secret");
+        }
+        out.write(DaemonProtocol.proof(secret, DaemonProtocol.ROLE_CLIENT, clientNonce, daemonNonce));
+    }
+
+    /**
+     * Connects to a signing daemon that does not authenticate its clients.
+     *
+     * @param address Address of the daemon, e.g. `unix:/run/pades/sign.sock`.
+     * @return The connected client.
+     * @throws IOException If the daemon cannot be reached.
+     */
+    public static SigningClient connect(String address) throws IOException {
+        return connect(address, null);
+    }
+
+    /**
+     * Connects to a signing daemon.
+     *
+     * @param address Address of the daemon, e.g. `unix:/run/pades/sign.sock`.
+     * @param secret  Secret shared with the daemon, or `null` if the daemon does not authenticate its clients.
+     * @return The connected client.
+     * @throws IOException If the daemon cannot be reached or the handshake fails.
+     */
+    public static SigningClient connect(String address, byte[] secret) throws IOException {
+        return new SigningClient(DaemonAddress.parse(address), secret);
+    }
+
+    @Override
+    public X509Certificate certificate() {
+        return certificate;
+    }
+
+    /**
+     * Sends a digest to the daemon without waiting for the signature.
+     *
+     * @param algorithm The algorithm that computed the digest.
+     * @param digest    The digest.
+     * @return Future completed with the signature.
+     */
+    public CompletableFuture<byte[]> signDigestAsync(DigestAlgorithm algorithm, byte[] digest) {
+        if (digest.length != algorithm.getDigestLength()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid " + algorithm.getJcaName() + " digest"));
+        }
+        return send(DaemonProtocol.TYPE_SIGN_DIGEST, algorithm, digest);
+    }
+
+    @Override
+    public byte[] signDigest(DigestAlgorithm algorithm, byte[] digest) throws Exception {
+        return await(signDigestAsync(algorithm, digest));
+    }
+
+    /**
+     * Signs data by hashing it locally and sending the digest to the daemon.
+     *
+     * @param algorithm JCA name of the signature algorithm, which must hash with one of the {@link DigestAlgorithm}s.
+     * @param data      The data to sign.
+     * @return The signature.
+     * @throws UnsupportedOperationException If the algorithm does not hash the data, e.g. Ed25519.
+     * @throws Exception                     If the daemon cannot sign the digest.
+     */
+    @Override
+    public byte[] sign(String algorithm, byte[] data) throws Exception {
+        SignatureProfile profile = profile();
+        if (profile != SignatureProfile.ED25519) {
+            for (DigestAlgorithm digestAlgorithm : DigestAlgorithm.values()) {
+                if (profile.getSignatureAlgorithm(digestAlgorithm).equalsIgnoreCase(algorithm)) {
+                    return signDigest(digestAlgorithm, digestAlgorithm.newDigest().digest(data));
+                }
+            }
+        }
+        throw new UnsupportedOperationException("The signing daemon only signs digests, not " + algorithm);
+    }
+
+    /**
+     * Sends a request frame.
+     *
+     * @param type      Type of the request.
+     * @param algorithm Digest algorithm of a signing request, otherwise `null`.
+     * @param digest    Digest of a signing request, otherwise `null`.
+     * @return Future completed with the response payload.
+     */
+    private CompletableFuture<byte[]> send(int type, DigestAlgorithm algorithm, byte[] digest) {
+        int id = ids.incrementAndGet();
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        pending.put(id, response);
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(id);
+                if (algorithm != null) {
+                    out.writeByte(algorithm.ordinal());
+                    out.writeByte(digest.length);
+                    out.write(digest);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            pending.remove(id);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    /**
+     * Waits for a response, rethrowing its failure.
+     */
+    private static byte[] await(CompletableFuture<byte[]> response) throws IOException, InterruptedException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Completes the pending requests with the responses sent by the daemon until the connection ends.
+     */
+    private void readResponses() {
+        try {
+            while (true) {
+                int id = in.readInt();
+                int status = in.readUnsignedByte();
+                int length = in.readInt();
+                if (length < 0 || length > DaemonProtocol.MAX_PAYLOAD) {
+                    throw new IOException("Invalid response from the signing daemon");
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                CompletableFuture<byte[]> response = pending.remove(id);
+                if (response == null) {
+                    continue;
+                }
+                if (status == DaemonProtocol.STATUS_OK) {
+                    response.complete(payload);
+                } else {
+                    response.completeExceptionally(new IOException("Signing daemon: " + new String(payload, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            if (failure == null) {
+                failure = new IOException("Connection to the signing daemon closed");
+            }
+            for (CompletableFuture<byte[]> response : pending.values()) {
+                response.completeExceptionally(failure);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * Disconnects from the daemon. Requests still waiting fail.
+     *
+     * @throws IOException If the connection cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
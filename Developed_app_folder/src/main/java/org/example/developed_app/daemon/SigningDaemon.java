@@ -0,0 +1,545 @@
+package org.example.developed_app.daemon;
+
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Timer;
+import org.example.developed_app.sign.KeyProvider;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `SigningDaemon` class keeps an unlocked signing key in memory and signs digests sent by clients
+ * over a local socket, so documents can be signed on machines that do not hold the key.
+ *
+ * <p>Clients only send the digests computed by the digest stage (32 to 64 bytes); the documents never
+ * reach the daemon. Requests of all connections go through one queue. Each signer thread takes every
+ * request waiting in the queue, up to the batch size, signs them one after another and flushes the
+ * responses of each connection once per batch, so bursts of concurrent requests cost one wake-up and
+ * one write per connection instead of one per signature.</p>
+ *
+ * <p>The queue is bounded; when it is full, connection threads stop reading and the clients are slowed
+ * down by the socket instead of growing the daemon's memory.</p>
+ *
+ * <p>Anyone who can connect may have digests signed, so without a shared secret the daemon only listens on
+ * Unix-domain sockets, which only the owner can connect to. A TCP socket, even on a loopback address, can be
+ * reached by every local user, so it requires a secret: every client must prove that it knows the secret in
+ * the handshake described in {@link DaemonProtocol}.</p>
+ *
+ * @see SigningClient
+ * @see DaemonProtocol
+ */
+public class SigningDaemon implements Closeable {
+
+    /**
+     * Number of queued requests per signer thread before clients are slowed down.
+     */
+    private static final int QUEUE_PER_SIGNER = 1024;
+
+    /**
+     * Time a connection thread waits for room in the full queue before checking whether the daemon was closed.
+     */
+    private static final long QUEUE_POLL_MILLIS = 100;
+
+    /**
+     * Source of the handshake nonces.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Logger receiving a structured record when a client connection fails or is rejected.
+     */
+    private static final System.Logger LOGGER = System.getLogger(SigningDaemon.class.getName());
+
+    /**
+     * Provider of the signing key.
+     */
+    private final KeyProvider keyProvider;
+
+    /**
+     * DER encoding of the signer certificate, sent to clients on request.
+     */
+    private final byte[] certificate;
+
+    /**
+     * Address the daemon listens on.
+     */
+    private final SocketAddress address;
+
+    /**
+     * Secret clients must prove to know, or `null` if clients are not authenticated.
+     */
+    private final byte[] secret;
+
+    /**
+     * The listening socket.
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * Number of signer threads.
+     */
+    private final int signers;
+
+    /**
+     * Largest number of requests signed in one batch.
+     */
+    private final int maxBatch;
+
+    /**
+     * Requests waiting to be signed.
+     */
+    private final BlockingQueue<PendingSignature> queue;
+
+    /**
+     * Open client connections.
+     */
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Threads started by the daemon.
+     */
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final LongAdder signatures = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Timer of the private key operations, in the shared {@link MetricsRegistry}.
+     */
+    private final Timer cryptoTimer = MetricsRegistry.shared().timer("daemon", Stage.CRYPTO);
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a daemon that does not authenticate its clients and binds its socket.
+     *
+     * @param keyProvider Provider of the signing key, kept open for the lifetime of the daemon.
+     * @param address     Unix-domain address to listen on, see {@link DaemonAddress}.
+     * @param signers     Number of signer threads, at most the number of concurrent key operations the provider allows.
+     * @param maxBatch    Largest number of requests signed in one batch.
+     * @throws IllegalArgumentException If the address is a TCP address.
+     * @throws IOException              If the socket cannot be bound or another daemon is already listening on it.
+     * @throws Exception                If the certificate of the key provider cannot be encoded.
+     */
+    public SigningDaemon(KeyProvider keyProvider, SocketAddress address, int signers, int maxBatch) throws Exception {
+        this(keyProvider, address, null, signers, maxBatch);
+    }
+
+    /**
+     * Creates a daemon and binds its socket. Unix-domain sockets are created in a directory only the
+     * owner can access and are made accessible to the owner only before they appear at their address.
+     *
+     * @param keyProvider Provider of the signing key, kept open for the lifetime of the daemon.
+     * @param address     Address to listen on, see {@link DaemonAddress}.
+     * @param secret      Secret clients must prove to know, at least 16 bytes, or `null` to accept every client
+     *                    that can connect, which is only allowed on Unix-domain addresses.
+     * @param signers     Number of signer threads, at most the number of concurrent key operations the provider allows.
+     * @param maxBatch    Largest number of requests signed in one batch.
+     * @throws IllegalArgumentException If the secret is too short or missing for a TCP address.
+     * @throws IOException              If the socket cannot be bound or another daemon is already listening on it.
+     * @throws Exception                If the certificate of the key provider cannot be encoded.
+     */
+    public SigningDaemon(KeyProvider keyProvider, SocketAddress address, byte[] secret, int signers, int maxBatch) throws Exception {
+        if (signers < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("Number of signers and batch size must be positive");
+        }
+        if (secret == null && !(address instanceof UnixDomainSocketAddress)) {
+            throw new IllegalArgumentException("Refusing to listen on TCP address " + address
+                    + " without a shared secret; set PADES_DAEMON_SECRET or use a unix: address");
+        }
+        if (secret != null && secret.length < DaemonProtocol.MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("The shared secret must have at least "
+                    + DaemonProtocol.MIN_SECRET_LENGTH + " bytes");
+        }
+        this.keyProvider = keyProvider;
+        this.certificate = keyProvider.certificate().getEncoded();
+        this.address = address;
+        this.secret = secret != null ? secret.clone() : null;
+        this.signers = signers;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(signers * QUEUE_PER_SIGNER);
+
+        if (address instanceof UnixDomainSocketAddress unix) {
+            removeStaleSocket(unix);
+            this.server = bindPrivate(unix);
+        } else {
+            this.server = ServerSocketChannel.open(DaemonAddress.family(address));
+            server.bind(address);
+        }
+    }
+
+    /**
+     * Binds a Unix-domain socket that only the owner can connect to.
+     *
+     * <p>`bind(2)` creates the socket file with the permissions left by the umask, so the socket is bound
+     * inside a new directory only the owner can enter, restricted to `rw-------` and only then renamed to
+     * its address. Other users never see a socket they could connect to.</p>
+     *
+     * @param address The Unix-domain address.
+     * @return The bound server socket.
+     * @throws IOException If the socket cannot be bound or moved to its address.
+     */
+    private static ServerSocketChannel bindPrivate(UnixDomainSocketAddress address) throws IOException {
+        Path target = address.getPath().toAbsolutePath();
+        Path directory;
+        try {
+            directory = Files.createTempDirectory(target.getParent(), ".pades-",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file systems rely on the permissions of the socket directory.
+            ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(address);
+            return server;
+        }
+
+        Path bound = directory.resolve("sock");
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(bound));
+            Files.setPosixFilePermissions(bound, PosixFilePermissions.fromString("rw-------"));
+            Files.move(bound, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            Files.deleteIfExists(bound);
+            throw e;
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+        return server;
+    }
+
+    /**
+     * Deletes a socket file left behind by a daemon that did not shut down cleanly.
+     *
+     * @param address The Unix-domain address.
+     * @throws IOException If a daemon is still listening on the socket or the file cannot be deleted.
+     */
+    private static void removeStaleSocket(UnixDomainSocketAddress address) throws IOException {
+        if (!Files.exists(address.getPath())) {
+            return;
+        }
+        boolean listening;
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            listening = probe.connect(address);
+        } catch (IOException e) {
+            listening = false;
+        }
+        if (listening) {
+            throw new IOException("A signing daemon is already listening on " + address.getPath());
+        }
+        Files.delete(address.getPath());
+    }
+
+    /**
+     * Starts the signer threads and accepts clients until the daemon is closed.
+     *
+     * @throws IOException If accepting a client fails for a reason other than closing the daemon.
+     */
+    public void serve() throws IOException {
+        for (int i = 0; i < signers; i++) {
+            Thread signer = Thread.ofPlatform().name("signing-daemon-signer-" + i).daemon().start(this::signBatches);
+            threads.add(signer);
+        }
+
+        while (!closed) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            }
+            Connection connection = new Connection(channel);
+            connections.add(connection);
+            Thread.ofVirtual().name("signing-daemon-client").start(() -> readRequests(connection));
+        }
+    }
+
+    /**
+     * Reads the requests of one client and queues the digests for signing.
+     *
+     * @param connection The client connection.
+     */
+    private void readRequests(Connection connection) {
+        try (connection) {
+            DataInputStream in = DaemonProtocol.input(connection.channel);
+            int version = secret != null ? DaemonProtocol.VERSION_AUTHENTICATED : DaemonProtocol.VERSION;
+            if (in.readInt() != DaemonProtocol.MAGIC || in.readUnsignedByte() != version
+                    || (secret != null && !authenticate(connection, in))) {
+                LOGGER.log(System.Logger.Level.WARNING, "operation=daemon status=rejected");
+                return;
+            }
+            DigestAlgorithm[] algorithms = DigestAlgorithm.values();
+
+            while (!closed) {
+                int type = in.read();
+                if (type < 0) {
+                    return;
+                }
+                int id = in.readInt();
+
+                if (type == DaemonProtocol.TYPE_CERTIFICATE) {
+                    connection.respond(id, DaemonProtocol.STATUS_OK, certificate);
+                    connection.flush();
+                } else if (type == DaemonProtocol.TYPE_SIGN_DIGEST) {
+                    int algorithmIndex = in.readUnsignedByte();
+                    byte[] digest = new byte[in.readUnsignedByte()];
+                    in.readFully(digest);
+
+                    if (algorithmIndex >= algorithms.length || digest.length != algorithms[algorithmIndex].getDigestLength()) {
+                        connection.respond(id, DaemonProtocol.STATUS_ERROR,
+                                "Invalid digest".getBytes(StandardCharsets.UTF_8));
+                        connection.flush();
+                        continue;
+                    }
+                    PendingSignature request = new PendingSignature(connection, id, algorithms[algorithmIndex], digest);
+                    while (!queue.offer(request, QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (closed) {
+                            return;
+                        }
+                    }
+                } else {
+                    return;
+                }
+            }
+        } catch (EOFException | ClosedChannelException e) {
+            // The client disconnected.
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "operation=daemon status=failed error={0}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * Runs the daemon side of the handshake of {@link DaemonProtocol#VERSION_AUTHENTICATED}.
+     *
+     * @param connection The client connection.
+     * @param in         Stream of the client, positioned after the version.
+     * @return `true` if the client proved that it knows the secret; otherwise, `false`.
+     * @throws IOException If the connection fails.
+     */
+    private boolean authenticate(Connection connection, DataInputStream in) throws IOException {
+        byte[] clientNonce = new byte[DaemonProtocol.NONCE_LENGTH];
+        in.readFully(clientNonce);
+        byte[] daemonNonce = new byte[DaemonProtocol.NONCE_LENGTH];
+        RANDOM.nextBytes(daemonNonce);
+        connection.send(daemonNonce, DaemonProtocol.proof(secret, DaemonProtocol.ROLE_DAEMON, clientNonce, daemonNonce));
+
+        byte[] proof = new byte[DaemonProtocol.PROOF_LENGTH];
+        in.readFully(proof);
+        return MessageDigest.isEqual(proof, DaemonProtocol.proof(secret, DaemonProtocol.ROLE_CLIENT, clientNonce, daemonNonce));
+    }
+
+    /**
+     * Signs queued requests in batches until the daemon is closed.
+     */
+    private void signBatches() {
+        List<PendingSignature> batch = new ArrayList<>(maxBatch);
+        Set<Connection> touched = new LinkedHashSet<>();
+
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            batches.increment();
+
+            for (PendingSignature request : batch) {
+                int status;
+                byte[] payload;
+                try (Timer.Sample sample = cryptoTimer.start()) {
+                    payload = keyProvider.signDigest(request.algorithm(), request.digest());
+                    status = DaemonProtocol.STATUS_OK;
+                    signatures.increment();
+                } catch (Exception e) {
+                    String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    payload = message.getBytes(StandardCharsets.UTF_8);
+                    status = DaemonProtocol.STATUS_ERROR;
+                    failures.increment();
+                }
+                request.connection().respond(request.id(), status, payload);
+                touched.add(request.connection());
+            }
+            for (Connection connection : touched) {
+                connection.flush();
+            }
+            batch.clear();
+            touched.clear();
+        }
+    }
+
+    /**
+     * Gets the address the daemon listens on.
+     *
+     * @return The socket address.
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the number of digests signed so far.
+     *
+     * @return Number of signatures.
+     */
+    public long getSignatures() {
+        return signatures.sum();
+    }
+
+    /**
+     * Gets the number of batches signed so far.
+     *
+     * @return Number of batches.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of requests that could not be signed.
+     *
+     * @return Number of failures.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Stops accepting clients, disconnects the connected ones and stops the signer threads.
+     * Connection threads waiting for room in the full queue give up within {@link #QUEUE_POLL_MILLIS}.
+     * The key provider is left open for the caller to close.
+     *
+     * @throws IOException If the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress unix) {
+            Files.deleteIfExists(unix.getPath());
+        }
+    }
+
+    /**
+     * A digest waiting to be signed.
+     *
+     * @param connection Connection the response is sent to.
+     * @param id         Identifier of the request.
+     * @param algorithm  Algorithm that computed the digest.
+     * @param digest     The digest.
+     */
+    private record PendingSignature(Connection connection, int id, DigestAlgorithm algorithm, byte[] digest) {
+    }
+
+    /**
+     * A client connection whose responses are written by the signer threads.
+     */
+    private static class Connection implements Closeable {
+
+        private final SocketChannel channel;
+
+        private final DataOutputStream out;
+
+        private boolean broken;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.out = DaemonProtocol.output(channel);
+        }
+
+        /**
+         * Writes and flushes raw handshake data. Failures close the connection.
+         */
+        synchronized void send(byte[]... parts) throws IOException {
+            try {
+                for (byte[] part : parts) {
+                    out.write(part);
+                }
+                out.flush();
+            } catch (IOException e) {
+                broken = true;
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Writes a response without flushing it. Failures close the connection.
+         */
+        synchronized void respond(int id, int status, byte[] payload) {
+            if (broken) {
+                return;
+            }
+            try {
+                DaemonProtocol.writeResponse(out, id, status, payload);
+            } catch (IOException e) {
+                broken = true;
+                close();
+            }
+        }
+
+        /**
+         * Sends the written responses. Failures close the connection.
+         */
+        synchronized void flush() {
+            if (broken) {
+                return;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                broken = true;
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to release.
+            }
+        }
+    }
+}
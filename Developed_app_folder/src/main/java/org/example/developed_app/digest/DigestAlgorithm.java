@@ -0,0 +1,154 @@
+package org.example.developed_app.digest;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * The `DigestAlgorithm` enum lists the hash functions selectable for the digest stage of signing.
+ *
+ * <p>The content of a document is hashed exactly once with the selected algorithm; the signature is
+ * then computed over that precomputed digest, so the hashing may happen on a different machine than
+ * the private key operation.</p>
+ */
+public enum DigestAlgorithm {
+
+    /**
+     * SHA-256.
+     */
+    SHA_256("SHA-256", "SHA256", 32, NISTObjectIdentifiers.id_sha256),
+
+    /**
+     * SHA-384.
+     */
+    SHA_384("SHA-384", "SHA384", 48, NISTObjectIdentifiers.id_sha384),
+
+    /**
+     * SHA-512, usually faster than SHA-256 on 64-bit machines without SHA extensions.
+     */
+    SHA_512("SHA-512", "SHA512", 64, NISTObjectIdentifiers.id_sha512),
+
+    /**
+     * SHA3-256.
+     */
+    SHA3_256("SHA3-256", "SHA3-256", 32, NISTObjectIdentifiers.id_sha3_256),
+
+    /**
+     * SHA3-384.
+     */
+    SHA3_384("SHA3-384", "SHA3-384", 48, NISTObjectIdentifiers.id_sha3_384),
+
+    /**
+     * SHA3-512.
+     */
+    SHA3_512("SHA3-512", "SHA3-512", 64, NISTObjectIdentifiers.id_sha3_512);
+
+    /**
+     * JCA name of the algorithm, usable with {@link MessageDigest}.
+     */
+    private final String jcaName;
+
+    /**
+     * Prefix of the JCA signature algorithm names using this digest, e.g. `SHA256` in `SHA256withRSA`.
+     */
+    private final String signaturePrefix;
+
+    /**
+     * Length of the digest in bytes.
+     */
+    private final int digestLength;
+
+    /**
+     * Object identifier of the algorithm.
+     */
+    private final ASN1ObjectIdentifier oid;
+
+    DigestAlgorithm(String jcaName, String signaturePrefix, int digestLength, ASN1ObjectIdentifier oid) {
+        this.jcaName = jcaName;
+        this.signaturePrefix = signaturePrefix;
+        this.digestLength = digestLength;
+        this.oid = oid;
+    }
+
+    /**
+     * Gets the JCA name of the algorithm.
+     *
+     * @return The algorithm name, e.g. `SHA-256`.
+     */
+    public String getJcaName() {
+        return jcaName;
+    }
+
+    /**
+     * Gets the prefix of the JCA signature algorithm names using this digest.
+     *
+     * @return The prefix, e.g. `SHA256` or `SHA3-256`.
+     */
+    public String getSignaturePrefix() {
+        return signaturePrefix;
+    }
+
+    /**
+     * Gets the length of the digest.
+     *
+     * @return The digest length in bytes.
+     */
+    public int getDigestLength() {
+        return digestLength;
+    }
+
+    /**
+     * Gets the object identifier of the algorithm.
+     *
+     * @return The object identifier.
+     */
+    public ASN1ObjectIdentifier getOid() {
+        return oid;
+    }
+
+    /**
+     * Creates a new message digest of this algorithm.
+     *
+     * @return The message digest.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported by the JVM.
+     */
+    public MessageDigest newDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(jcaName);
+    }
+
+    /**
+     * Parses an algorithm name such as `SHA-256`, `sha512` or `sha3-256`.
+     *
+     * @param name The algorithm name.
+     * @return The algorithm.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static DigestAlgorithm fromName(String name) {
+        String normalized = name.toUpperCase(Locale.ROOT).replace("-", "").replace("_", "");
+        for (DigestAlgorithm algorithm : values()) {
+            if (algorithm.name().replace("_", "").equals(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown digest algorithm: " + name);
+    }
+
+    /**
+     * Finds the algorithm with an object identifier.
+     *
+     * @param oid The object identifier.
+     * @return The algorithm.
+     * @throws IllegalArgumentException If the identifier belongs to no supported algorithm.
+     */
+    public static DigestAlgorithm fromOid(ASN1ObjectIdentifier oid) {
+        for (DigestAlgorithm algorithm : values()) {
+            if (algorithm.oid.equals(oid)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown digest algorithm: " + oid);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.developed_app.digest;
+
+/**
+ * The `DigestMode` enum selects which data of a PDF document is hashed before signing.
+ */
+public enum DigestMode {
+
+    /**
+     * The text extracted with `PDFTextStripper` is hashed. The signature survives a full
+     * rewrite of the document, but the whole text has to be materialized in memory.
+     */
+    TEXT,
+
+    /**
+     * The raw bytes of the original file are hashed incrementally and the signature is appended
+     * as an incremental update. The length of the signed prefix is stored next to the signature, and
+     * the revision storing the signature must be the only data appended after that prefix.
+     */
+    BYTES,
+
+    /**
+     * Like {@link #BYTES}, but the original file is hashed as a Merkle tree of memory-mapped chunks on
+     * all cores, see {@link MerkleDigest}. The chunk size and tree layout are stored next to the signature,
+     * and the same rule applies to the data appended after the signed prefix.
+     */
+    MERKLE,
+
+    /**
+     * The bytes around a PAdES signature dictionary, as listed in its `/ByteRange`, are hashed and
+     * signed as a detached CMS container appended to the document as an incremental update.
+     */
+    PADES
+}
@@ -0,0 +1,149 @@
+package org.example.developed_app.digest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The `MerkleDigest` class hashes a file as a Merkle tree, so the chunks of very large files are hashed
+ * in parallel and the digest time scales with the number of cores.
+ *
+ * <p>The file is split into chunks of a fixed size; each chunk is memory-mapped and hashed on a
+ * {@link ForkJoinPool}, and the chunk hashes are combined into a binary tree laid out as in RFC 6962:
+ * a leaf is `H(0x00 || chunk)`, an inner node is `H(0x01 || left || right)`, and a level with an odd
+ * number of nodes splits at the largest power of two, so no node is duplicated. The root depends on
+ * the chunk size, which therefore has to be recorded next to the signature. An empty range hashes to
+ * `H()`.</p>
+ */
+public final class MerkleDigest {
+
+    /**
+     * Name of the tree layout, recorded with the signature so verifiers can reject unknown layouts.
+     */
+    public static final String TREE = "rfc6962";
+
+    /**
+     * Default size of the hashed chunks.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Smallest accepted chunk size; smaller chunks cost more in tree nodes and task overhead than they gain.
+     */
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Prefix of the leaf hashes.
+     */
+    private static final byte LEAF = 0x00;
+
+    /**
+     * Prefix of the inner node hashes.
+     */
+    private static final byte NODE = 0x01;
+
+    private MerkleDigest() {
+    }
+
+    /**
+     * Computes the Merkle root of a prefix of a file on the common fork-join pool.
+     *
+     * @param file      Path to the file.
+     * @param length    Number of hashed bytes from the start of the file.
+     * @param algorithm Hash function of the leaves and nodes.
+     * @param chunkSize Size of the chunks, at least {@link #MIN_CHUNK_SIZE}.
+     * @return The Merkle root.
+     * @throws IOException              If the file cannot be read or is shorter than the prefix.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static byte[] digest(Path file, long length, DigestAlgorithm algorithm, int chunkSize)
+            throws IOException, NoSuchAlgorithmException {
+        checkChunkSize(chunkSize);
+        MessageDigest md = algorithm.newDigest();
+        if (length == 0) {
+            return md.digest();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < length) {
+                throw new IOException("Unexpected end of file at offset " + channel.size());
+            }
+            long chunks = (length + chunkSize - 1) / chunkSize;
+            return ForkJoinPool.commonPool().invoke(new Subtree(channel, length, algorithm, chunkSize, 0, chunks));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Checks that a chunk size is large enough.
+     *
+     * @param chunkSize The chunk size.
+     * @throws IllegalArgumentException If the chunk size is smaller than {@link #MIN_CHUNK_SIZE}.
+     */
+    public static void checkChunkSize(int chunkSize) {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Merkle chunk size must be at least " + MIN_CHUNK_SIZE + " bytes: " + chunkSize);
+        }
+    }
+
+    /**
+     * Hashes the chunks `[from, to)` and returns the root of their subtree.
+     */
+    private static final class Subtree extends RecursiveTask<byte[]> {
+
+        private final FileChannel channel;
+
+        private final long length;
+
+        private final DigestAlgorithm algorithm;
+
+        private final int chunkSize;
+
+        private final long from;
+
+        private final long to;
+
+        Subtree(FileChannel channel, long length, DigestAlgorithm algorithm, int chunkSize, long from, long to) {
+            this.channel = channel;
+            this.length = length;
+            this.algorithm = algorithm;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected byte[] compute() {
+            try {
+                MessageDigest md = algorithm.newDigest();
+                if (to - from == 1) {
+                    long offset = from * chunkSize;
+                    MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                            Math.min(chunkSize, length - offset));
+                    md.update(LEAF);
+                    md.update(chunk);
+                    return md.digest();
+                }
+                long split = from + Long.highestOneBit(to - from - 1);
+                Subtree right = new Subtree(channel, length, algorithm, chunkSize, split, to);
+                right.fork();
+                byte[] left = new Subtree(channel, length, algorithm, chunkSize, from, split).compute();
+                md.update(NODE);
+                md.update(left);
+                md.update(right.join());
+                return md.digest();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.developed_app.digest;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The `PageDigests` class records the digest of every page of a document at signing time, so a later
+ * verification can tell which pages were modified without extracting the text of the whole document.
+ *
+ * <p>A page digest covers the decoded content stream of the page. The digests of all pages are stored
+ * back to back, in page order, in one stream referenced from the document information dictionary
+ * next to the signature; the `/N` entry of the stream holds the number of pages. Comparing a page
+ * only reads and hashes its content stream, and the comparison can stop at the first mismatch.</p>
+ *
+ * <p>The table is not covered by the text signature, so it carries a signature of its own over its
+ * {@link #signedDigest signed digest}, which binds it to the text signature of the same document.
+ * Verification ignores a table whose signature does not verify, so a replaced table can neither make
+ * an intact document look modified nor point at the wrong pages. Matching digests still prove nothing;
+ * the text signature has to be checked.</p>
+ */
+public final class PageDigests {
+
+    /**
+     * Size of the buffer the content streams are read through.
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private PageDigests() {
+    }
+
+    /**
+     * Computes the digests of all pages of a document.
+     *
+     * @param document  The document.
+     * @param algorithm Hash function of the page digests.
+     * @return The page digests, concatenated in page order.
+     * @throws IOException              If a content stream cannot be read.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static byte[] compute(PDDocument document, DigestAlgorithm algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest md = algorithm.newDigest();
+        int length = algorithm.getDigestLength();
+        int pages = document.getNumberOfPages();
+        byte[] table = new byte[pages * length];
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int i = 0; i < pages; i++) {
+            System.arraycopy(digestPage(document, i, md, buffer), 0, table, i * length, length);
+        }
+        return table;
+    }
+
+    /**
+     * Computes the digest signed to protect a page digest table.
+     *
+     * @param algorithm Hash function of the page digests.
+     * @param signature Value of the text signature stored with the table.
+     * @param table     The page digests.
+     * @return The digest of the text signature followed by the table.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static byte[] signedDigest(DigestAlgorithm algorithm, byte[] signature, byte[] table) throws NoSuchAlgorithmException {
+        MessageDigest md = algorithm.newDigest();
+        md.update(signature);
+        md.update(table);
+        return md.digest();
+    }
+
+    /**
+     * Stores page digests in a stream referenced from the document information dictionary.
+     *
+     * @param document The document, saved afterwards with an incremental update.
+     * @param info     The document information dictionary.
+     * @param entry    Name of the entry referencing the stream.
+     * @param table    The page digests, as returned by {@link #compute(PDDocument, DigestAlgorithm)}.
+     * @param pages    Number of pages covered by the table.
+     * @throws IOException If the stream cannot be written.
+     */
+    public static void write(PDDocument document, PDDocumentInformation info, String entry, byte[] table, int pages)
+            throws IOException {
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream out = stream.createOutputStream()) {
+            out.write(table);
+        }
+        stream.setInt(COSName.N, pages);
+        stream.setNeedToBeUpdated(true);
+        info.getCOSObject().setItem(COSName.getPDFName(entry), stream);
+        info.getCOSObject().setNeedToBeUpdated(true);
+    }
+
+    /**
+     * Reads page digests stored by {@link #write(PDDocument, PDDocumentInformation, String, byte[], int)}.
+     *
+     * @param info      The document information dictionary.
+     * @param entry     Name of the entry referencing the stream.
+     * @param algorithm Hash function of the page digests.
+     * @return The page digests, or `null` if the document has no such entry.
+     * @throws IOException If the stream cannot be read or does not match its page count.
+     */
+    public static byte[] read(PDDocumentInformation info, String entry, DigestAlgorithm algorithm) throws IOException {
+        if (!(info.getCOSObject().getDictionaryObject(COSName.getPDFName(entry)) instanceof COSStream stream)) {
+            return null;
+        }
+        byte[] table;
+        try (InputStream in = stream.createInputStream()) {
+            table = in.readAllBytes();
+        }
+        if (table.length != (long) stream.getInt(COSName.N) * algorithm.getDigestLength()) {
+            throw new IOException("Corrupt page digest table " + entry);
+        }
+        return table;
+    }
+
+    /**
+     * Compares the pages of a document with recorded page digests.
+     *
+     * <p>Pages are compared in order and only the content stream of each compared page is read.
+     * Pages added or removed since signing count as modified.</p>
+     *
+     * @param document  The document.
+     * @param table     The recorded page digests.
+     * @param algorithm Hash function of the page digests.
+     * @param firstOnly Whether to stop at the first modified page.
+     * @return The numbers of the modified pages, starting at 1, in ascending order; empty if all pages match.
+     * @throws IOException              If a content stream cannot be read.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static List<Integer> modifiedPages(PDDocument document, byte[] table, DigestAlgorithm algorithm,
+                                              boolean firstOnly) throws IOException, NoSuchAlgorithmException {
+        MessageDigest md = algorithm.newDigest();
+        int length = algorithm.getDigestLength();
+        int recorded = table.length / length;
+        int pages = document.getNumberOfPages();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        List<Integer> modified = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(recorded, pages); i++) {
+            byte[] digest = digestPage(document, i, md, buffer);
+            if (!Arrays.equals(digest, 0, length, table, i * length, (i + 1) * length)) {
+                modified.add(i + 1);
+                if (firstOnly) {
+                    return modified;
+                }
+            }
+        }
+        for (int i = Math.min(recorded, pages); i < Math.max(recorded, pages); i++) {
+            modified.add(i + 1);
+            if (firstOnly) {
+                break;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Hashes the decoded content stream of one page.
+     */
+    private static byte[] digestPage(PDDocument document, int index, MessageDigest md, byte[] buffer) throws IOException {
+        try (InputStream in = document.getPage(index).getContents()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                md.update(buffer, 0, read);
+            }
+        }
+        return md.digest();
+    }
+}
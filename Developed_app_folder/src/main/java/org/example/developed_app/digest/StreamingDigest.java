@@ -0,0 +1,90 @@
+package org.example.developed_app.digest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The `StreamingDigest` class hashes files incrementally through a `FileChannel`,
+ * so the hashed data is never held in memory as a whole.
+ */
+public final class StreamingDigest {
+
+    /**
+     * Size of the direct buffer used to read the file.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StreamingDigest() {
+    }
+
+    /**
+     * Computes the digest of a whole file.
+     *
+     * @param file      Path to the file.
+     * @param algorithm Name of the digest algorithm, e.g. `SHA-256`.
+     * @return The digest of the file.
+     * @throws IOException              If the file cannot be read.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static byte[] digest(Path file, String algorithm) throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest md = MessageDigest.getInstance(algorithm);
+            update(md, channel, 0, channel.size());
+            return md.digest();
+        }
+    }
+
+    /**
+     * Computes the digest of a contiguous range of a file.
+     *
+     * @param file      Path to the file.
+     * @param offset    Offset of the first hashed byte.
+     * @param length    Number of hashed bytes.
+     * @param algorithm Name of the digest algorithm, e.g. `SHA-256`.
+     * @return The digest of the range.
+     * @throws IOException              If the file cannot be read or is shorter than the range.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static byte[] digest(Path file, long offset, long length, String algorithm)
+            throws IOException, NoSuchAlgorithmException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest md = MessageDigest.getInstance(algorithm);
+            update(md, channel, offset, length);
+            return md.digest();
+        }
+    }
+
+    /**
+     * Feeds a range of a channel into a message digest.
+     *
+     * @param md      The message digest to update.
+     * @param channel The channel to read from.
+     * @param offset  Offset of the first hashed byte.
+     * @param length  Number of hashed bytes.
+     * @throws IOException If the channel cannot be read or ends before the range does.
+     */
+    public static void update(MessageDigest md, FileChannel channel, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, Math.max(length, 1)));
+        long position = offset;
+        long end = offset + length;
+
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at offset " + position);
+            }
+            buffer.flip();
+            md.update(buffer);
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.developed_app.jobs;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * The `Job` class is a handle to a signing or verification job submitted to a {@link JobRunner}.
+ *
+ * @param <T> Type of the job result.
+ */
+public class Job<T> {
+
+    /**
+     * Future completed with the job result.
+     */
+    private final CompletableFuture<T> result;
+
+    /**
+     * Context of the running job.
+     */
+    private final JobContext context;
+
+    /**
+     * Future of the thread running the job.
+     */
+    private final Future<?> worker;
+
+    Job(CompletableFuture<T> result, JobContext context, Future<?> worker) {
+        this.result = result;
+        this.context = context;
+        this.worker = worker;
+    }
+
+    /**
+     * Gets the future completed with the job result, or exceptionally with a
+     * `CancellationException` if the job was cancelled.
+     *
+     * @return The result future.
+     */
+    public CompletableFuture<T> result() {
+        return result;
+    }
+
+    /**
+     * Cancels the job. A queued job never starts; a running job stops at its next page or write.
+     */
+    public void cancel() {
+        context.cancel();
+        result.cancel(false);
+        worker.cancel(true);
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.developed_app.jobs;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The `JobContext` class is handed to the code running a job. It collects progress,
+ * forwards it to a {@link ProgressListener} and lets the job notice that it was cancelled.
+ *
+ * <p>Byte progress is reported at most once per {@value #BYTES_REPORT_STEP} bytes,
+ * so listeners are not flooded by small writes.</p>
+ */
+public class JobContext {
+
+    /**
+     * Context of work that is not run as a job: no listener and never cancelled.
+     *
+     * <p>The context is shared by every caller outside a job, so it keeps no state: cancelling it has
+     * no effect and progress is not counted.</p>
+     */
+    public static final JobContext NONE = new JobContext(ProgressListener.NONE) {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void documentLoaded(int totalPages) {
+        }
+
+        @Override
+        public void pageProcessed() {
+        }
+
+        @Override
+        public OutputStream track(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public void finish() {
+        }
+    };
+
+    /**
+     * Minimum number of written bytes between two byte progress updates.
+     */
+    private static final long BYTES_REPORT_STEP = 256 * 1024;
+
+    /**
+     * Listener receiving progress updates.
+     */
+    private final ProgressListener listener;
+
+    /**
+     * Whether the job was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    private int pagesProcessed;
+
+    private int totalPages;
+
+    private long bytesWritten;
+
+    private long bytesReported;
+
+    /**
+     * Creates a context reporting to the given listener.
+     *
+     * @param listener Listener receiving progress updates.
+     */
+    public JobContext(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Marks the job as cancelled. The job stops at its next cancellation check.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the job was cancelled.
+     *
+     * @return `true` if the job was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the job if it was cancelled.
+     *
+     * @throws CancellationException If the job was cancelled.
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Job cancelled");
+        }
+    }
+
+    /**
+     * Records the number of pages of the processed document.
+     *
+     * @param totalPages Number of pages.
+     */
+    public void documentLoaded(int totalPages) {
+        checkCancelled();
+        this.totalPages = totalPages;
+        report();
+    }
+
+    /**
+     * Records that one more page has been processed.
+     *
+     * @throws CancellationException If the job was cancelled.
+     */
+    public void pageProcessed() {
+        checkCancelled();
+        pagesProcessed++;
+        report();
+    }
+
+    /**
+     * Wraps an output stream so that written bytes are counted and cancellation is checked on every write.
+     *
+     * @param out The stream to wrap.
+     * @return The tracking stream.
+     */
+    public OutputStream track(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                checkCancelled();
+                out.write(b);
+                bytesWritten(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                checkCancelled();
+                out.write(b, off, len);
+                bytesWritten(len);
+            }
+        };
+    }
+
+    private void bytesWritten(long count) {
+        bytesWritten += count;
+        if (bytesWritten - bytesReported >= BYTES_REPORT_STEP) {
+            bytesReported = bytesWritten;
+            report();
+        }
+    }
+
+    /**
+     * Sends the final progress, including bytes not reported yet.
+     */
+    public void finish() {
+        if (bytesReported != bytesWritten) {
+            bytesReported = bytesWritten;
+            report();
+        }
+    }
+
+    private void report() {
+        listener.onProgress(new Progress(pagesProcessed, totalPages, bytesWritten));
+    }
+}
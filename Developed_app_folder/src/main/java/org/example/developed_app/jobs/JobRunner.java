@@ -0,0 +1,98 @@
+package org.example.developed_app.jobs;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The `JobRunner` class runs signing and verification jobs off the calling thread.
+ *
+ * <p>Every job gets its own virtual thread, so any number of jobs can be queued without tying up
+ * platform threads, while a semaphore limits how many of them load and process documents at once.</p>
+ */
+public class JobRunner implements AutoCloseable {
+
+    /**
+     * Executor starting one virtual thread per job.
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Permits for jobs processing documents at the same time.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Creates a job runner.
+     *
+     * @param parallelism Maximum number of jobs processing documents at the same time.
+     */
+    public JobRunner(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.permits = new Semaphore(parallelism, true);
+    }
+
+    /**
+     * Submits a job.
+     *
+     * @param task     The work of the job.
+     * @param listener Listener receiving progress updates on the job thread.
+     * @param <T>      Type of the job result.
+     * @return Handle to the job.
+     */
+    public <T> Job<T> submit(Task<T> task, ProgressListener listener) {
+        JobContext context = new JobContext(listener);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> worker = executor.submit(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new CancellationException("Job cancelled"));
+                return;
+            }
+            try {
+                context.checkCancelled();
+                T value = task.run(context);
+                context.finish();
+                result.complete(value);
+            } catch (Throwable t) {
+                result.completeExceptionally(context.isCancelled() ? new CancellationException("Job cancelled") : t);
+            } finally {
+                permits.release();
+            }
+        });
+        return new Job<>(result, context, worker);
+    }
+
+    /**
+     * Cancels all jobs and stops the runner.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The work of a job.
+     *
+     * @param <T> Type of the job result.
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+
+        /**
+         * Runs the job.
+         *
+         * @param context Context receiving progress and signalling cancellation.
+         * @return The job result.
+         * @throws Exception If the job fails.
+         */
+        T run(JobContext context) throws Exception;
+    }
+}
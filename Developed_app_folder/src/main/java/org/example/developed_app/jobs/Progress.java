@@ -0,0 +1,11 @@
+package org.example.developed_app.jobs;
+
+/**
+ * The `Progress` record is a snapshot of the progress of a signing or verification job.
+ *
+ * @param pagesProcessed Number of pages processed so far.
+ * @param totalPages     Number of pages of the document, or `0` if not known yet.
+ * @param bytesWritten   Number of bytes of the output document written so far.
+ */
+public record Progress(int pagesProcessed, int totalPages, long bytesWritten) {
+}
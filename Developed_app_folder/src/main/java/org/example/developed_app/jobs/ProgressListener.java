@@ -0,0 +1,24 @@
+package org.example.developed_app.jobs;
+
+/**
+ * The `ProgressListener` interface receives progress updates of a job.
+ *
+ * <p>Updates are delivered on the thread running the job; GUI listeners must hand them over
+ * to the JavaFX application thread themselves.</p>
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Listener ignoring all updates.
+     */
+    ProgressListener NONE = progress -> {
+    };
+
+    /**
+     * Called when the job has made progress.
+     *
+     * @param progress Snapshot of the progress.
+     */
+    void onProgress(Progress progress);
+}
@@ -0,0 +1,34 @@
+package org.example.developed_app.jobs;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.IOException;
+
+/**
+ * The `ProgressTextStripper` class extracts text like `PDFTextStripper` and reports every
+ * finished page to a {@link JobContext}, which also stops the extraction when the job is cancelled.
+ */
+public class ProgressTextStripper extends PDFTextStripper {
+
+    /**
+     * Context receiving the page progress.
+     */
+    private final JobContext context;
+
+    /**
+     * Creates a text stripper reporting to the given context.
+     *
+     * @param context Context receiving the page progress.
+     * @throws IOException If the text stripper cannot be initialized.
+     */
+    public ProgressTextStripper(JobContext context) throws IOException {
+        this.context = context;
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        super.endPage(page);
+        context.pageProcessed();
+    }
+}
@@ -0,0 +1,308 @@
+package org.example.developed_app.keys;
+
+import org.example.developed_app.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.DestroyFailedException;
+import javax.security.auth.Destroyable;
+
+/**
+ * The `KeyCache` class keeps decoded keys in memory, so repeated signing and verification
+ * with the same key file skips reading, decrypting and parsing it.
+ *
+ * <p>Entries are keyed by the absolute path of the key file together with its modification time
+ * and size, so a replaced key file is parsed again. Private keys are additionally keyed by a
+ * fingerprint of the PIN and are dropped after they have not been used for the idle timeout.
+ * The cache holds at most a fixed number of entries and evicts the least recently used one.
+ * Evicted keys are destroyed when the key implementation supports it, e.g. keys of PKCS#11 tokens.
+ * The software RSA and EC keys of the JDK providers cannot be destroyed and keep their material in
+ * immutable `BigInteger` fields, so eviction only drops the cache's reference to them and the
+ * material stays on the heap until it is garbage collected.</p>
+ *
+ * <p>Hits and misses are counted as `key_cache_hits` and `key_cache_misses` in the shared
+ * {@link MetricsRegistry}.</p>
+ */
+public final class KeyCache {
+
+    /**
+     * Default maximum number of cached keys.
+     */
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Default time after which an unused private key is dropped.
+     */
+    private static final Duration DEFAULT_PRIVATE_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * Cache shared by `Sign` and `Verify`.
+     */
+    private static final KeyCache SHARED = new KeyCache(DEFAULT_MAX_ENTRIES, DEFAULT_PRIVATE_IDLE_TIMEOUT);
+
+    /**
+     * Maximum number of cached keys.
+     */
+    private final int maxEntries;
+
+    /**
+     * Time after which an unused private key is dropped.
+     */
+    private final long privateIdleTimeoutNanos;
+
+    /**
+     * Cached keys in access order, guarded by `this`.
+     */
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Background task dropping idle private keys, started with the first cached private key.
+     */
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a key cache.
+     *
+     * @param maxEntries         Maximum number of cached keys.
+     * @param privateIdleTimeout Time after which an unused private key is dropped.
+     */
+    public KeyCache(int maxEntries, Duration privateIdleTimeout) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.privateIdleTimeoutNanos = privateIdleTimeout.toNanos();
+    }
+
+    /**
+     * Gets the cache shared by the whole application.
+     *
+     * @return The shared cache.
+     */
+    public static KeyCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the public key stored in a file, parsing it only if it is not cached yet.
+     *
+     * @param path   Path to the key file.
+     * @param loader Parses the key file.
+     * @return The public key.
+     * @throws Exception If the key file cannot be read or parsed.
+     */
+    public PublicKey publicKey(Path path, Loader<PublicKey> loader) throws Exception {
+        return get(cacheKey(path, "public", ""), path, loader);
+    }
+
+    /**
+     * Gets the private key stored in an encrypted file, decrypting it only if it is not cached yet.
+     *
+     * @param path   Path to the key file.
+     * @param pin    PIN used to decrypt the key.
+     * @param loader Decrypts and parses the key file.
+     * @return The private key.
+     * @throws Exception If the key file cannot be read or decrypted.
+     */
+    public PrivateKey privateKey(Path path, String pin, Loader<PrivateKey> loader) throws Exception {
+        return get(cacheKey(path, "private", pin), path, loader);
+    }
+
+    /**
+     * Removes all cached keys.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(Entry::destroy);
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached keys.
+     *
+     * @return Number of cached keys.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Looks up a key and loads it on a miss.
+     *
+     * <p>Loading happens outside the lock, so a slow decryption does not block lookups of other keys.</p>
+     */
+    private <K extends Key> K get(CacheKey cacheKey, Path path, Loader<K> loader) throws Exception {
+        synchronized (this) {
+            evictIdle();
+            Entry entry = entries.get(cacheKey);
+            if (entry != null) {
+                entry.lastAccess = System.nanoTime();
+                MetricsRegistry.shared().counter("key_cache_hits").increment();
+                return cast(entry.key);
+            }
+        }
+        MetricsRegistry.shared().counter("key_cache_misses").increment();
+
+        K key = loader.load(path);
+
+        synchronized (this) {
+            Entry previous = entries.get(cacheKey);
+            if (previous != null) {
+                return cast(previous.key);
+            }
+            removeStale(cacheKey);
+            entries.put(cacheKey, new Entry(key, System.nanoTime()));
+            while (entries.size() > maxEntries) {
+                Iterator<Entry> eldest = entries.values().iterator();
+                eldest.next().destroy();
+                eldest.remove();
+            }
+            if (key instanceof PrivateKey) {
+                startSweeper();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Casts a cached key to the type requested by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Key> K cast(Key key) {
+        return (K) key;
+    }
+
+    /**
+     * Removes entries for an older version of the same key file.
+     */
+    private void removeStale(CacheKey current) {
+        Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, Entry> candidate = iterator.next();
+            CacheKey key = candidate.getKey();
+            if (key.path().equals(current.path()) && key.kind().equals(current.kind())
+                    && (key.modified() != current.modified() || key.size() != current.size())) {
+                candidate.getValue().destroy();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes private keys that have not been used for the idle timeout.
+     */
+    private synchronized void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.key instanceof PrivateKey && now - entry.lastAccess > privateIdleTimeoutNanos) {
+                entry.destroy();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Starts the background task dropping idle private keys, if it is not running yet.
+     */
+    private void startSweeper() {
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "key-cache-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(privateIdleTimeoutNanos / 2, TimeUnit.SECONDS.toNanos(1));
+            sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Builds the cache key for a key file in its current version.
+     */
+    private static CacheKey cacheKey(Path path, String kind, String pin) throws IOException {
+        Path absolute = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(absolute, BasicFileAttributes.class);
+        return new CacheKey(absolute, attributes.lastModifiedTime().toMillis(), attributes.size(), kind, fingerprint(pin));
+    }
+
+    /**
+     * Computes a fingerprint of the PIN, so the PIN itself is not kept in the cache.
+     */
+    private static String fingerprint(String pin) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update("key-cache:".getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest(pin.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses a key file.
+     *
+     * @param <K> Type of the parsed key.
+     */
+    @FunctionalInterface
+    public interface Loader<K extends Key> {
+
+        /**
+         * Reads and parses the key file.
+         *
+         * @param path Path to the key file.
+         * @return The parsed key.
+         * @throws Exception If the key file cannot be read or parsed.
+         */
+        K load(Path path) throws Exception;
+    }
+
+    /**
+     * Identifies one version of a key file.
+     */
+    private record CacheKey(Path path, long modified, long size, String kind, String pinFingerprint) {
+    }
+
+    /**
+     * A cached key with the time it was last used.
+     */
+    private static final class Entry {
+
+        private final Key key;
+
+        private long lastAccess;
+
+        Entry(Key key, long lastAccess) {
+            this.key = key;
+            this.lastAccess = lastAccess;
+        }
+
+        /**
+         * Destroys the key material if the key implementation supports it; otherwise only the reference is dropped.
+         */
+        void destroy() {
+            if (key instanceof Destroyable destroyable && !destroyable.isDestroyed()) {
+                try {
+                    destroyable.destroy();
+                } catch (DestroyFailedException e) {
+                    // JDK software keys do not implement destroy(); their material is left to the GC.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.developed_app.keys;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.edec.EdECObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.DigestInfo;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
+import org.example.developed_app.digest.DigestAlgorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.EdECKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * The `SignatureProfile` enum lists the supported signing keys together with the signature
+ * algorithm used for each of them.
+ *
+ * <p>The key files store the public key as X.509 `SubjectPublicKeyInfo` and the private key as
+ * PKCS#8, both of which name the key algorithm, so the profile is always detected from the key
+ * itself and never has to be configured when signing or verifying.</p>
+ *
+ * <p>Every profile can also sign a digest computed beforehand by the digest stage: RSA signs the
+ * PKCS#1 `DigestInfo` with `NONEwithRSA`, which gives the same signature as e.g. `SHA512withRSA`
+ * over the original data, and ECDSA signs the raw digest with `NONEwithECDSA`. Ed25519 has no
+ * pre-hashed variant in the JDK, so the digest itself is signed as the message.</p>
+ */
+public enum SignatureProfile {
+
+    /**
+     * RSA of any size, with SHA-256 by default.
+     */
+    RSA("RSA", "withRSA", DigestAlgorithm.SHA_256),
+
+    /**
+     * ECDSA on the NIST P-256 curve, with SHA-256 by default.
+     */
+    ECDSA_P256("EC", "withECDSA", DigestAlgorithm.SHA_256),
+
+    /**
+     * ECDSA on the NIST P-384 curve, with SHA-384 by default.
+     */
+    ECDSA_P384("EC", "withECDSA", DigestAlgorithm.SHA_384),
+
+    /**
+     * Ed25519, which hashes the data itself.
+     */
+    ED25519("Ed25519", null, DigestAlgorithm.SHA_256);
+
+    /**
+     * JCA name of the key algorithm.
+     */
+    private final String keyAlgorithm;
+
+    /**
+     * Suffix of the JCA signature algorithm names, e.g. `withRSA`, or `null` if the algorithm has no digest choice.
+     */
+    private final String signatureSuffix;
+
+    /**
+     * Digest used when none is selected.
+     */
+    private final DigestAlgorithm defaultDigest;
+
+    SignatureProfile(String keyAlgorithm, String signatureSuffix, DigestAlgorithm defaultDigest) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureSuffix = signatureSuffix;
+        this.defaultDigest = defaultDigest;
+    }
+
+    /**
+     * Gets the JCA name of the key algorithm, usable with {@link KeyFactory}.
+     *
+     * @return The key algorithm.
+     */
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * Gets the digest used when none is selected.
+     *
+     * @return The default digest algorithm.
+     */
+    public DigestAlgorithm getDefaultDigest() {
+        return defaultDigest;
+    }
+
+    /**
+     * Gets the JCA name of the signature algorithm with the default digest, usable with {@link java.security.Signature}.
+     *
+     * @return The signature algorithm.
+     */
+    public String getSignatureAlgorithm() {
+        return getSignatureAlgorithm(defaultDigest);
+    }
+
+    /**
+     * Gets the JCA name of the signature algorithm hashing the data with the given digest.
+     *
+     * @param digest The digest algorithm.
+     * @return The signature algorithm, e.g. `SHA3-256withECDSA`, or `Ed25519` whatever the digest.
+     */
+    public String getSignatureAlgorithm(DigestAlgorithm digest) {
+        return signatureSuffix != null ? digest.getSignaturePrefix() + signatureSuffix : keyAlgorithm;
+    }
+
+    /**
+     * Gets the JCA name of the signature algorithm signing precomputed digests.
+     *
+     * @return `NONEwithRSA`, `NONEwithECDSA` or `Ed25519`.
+     * @see #encodeDigest(DigestAlgorithm, byte[])
+     */
+    public String getDigestSignatureAlgorithm() {
+        return signatureSuffix != null ? "NONE" + signatureSuffix : keyAlgorithm;
+    }
+
+    /**
+     * Encodes a precomputed digest as the input of {@link #getDigestSignatureAlgorithm()}.
+     *
+     * @param algorithm The algorithm that computed the digest.
+     * @param digest    The digest.
+     * @return The DER-encoded `DigestInfo` for RSA, otherwise the digest itself.
+     */
+    public byte[] encodeDigest(DigestAlgorithm algorithm, byte[] digest) {
+        if (this != RSA) {
+            return digest;
+        }
+        try {
+            return new DigestInfo(new AlgorithmIdentifier(algorithm.getOid(), DERNull.INSTANCE), digest).getEncoded();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Detects the profile of a key.
+     *
+     * @param key A public or private key.
+     * @return The profile of the key.
+     * @throws IllegalArgumentException If the key is not supported.
+     */
+    public static SignatureProfile of(Key key) {
+        switch (key.getAlgorithm()) {
+            case "RSA":
+                return RSA;
+            case "EC":
+                if (key instanceof ECKey ecKey) {
+                    int fieldSize = ecKey.getParams().getCurve().getField().getFieldSize();
+                    if (fieldSize == 256) {
+                        return ECDSA_P256;
+                    }
+                    if (fieldSize == 384) {
+                        return ECDSA_P384;
+                    }
+                }
+                break;
+            case "Ed25519":
+                return ED25519;
+            case "EdDSA":
+                if (key instanceof EdECKey edKey && "Ed25519".equalsIgnoreCase(edKey.getParams().getName())) {
+                    return ED25519;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unsupported key: " + key.getAlgorithm());
+    }
+
+    /**
+     * Decodes a public key from its X.509 `SubjectPublicKeyInfo` encoding.
+     *
+     * @param encoded The DER-encoded key.
+     * @return The public key.
+     * @throws GeneralSecurityException If the key is malformed or its algorithm is not supported.
+     */
+    public static PublicKey decodePublicKey(byte[] encoded) throws GeneralSecurityException {
+        ASN1ObjectIdentifier algorithm;
+        try {
+            algorithm = SubjectPublicKeyInfo.getInstance(encoded).getAlgorithm().getAlgorithm();
+        } catch (RuntimeException e) {
+            throw new InvalidKeySpecException("Malformed public key", e);
+        }
+        return KeyFactory.getInstance(keyAlgorithm(algorithm)).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    /**
+     * Decodes a private key from its PKCS#8 encoding.
+     *
+     * @param encoded The DER-encoded key.
+     * @return The private key.
+     * @throws GeneralSecurityException If the key is malformed or its algorithm is not supported.
+     */
+    public static PrivateKey decodePrivateKey(byte[] encoded) throws GeneralSecurityException {
+        ASN1ObjectIdentifier algorithm;
+        try {
+            algorithm = PrivateKeyInfo.getInstance(encoded).getPrivateKeyAlgorithm().getAlgorithm();
+        } catch (RuntimeException e) {
+            throw new InvalidKeySpecException("Malformed private key", e);
+        }
+        return KeyFactory.getInstance(keyAlgorithm(algorithm)).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+    }
+
+    /**
+     * Maps the algorithm identifier of an encoded key to the JCA name of the key algorithm.
+     *
+     * @param algorithm The algorithm identifier.
+     * @return The key algorithm.
+     * @throws InvalidKeySpecException If the algorithm is not supported.
+     */
+    private static String keyAlgorithm(ASN1ObjectIdentifier algorithm) throws InvalidKeySpecException {
+        if (PKCSObjectIdentifiers.rsaEncryption.equals(algorithm)) {
+            return RSA.keyAlgorithm;
+        }
+        if (X9ObjectIdentifiers.id_ecPublicKey.equals(algorithm)) {
+            return ECDSA_P256.keyAlgorithm;
+        }
+        if (EdECObjectIdentifiers.id_Ed25519.equals(algorithm)) {
+            return ED25519.keyAlgorithm;
+        }
+        throw new InvalidKeySpecException("Unsupported key algorithm: " + algorithm);
+    }
+}
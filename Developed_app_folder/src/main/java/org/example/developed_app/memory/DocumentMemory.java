@@ -0,0 +1,17 @@
+package org.example.developed_app.memory;
+
+import java.nio.file.Path;
+
+/**
+ * The `DocumentMemory` record describes the memory used while a single document was open.
+ *
+ * @param document             Path to the document.
+ * @param peakHeapGrowthBytes  Highest growth of the used process heap above its level when loading started,
+ *                             observed while the document was open; it includes every concurrently processed
+ *                             document, so it is an upper bound of the document's peak footprint.
+ * @param processHeapPeakBytes Highest used heap of the whole process observed while the document was open,
+ *                             including every concurrently processed document; not a per-document figure.
+ * @param durationMillis       Time the document was open, in milliseconds.
+ */
+public record DocumentMemory(Path document, long peakHeapGrowthBytes, long processHeapPeakBytes, long durationMillis) {
+}
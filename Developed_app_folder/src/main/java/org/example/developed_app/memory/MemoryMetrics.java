@@ -0,0 +1,130 @@
+package org.example.developed_app.memory;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The `MemoryMetrics` class collects the {@link DocumentMemory} of every document loaded through
+ * a {@link MemoryPolicy}.
+ *
+ * <p>Only aggregates are kept, so the metrics stay small however many documents are processed.
+ * Callers interested in every document can register a listener.</p>
+ */
+public class MemoryMetrics {
+
+    /**
+     * Metrics shared by the whole application.
+     */
+    private static final MemoryMetrics SHARED = new MemoryMetrics();
+
+    private final LongAdder documents = new LongAdder();
+
+    private final LongAdder totalHeapGrowthBytes = new LongAdder();
+
+    private final LongAccumulator maxHeapGrowthBytes = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator maxProcessHeapBytes = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Listeners notified of every recorded document.
+     */
+    private final List<Consumer<DocumentMemory>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the metrics shared by the whole application.
+     *
+     * @return The shared metrics.
+     */
+    public static MemoryMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Records the memory used by one document.
+     *
+     * @param memory Memory used by the document.
+     */
+    public void record(DocumentMemory memory) {
+        documents.increment();
+        totalHeapGrowthBytes.add(memory.peakHeapGrowthBytes());
+        maxHeapGrowthBytes.accumulate(memory.peakHeapGrowthBytes());
+        maxProcessHeapBytes.accumulate(memory.processHeapPeakBytes());
+        for (Consumer<DocumentMemory> listener : listeners) {
+            listener.accept(memory);
+        }
+    }
+
+    /**
+     * Registers a listener notified on the processing thread of every recorded document.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(Consumer<DocumentMemory> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addListener(Consumer)}.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(Consumer<DocumentMemory> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the number of recorded documents.
+     *
+     * @return Number of documents.
+     */
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    /**
+     * Gets the average peak heap growth per document, see {@link DocumentMemory#peakHeapGrowthBytes()}.
+     *
+     * @return Average peak heap growth in bytes, or `0` if no document was recorded.
+     */
+    public long getAveragePeakHeapGrowthBytes() {
+        long recorded = documents.sum();
+        return recorded > 0 ? totalHeapGrowthBytes.sum() / recorded : 0;
+    }
+
+    /**
+     * Gets the largest peak heap growth of a single document.
+     *
+     * @return Largest peak heap growth in bytes.
+     */
+    public long getMaxPeakHeapGrowthBytes() {
+        return maxHeapGrowthBytes.get();
+    }
+
+    /**
+     * Gets the highest used heap of the whole process observed while any document was open.
+     *
+     * @return Peak used process heap in bytes.
+     */
+    public long getMaxProcessHeapBytes() {
+        return maxProcessHeapBytes.get();
+    }
+
+    /**
+     * Prints a one-line summary of the metrics.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.printf("Memory: %d documents, peak heap growth avg %.1f MiB, max %.1f MiB, process heap peak %.1f MiB%n",
+                getDocuments(), mebibytes(getAveragePeakHeapGrowthBytes()), mebibytes(getMaxPeakHeapGrowthBytes()),
+                mebibytes(getMaxProcessHeapBytes()));
+    }
+
+    private static double mebibytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
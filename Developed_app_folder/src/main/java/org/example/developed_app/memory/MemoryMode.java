@@ -0,0 +1,22 @@
+package org.example.developed_app.memory;
+
+/**
+ * The `MemoryMode` enum selects where PDFBox keeps the buffered stream data of a loaded document.
+ */
+public enum MemoryMode {
+
+    /**
+     * Everything is kept on the heap, limited by the heap cap if one is set.
+     */
+    HEAP,
+
+    /**
+     * Everything is kept in a scratch file in the temporary directory.
+     */
+    TEMP_FILE,
+
+    /**
+     * Data is kept on the heap up to the heap cap and spills into a scratch file beyond it.
+     */
+    MIXED
+}
@@ -0,0 +1,227 @@
+package org.example.developed_app.memory;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * The `MemoryPolicy` class decides how much of a loaded PDF document PDFBox may buffer on the heap
+ * and where the rest is spilled.
+ *
+ * <p>The policy is turned into a PDFBox {@link MemoryUsageSetting}, which bounds the scratch buffers
+ * holding the stream data of each document. The parsed object graph itself always lives on the heap,
+ * so the heap cap limits the largest part of a document's footprint, not all of it.</p>
+ *
+ * <p>The default policy is read from system properties:</p>
+ * <ul>
+ *     <li>`pades.memory.mode` - `heap`, `temp` or `mixed` ({@link MemoryMode}),</li>
+ *     <li>`pades.memory.maxHeap` - heap cap per document, e.g. `16m`,</li>
+ *     <li>`pades.memory.tempDir` - directory of the scratch files.</li>
+ * </ul>
+ * <p>Without any of them documents are loaded fully on the heap, as before.</p>
+ */
+public final class MemoryPolicy {
+
+    /**
+     * System property selecting the {@link MemoryMode}.
+     */
+    public static final String MODE_PROPERTY = "pades.memory.mode";
+
+    /**
+     * System property holding the heap cap per document.
+     */
+    public static final String MAX_HEAP_PROPERTY = "pades.memory.maxHeap";
+
+    /**
+     * System property holding the scratch file directory.
+     */
+    public static final String TEMP_DIR_PROPERTY = "pades.memory.tempDir";
+
+    /**
+     * Heap cap used in mixed mode when none is configured.
+     */
+    private static final long DEFAULT_MIXED_HEAP_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Policy read from the system properties on first use.
+     */
+    private static volatile MemoryPolicy defaultPolicy;
+
+    /**
+     * Where the stream data is kept.
+     */
+    private final MemoryMode mode;
+
+    /**
+     * Heap cap per document in bytes, or `-1` for no cap.
+     */
+    private final long maxHeapBytes;
+
+    /**
+     * Directory of the scratch files, or `null` for the system temporary directory.
+     */
+    private final Path tempDirectory;
+
+    /**
+     * Creates a memory policy.
+     *
+     * @param mode          Where the stream data is kept.
+     * @param maxHeapBytes  Heap cap per document in bytes, or `-1` for no cap. Ignored in {@link MemoryMode#TEMP_FILE} mode.
+     * @param tempDirectory Directory of the scratch files, or `null` for the system temporary directory.
+     */
+    public MemoryPolicy(MemoryMode mode, long maxHeapBytes, Path tempDirectory) {
+        this.mode = mode;
+        this.maxHeapBytes = maxHeapBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Gets the policy keeping whole documents on the heap without a cap.
+     *
+     * @return The unrestricted policy.
+     */
+    public static MemoryPolicy unrestricted() {
+        return new MemoryPolicy(MemoryMode.HEAP, -1, null);
+    }
+
+    /**
+     * Gets the policy configured by the system properties.
+     *
+     * @return The default policy.
+     * @throws IllegalArgumentException If a property has an invalid value.
+     */
+    public static MemoryPolicy defaultPolicy() {
+        MemoryPolicy policy = defaultPolicy;
+        if (policy == null) {
+            policy = fromProperties(System.getProperty(MODE_PROPERTY), System.getProperty(MAX_HEAP_PROPERTY),
+                    System.getProperty(TEMP_DIR_PROPERTY));
+            defaultPolicy = policy;
+        }
+        return policy;
+    }
+
+    /**
+     * Creates a policy from textual settings.
+     *
+     * @param mode          `heap`, `temp` or `mixed`, or `null` for `mixed` if a heap cap or directory is set
+     *                      and `heap` otherwise.
+     * @param maxHeap       Heap cap with an optional `k`, `m` or `g` suffix, or `null`.
+     * @param tempDirectory Directory of the scratch files, or `null`.
+     * @return The policy.
+     * @throws IllegalArgumentException If a setting has an invalid value.
+     */
+    public static MemoryPolicy fromProperties(String mode, String maxHeap, String tempDirectory) {
+        long maxHeapBytes = maxHeap != null ? parseSize(maxHeap) : -1;
+        Path directory = tempDirectory != null ? Paths.get(tempDirectory) : null;
+
+        MemoryMode memoryMode;
+        if (mode == null) {
+            memoryMode = maxHeap != null || directory != null ? MemoryMode.MIXED : MemoryMode.HEAP;
+        } else {
+            memoryMode = switch (mode.toLowerCase(Locale.ROOT)) {
+                case "heap" -> MemoryMode.HEAP;
+                case "temp" -> MemoryMode.TEMP_FILE;
+                case "mixed" -> MemoryMode.MIXED;
+                default -> throw new IllegalArgumentException("Unknown memory mode: " + mode);
+            };
+        }
+        if (memoryMode == MemoryMode.MIXED && maxHeapBytes < 0) {
+            maxHeapBytes = DEFAULT_MIXED_HEAP_BYTES;
+        }
+        return new MemoryPolicy(memoryMode, maxHeapBytes, directory);
+    }
+
+    /**
+     * Parses a size such as `512k`, `16m` or `1g`.
+     *
+     * @param size The size.
+     * @return The size in bytes.
+     * @throws IllegalArgumentException If the size is not valid.
+     */
+    static long parseSize(String size) {
+        String value = size.trim().toLowerCase(Locale.ROOT);
+        long unit = switch (value.isEmpty() ? ' ' : value.charAt(value.length() - 1)) {
+            case 'k' -> 1024L;
+            case 'm' -> 1024L * 1024;
+            case 'g' -> 1024L * 1024 * 1024;
+            default -> 1;
+        };
+        if (unit > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            return Math.multiplyExact(Long.parseLong(value), unit);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid size: " + size, e);
+        }
+    }
+
+    /**
+     * Converts the policy into PDFBox memory settings.
+     *
+     * @return Settings for a single document.
+     */
+    public MemoryUsageSetting toSetting() {
+        MemoryUsageSetting setting = switch (mode) {
+            case HEAP -> MemoryUsageSetting.setupMainMemoryOnly(maxHeapBytes);
+            case TEMP_FILE -> MemoryUsageSetting.setupTempFileOnly();
+            case MIXED -> MemoryUsageSetting.setupMixed(maxHeapBytes);
+        };
+        if (tempDirectory != null) {
+            setting.setTempDir(tempDirectory.toFile());
+        }
+        return setting;
+    }
+
+    /**
+     * Loads a document according to this policy and records its memory usage in the shared metrics.
+     *
+     * @param path Path to the document.
+     * @return The loaded document; closing it records the memory usage.
+     * @throws IOException If the document cannot be loaded or the scratch directory cannot be created.
+     */
+    public MeteredDocument load(Path path) throws IOException {
+        if (tempDirectory != null && mode != MemoryMode.HEAP) {
+            Files.createDirectories(tempDirectory);
+        }
+        return new MeteredDocument(path, MemoryMetrics.shared(), () -> PDDocument.load(path.toFile(), toSetting()));
+    }
+
+    /**
+     * Gets where the stream data is kept.
+     *
+     * @return The memory mode.
+     */
+    public MemoryMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the heap cap per document.
+     *
+     * @return The heap cap in bytes, or `-1` for no cap.
+     */
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /**
+     * Gets the directory of the scratch files.
+     *
+     * @return The directory, or `null` for the system temporary directory.
+     */
+    public Path getTempDirectory() {
+        return tempDirectory;
+    }
+
+    @Override
+    public String toString() {
+        return mode + (maxHeapBytes >= 0 ? ", heap cap " + maxHeapBytes + " B" : "")
+                + (tempDirectory != null ? ", scratch " + tempDirectory : "");
+    }
+}
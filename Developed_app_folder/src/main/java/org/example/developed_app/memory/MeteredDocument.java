@@ -0,0 +1,121 @@
+package org.example.developed_app.memory;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+
+/**
+ * The `MeteredDocument` class holds a document loaded by a {@link MemoryPolicy} and measures
+ * the memory used until it is closed.
+ *
+ * <p>The used heap of the whole process is sampled before the document is loaded, after loading, on every
+ * {@link #sample()} call and when it is closed. The memory of the document is the peak growth of the used
+ * heap above the level sampled before loading. Unlike per-thread allocation counters, which the JVM does not
+ * maintain for virtual threads, the samples work on any thread; a collection between samples can hide part
+ * of the peak, and concurrently processed documents add to it.</p>
+ */
+public class MeteredDocument implements Closeable {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * The loaded document.
+     */
+    private final PDDocument document;
+
+    /**
+     * Path to the document.
+     */
+    private final Path path;
+
+    /**
+     * Metrics receiving the measured memory when the document is closed.
+     */
+    private final MemoryMetrics metrics;
+
+    private final long startNanos;
+
+    /**
+     * Used heap of the whole process before the document was loaded.
+     */
+    private final long startHeapBytes;
+
+    /**
+     * Highest used heap of the whole process sampled so far; it includes every concurrently processed
+     * document, so it is not a per-document figure.
+     */
+    private long processHeapPeakBytes;
+
+    /**
+     * Starts measuring before the document is loaded.
+     *
+     * @param path    Path to the document.
+     * @param metrics Metrics receiving the measured memory.
+     * @param loader  Loads the document.
+     * @throws IOException If the document cannot be loaded.
+     */
+    MeteredDocument(Path path, MemoryMetrics metrics, Loader loader) throws IOException {
+        this.path = path;
+        this.metrics = metrics;
+        this.startNanos = System.nanoTime();
+        this.startHeapBytes = usedHeapBytes();
+        this.document = loader.load();
+        sample();
+    }
+
+    /**
+     * Gets the loaded document.
+     *
+     * @return The document.
+     */
+    public PDDocument document() {
+        return document;
+    }
+
+    /**
+     * Records the heap currently used by the whole process if it is the highest seen so far.
+     *
+     * <p>Call it where the document is expected to hold the most memory, e.g. right after its text is
+     * extracted, so the peak is not missed.</p>
+     */
+    public void sample() {
+        processHeapPeakBytes = Math.max(processHeapPeakBytes, usedHeapBytes());
+    }
+
+    /**
+     * Closes the document and records its memory usage.
+     *
+     * @throws IOException If the document or its scratch file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        sample();
+        try {
+            document.close();
+        } finally {
+            metrics.record(new DocumentMemory(path, Math.max(0, processHeapPeakBytes - startHeapBytes),
+                    processHeapPeakBytes, (System.nanoTime() - startNanos) / 1_000_000));
+        }
+    }
+
+    /**
+     * Gets the heap currently used by the whole process.
+     *
+     * @return Used heap in bytes.
+     */
+    private static long usedHeapBytes() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Loads the metered document.
+     */
+    @FunctionalInterface
+    interface Loader {
+        PDDocument load() throws IOException;
+    }
+}
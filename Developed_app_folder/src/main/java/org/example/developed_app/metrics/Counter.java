@@ -0,0 +1,59 @@
+package org.example.developed_app.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `Counter` class counts events or bytes. It may be updated concurrently.
+ */
+public final class Counter {
+
+    /**
+     * Name of the counter, e.g. `sign_bytes_in`.
+     */
+    private final String name;
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Creates a counter; counters are obtained from {@link MetricsRegistry#counter(String)}.
+     *
+     * @param name Name of the counter.
+     */
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the counter.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds a number to the counter.
+     *
+     * @param delta Number to add.
+     */
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return The sum of all increments.
+     */
+    public long get() {
+        return value.sum();
+    }
+}
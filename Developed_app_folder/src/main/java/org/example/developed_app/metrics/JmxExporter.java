@@ -0,0 +1,142 @@
+package org.example.developed_app.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The `JmxExporter` class publishes a {@link MetricsRegistry} as one read-only MBean named
+ * {@value #OBJECT_NAME} on the platform MBean server, so the metrics can be watched with JConsole,
+ * VisualVM or any JMX-based monitoring agent.
+ *
+ * <p>Every timer is exposed as the attributes `<operation>_<stage>_count`, `..._total_ms` and
+ * `..._max_ms`, every counter under its own name. The attribute list grows as new metrics are
+ * created.</p>
+ */
+public final class JmxExporter implements MetricsExporter, DynamicMBean {
+
+    /**
+     * Name under which the MBean is registered.
+     */
+    public static final String OBJECT_NAME = "org.example.developed_app:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    private final MBeanServer server;
+
+    private final ObjectName name;
+
+    /**
+     * Registers the MBean of a registry, replacing an MBean registered by an earlier exporter.
+     *
+     * @param registry The registry to publish.
+     * @throws IOException If the MBean cannot be registered.
+     */
+    public JmxExporter(MetricsRegistry registry) throws IOException {
+        this.registry = registry;
+        this.server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            this.name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IOException("Cannot register the metrics MBean", e);
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "JMX " + OBJECT_NAME;
+    }
+
+    /**
+     * Reads the current values of all metrics.
+     */
+    private Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Timer timer : registry.getTimers()) {
+            String prefix = timer.getOperation() + "_" + timer.getStage().label();
+            values.put(prefix + "_count", timer.getCount());
+            values.put(prefix + "_total_ms", timer.getTotalNanos() / 1_000_000.0);
+            values.put(prefix + "_max_ms", timer.getMaxNanos() / 1_000_000.0);
+        }
+        for (Counter counter : registry.getCounters()) {
+            values.put(counter.getName(), counter.get());
+        }
+        return values;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Object> values = snapshot();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                    entry.getKey(), true, false, false);
+        }
+        return new MBeanInfo(getClass().getName(), "Signing and verification metrics", attributes, null, null, null);
+    }
+
+    /**
+     * Unregisters the MBean.
+     */
+    @Override
+    public void close() {
+        try {
+            server.unregisterMBean(name);
+        } catch (JMException e) {
+            // Already unregistered, e.g. replaced by another exporter.
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.developed_app.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * The `MetricsExporter` interface publishes the metrics of a {@link MetricsRegistry} to a monitoring
+ * system. Exporters read the registry when they are queried, so they never slow down the processing
+ * threads, and stop publishing when they are closed.
+ *
+ * <p>{@link #open(String, MetricsRegistry)} selects an exporter from a command-line option:</p>
+ * <ul>
+ *     <li>`jmx` (the default) registers a {@link JmxExporter} MBean,</li>
+ *     <li>`prometheus:[host:]port` starts a {@link PrometheusEndpoint} serving `/metrics`,
+ *     on the loopback interface if no host is given,</li>
+ *     <li>`none` publishes nothing.</li>
+ * </ul>
+ */
+public interface MetricsExporter extends Closeable {
+
+    /**
+     * Value of the command-line option selecting the default exporter.
+     */
+    String DEFAULT = "jmx";
+
+    /**
+     * Exporter that publishes nothing.
+     */
+    MetricsExporter NONE = new MetricsExporter() {
+        @Override
+        public String describe() {
+            return "none";
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Describes where the metrics can be read, for the startup message.
+     *
+     * @return The description, e.g. the MBean name or the endpoint URI.
+     */
+    String describe();
+
+    /**
+     * Opens the exporter selected by a command-line option.
+     *
+     * @param spec     `jmx`, `prometheus:[host:]port` or `none`.
+     * @param registry The registry to publish.
+     * @return The opened exporter.
+     * @throws IOException If the MBean cannot be registered or the endpoint cannot be bound.
+     */
+    static MetricsExporter open(String spec, MetricsRegistry registry) throws IOException {
+        if (spec.equals("none")) {
+            return NONE;
+        }
+        if (spec.equals("jmx")) {
+            return new JmxExporter(registry);
+        }
+        if (spec.startsWith("prometheus:")) {
+            String address = spec.substring("prometheus:".length());
+            int colon = address.lastIndexOf(':');
+            InetSocketAddress bind = colon < 0
+                    ? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address))
+                    : new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+            return new PrometheusEndpoint(registry, bind);
+        }
+        throw new IllegalArgumentException("Unknown metrics exporter: " + spec);
+    }
+}
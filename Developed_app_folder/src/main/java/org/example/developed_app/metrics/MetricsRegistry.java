@@ -0,0 +1,130 @@
+package org.example.developed_app.metrics;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The `MetricsRegistry` class holds the stage {@link Timer timers} and the {@link Counter counters}
+ * of signing, verification, key loading and drive detection.
+ *
+ * <p>Metrics are created on first use and only keep aggregates, so recording is cheap enough to stay
+ * enabled in production. How they are published is decided separately by a {@link MetricsExporter},
+ * e.g. over JMX or as a Prometheus text endpoint.</p>
+ */
+public final class MetricsRegistry {
+
+    /**
+     * Registry shared by the whole application.
+     */
+    private static final MetricsRegistry SHARED = new MetricsRegistry();
+
+    /**
+     * Timers by operation and stage.
+     */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Counters by name.
+     */
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the registry shared by the whole application.
+     *
+     * @return The shared registry.
+     */
+    public static MetricsRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the timer of a stage of an operation, creating it if needed.
+     *
+     * @param operation Operation the stage belongs to, e.g. `sign`.
+     * @param stage     The stage.
+     * @return The timer.
+     */
+    public Timer timer(String operation, Stage stage) {
+        return timers.computeIfAbsent(operation + "_" + stage.label(), name -> new Timer(operation, stage));
+    }
+
+    /**
+     * Gets a counter, creating it if needed.
+     *
+     * @param name Name of the counter, in lower case with underscores, e.g. `sign_bytes_in`.
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Starts tracing the stages of one document.
+     *
+     * @param operation Operation performed on the document, e.g. `sign`.
+     * @param document  Path to the document.
+     * @return The trace, recorded into this registry when it is closed.
+     */
+    public Trace trace(String operation, Path document) {
+        return new Trace(this, operation, document);
+    }
+
+    /**
+     * Gets all timers, ordered by operation and stage.
+     *
+     * @return The timers.
+     */
+    public List<Timer> getTimers() {
+        List<Timer> sorted = new ArrayList<>(timers.values());
+        sorted.sort(Comparator.comparing(Timer::getOperation).thenComparing(Timer::getStage));
+        return sorted;
+    }
+
+    /**
+     * Gets all counters, ordered by name.
+     *
+     * @return The counters.
+     */
+    public List<Counter> getCounters() {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparing(Counter::getName));
+        return sorted;
+    }
+
+    /**
+     * Prints the average and maximum duration of every measured stage, one operation per line.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        String operation = null;
+        StringBuilder line = new StringBuilder();
+        for (Timer timer : getTimers()) {
+            if (!timer.getOperation().equals(operation)) {
+                if (operation != null) {
+                    out.println(line);
+                }
+                operation = timer.getOperation();
+                line.setLength(0);
+                line.append("Stages ").append(operation).append(':');
+            } else {
+                line.append(',');
+            }
+            long count = timer.getCount();
+            line.append(String.format(" %s %d x avg %.2f ms (max %.2f ms)", timer.getStage().label(), count,
+                    count > 0 ? millis(timer.getTotalNanos()) / count : 0.0, millis(timer.getMaxNanos())));
+        }
+        if (operation != null) {
+            out.println(line);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.developed_app.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The `PrometheusEndpoint` class serves the metrics of a {@link MetricsRegistry} over HTTP at `/metrics`
+ * in the Prometheus text exposition format (version 0.0.4).
+ *
+ * <p>Stage timers are exposed as the summary `pades_stage_seconds` with `operation` and `stage` labels
+ * and the gauge `pades_stage_seconds_max`; every counter `name` becomes `pades_name_total`.</p>
+ */
+public final class PrometheusEndpoint implements MetricsExporter {
+
+    /**
+     * Content type of the text exposition format.
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Starts serving the metrics of a registry.
+     *
+     * @param registry The registry to publish.
+     * @param address  Address to bind; port `0` picks a free port.
+     * @throws IOException If the address cannot be bound.
+     */
+    public PrometheusEndpoint(MetricsRegistry registry, InetSocketAddress address) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Gets the URI to scrape.
+     *
+     * @return URI of the `/metrics` path.
+     */
+    public URI getUri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort() + "/metrics");
+    }
+
+    @Override
+    public String describe() {
+        return "Prometheus " + getUri();
+    }
+
+    /**
+     * Answers a scrape request.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = format().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Formats all metrics in the text exposition format.
+     *
+     * @return The exposition text.
+     */
+    String format() {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP pades_stage_seconds Time spent in a stage of signing or verification.\n");
+        text.append("# TYPE pades_stage_seconds summary\n");
+        for (Timer timer : registry.getTimers()) {
+            String labels = labels(timer);
+            text.append("pades_stage_seconds_count").append(labels).append(' ').append(timer.getCount()).append('\n');
+            text.append("pades_stage_seconds_sum").append(labels).append(' ').append(seconds(timer.getTotalNanos())).append('\n');
+        }
+        text.append("# HELP pades_stage_seconds_max Longest time spent in a stage.\n");
+        text.append("# TYPE pades_stage_seconds_max gauge\n");
+        for (Timer timer : registry.getTimers()) {
+            text.append("pades_stage_seconds_max").append(labels(timer)).append(' ').append(seconds(timer.getMaxNanos())).append('\n');
+        }
+        for (Counter counter : registry.getCounters()) {
+            String name = "pades_" + counter.getName() + "_total";
+            text.append("# TYPE ").append(name).append(" counter\n");
+            text.append(name).append(' ').append(counter.get()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String labels(Timer timer) {
+        return "{operation=\"" + timer.getOperation() + "\",stage=\"" + timer.getStage().label() + "\"}";
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Stops serving the metrics.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
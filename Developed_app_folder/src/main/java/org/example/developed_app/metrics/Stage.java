@@ -0,0 +1,59 @@
+package org.example.developed_app.metrics;
+
+/**
+ * The `Stage` enum lists the stages whose time is measured while documents are signed or verified.
+ *
+ * <p>Stages do not overlap: when a stage runs inside another one, e.g. the private key operation
+ * called while the signed document is saved, its time is only counted for the inner stage.</p>
+ */
+public enum Stage {
+
+    /**
+     * Reading, decrypting and parsing a key, or logging in to a token.
+     */
+    KEY_LOAD,
+
+    /**
+     * Loading and parsing the document.
+     */
+    LOAD,
+
+    /**
+     * Extracting the text or hashing the signed bytes.
+     */
+    DIGEST,
+
+    /**
+     * Creating or checking the signature value.
+     */
+    CRYPTO,
+
+    /**
+     * Waiting for the timestamp authority.
+     */
+    TIMESTAMP,
+
+    /**
+     * Checking the signer certificate chain and its revocation status.
+     */
+    VALIDATION,
+
+    /**
+     * Writing the signed document.
+     */
+    SAVE,
+
+    /**
+     * Scanning the removable drives for a key file.
+     */
+    SCAN;
+
+    /**
+     * Gets the name of the stage as used in metric labels and log records.
+     *
+     * @return The lower-case name.
+     */
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.developed_app.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `Timer` class aggregates the durations of one {@link Stage} of one operation, e.g. the
+ * {@link Stage#SAVE save} stage of signing. It may be updated concurrently.
+ *
+ * <p>Only the count, the total and the maximum are kept, so a timer stays small however many
+ * documents are processed; the average latency of a stage is the total divided by the count.</p>
+ */
+public final class Timer {
+
+    /**
+     * Operation the stage belongs to, e.g. `sign` or `verify`.
+     */
+    private final String operation;
+
+    /**
+     * Measured stage.
+     */
+    private final Stage stage;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a timer; timers are obtained from {@link MetricsRegistry#timer(String, Stage)}.
+     *
+     * @param operation Operation the stage belongs to.
+     * @param stage     Measured stage.
+     */
+    Timer(String operation, Stage stage) {
+        this.operation = operation;
+        this.stage = stage;
+    }
+
+    /**
+     * Gets the operation the stage belongs to.
+     *
+     * @return The operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the measured stage.
+     *
+     * @return The stage.
+     */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Records one run of the stage.
+     *
+     * @param nanos Duration of the run in nanoseconds.
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Starts measuring one run of the stage, recorded when the returned sample is closed.
+     *
+     * @return The running sample.
+     */
+    public Sample start() {
+        return new Sample(this, System.nanoTime());
+    }
+
+    /**
+     * Gets the number of recorded runs.
+     *
+     * @return Number of runs.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the total duration of all recorded runs.
+     *
+     * @return Total duration in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Gets the duration of the longest recorded run.
+     *
+     * @return Longest duration in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * One running measurement, used with try-with-resources.
+     *
+     * @param timer Timer receiving the duration.
+     * @param start Value of {@link System#nanoTime()} when the run started.
+     */
+    public record Sample(Timer timer, long start) implements AutoCloseable {
+
+        /**
+         * Records the time elapsed since the sample was started.
+         */
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.developed_app.metrics;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Locale;
+
+/**
+ * The `Trace` class measures the stages of processing one document and records them into a
+ * {@link MetricsRegistry} when it is closed.
+ *
+ * <p>Stages may be nested, e.g. the private key operation runs while PDFBox saves the document;
+ * the time of a nested stage is subtracted from the enclosing one, so the stage times of a document
+ * add up to the time it took. A trace belongs to the thread processing the document and is not
+ * safe for concurrent use.</p>
+ *
+ * <p>Every closed trace is also written as one structured record in `key=value` form to the
+ * `org.example.developed_app.metrics` {@link System.Logger} at level `DEBUG`, so per-document latency
+ * can be collected by the logging backend without affecting the default output.</p>
+ */
+public final class Trace implements AutoCloseable {
+
+    /**
+     * Logger receiving one record per document.
+     */
+    private static final System.Logger LOGGER = System.getLogger("org.example.developed_app.metrics");
+
+    private final MetricsRegistry registry;
+
+    private final String operation;
+
+    private final Path document;
+
+    /**
+     * Value of {@link System#nanoTime()} when the trace was started.
+     */
+    private final long start = System.nanoTime();
+
+    /**
+     * Time spent in each stage, excluding nested stages, by ordinal.
+     */
+    private final long[] stageNanos = new long[Stage.values().length];
+
+    /**
+     * Whether each stage ran, by ordinal.
+     */
+    private final boolean[] stageRan = new boolean[Stage.values().length];
+
+    /**
+     * Time spent in nested stages of each running stage, innermost first.
+     */
+    private final ArrayDeque<long[]> running = new ArrayDeque<>();
+
+    private long bytesIn;
+
+    private long bytesOut;
+
+    /**
+     * Outcome of the operation, or `null` if it failed.
+     */
+    private String outcome;
+
+    /**
+     * Creates a trace; traces are obtained from {@link MetricsRegistry#trace(String, Path)}.
+     */
+    Trace(MetricsRegistry registry, String operation, Path document) {
+        this.registry = registry;
+        this.operation = operation;
+        this.document = document;
+    }
+
+    /**
+     * Starts a stage, ended when the returned span is closed.
+     *
+     * @param stage The stage.
+     * @return The running span.
+     */
+    public Span stage(Stage stage) {
+        running.push(new long[1]);
+        return new Span(this, stage, System.nanoTime());
+    }
+
+    /**
+     * Runs an action as a stage.
+     *
+     * @param stage  The stage.
+     * @param action The action.
+     * @param <T>    Type of the result.
+     * @return The result of the action.
+     * @throws Exception If the action fails; the time spent is still recorded.
+     */
+    public <T> T time(Stage stage, Action<T> action) throws Exception {
+        try (Span span = stage(stage)) {
+            return action.run();
+        }
+    }
+
+    /**
+     * Records the number of bytes read from the input document.
+     *
+     * @param bytes Number of bytes.
+     */
+    public void bytesIn(long bytes) {
+        bytesIn += bytes;
+    }
+
+    /**
+     * Records the number of bytes written to the output document.
+     *
+     * @param bytes Number of bytes.
+     */
+    public void bytesOut(long bytes) {
+        bytesOut += bytes;
+    }
+
+    /**
+     * Marks the operation as completed. A trace closed without an outcome counts as a failure.
+     *
+     * @param outcome The outcome, e.g. the verification status.
+     */
+    public void outcome(Object outcome) {
+        this.outcome = String.valueOf(outcome);
+    }
+
+    /**
+     * Ends a stage started with {@link #stage(Stage)}.
+     */
+    private void end(Stage stage, long started) {
+        long elapsed = System.nanoTime() - started;
+        long nested = running.pop()[0];
+        stageNanos[stage.ordinal()] += elapsed - nested;
+        stageRan[stage.ordinal()] = true;
+        if (!running.isEmpty()) {
+            running.peek()[0] += elapsed;
+        }
+    }
+
+    /**
+     * Records the stage times and byte counts and writes the log record.
+     */
+    @Override
+    public void close() {
+        long total = System.nanoTime() - start;
+        for (Stage stage : Stage.values()) {
+            if (stageRan[stage.ordinal()]) {
+                registry.timer(operation, stage).record(stageNanos[stage.ordinal()]);
+            }
+        }
+        registry.counter(operation + "_documents").increment();
+        registry.counter(operation + "_bytes_in").add(bytesIn);
+        registry.counter(operation + "_bytes_out").add(bytesOut);
+        if (outcome == null) {
+            registry.counter(operation + "_failures").increment();
+        }
+
+        if (LOGGER.isLoggable(System.Logger.Level.DEBUG)) {
+            LOGGER.log(System.Logger.Level.DEBUG, format(total));
+        }
+    }
+
+    /**
+     * Formats the log record of the trace.
+     */
+    private String format(long total) {
+        StringBuilder record = new StringBuilder();
+        record.append("operation=").append(operation)
+                .append(" document=\"").append(document.toString().replace("\\", "\\\\").replace("\"", "\\\"")).append('"')
+                .append(" outcome=").append(outcome != null ? outcome : "ERROR")
+                .append(String.format(Locale.ROOT, " total_ms=%.3f", total / 1_000_000.0));
+        for (Stage stage : Stage.values()) {
+            if (stageRan[stage.ordinal()]) {
+                record.append(String.format(Locale.ROOT, " %s_ms=%.3f", stage.label(), stageNanos[stage.ordinal()] / 1_000_000.0));
+            }
+        }
+        record.append(" bytes_in=").append(bytesIn).append(" bytes_out=").append(bytesOut);
+        return record.toString();
+    }
+
+    /**
+     * Action measured by {@link #time(Stage, Action)}.
+     *
+     * @param <T> Type of the result.
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+
+        /**
+         * Runs the action.
+         *
+         * @return The result.
+         * @throws Exception If the action fails.
+         */
+        T run() throws Exception;
+    }
+
+    /**
+     * One running stage of a trace, used with try-with-resources.
+     *
+     * @param trace The trace.
+     * @param stage The stage.
+     * @param start Value of {@link System#nanoTime()} when the stage started.
+     */
+    public record Span(Trace trace, Stage stage, long start) implements AutoCloseable {
+
+        /**
+         * Ends the stage.
+         */
+        @Override
+        public void close() {
+            trace.end(stage, start);
+        }
+    }
+}
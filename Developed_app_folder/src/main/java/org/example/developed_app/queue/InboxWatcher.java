@@ -0,0 +1,351 @@
+package org.example.developed_app.queue;
+
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.sign.SignResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `InboxWatcher` class signs PDF documents dropped into an inbox directory by other systems.
+ *
+ * <p>The watcher sleeps on a `WatchService` registered for the inbox. A created or modified `.pdf`
+ * file becomes a candidate; it is only submitted to the {@link SigningQueue} once its size and
+ * modification time have not changed for a quiet period and it can be opened for reading, so files
+ * still being written are never signed. Bursts of events for the same file collapse into one candidate,
+ * and all files that became stable are submitted together. Files already in the inbox when the watcher
+ * starts, or missed because the event queue overflowed, are found by rescanning the inbox.</p>
+ *
+ * <p>The signed copy is moved into the outbox, unless the queue already wrote it there, and the original
+ * is moved to the `originals` subdirectory of the outbox. A document that cannot be signed is moved to
+ * the `failed` subdirectory, next to a `.error` file holding the reason. Hidden files and signed copies
+ * (`_signed.pdf`) in the inbox are ignored.</p>
+ *
+ * <p>The documents are signed concurrently by the workers of the queue; when the queue is full, the
+ * watcher waits before submitting more. The number of detected, signed and failed documents is counted
+ * in the shared {@link MetricsRegistry}.</p>
+ */
+public final class InboxWatcher implements Runnable, Closeable {
+
+    /**
+     * Default time a file must stay unchanged before it is signed.
+     */
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(300);
+
+    /**
+     * Interval between checks of the candidates while events are awaited, in milliseconds.
+     */
+    private static final long TICK_MILLIS = 50;
+
+    /**
+     * Registry receiving the document counters.
+     */
+    private static final MetricsRegistry METRICS = MetricsRegistry.shared();
+
+    /**
+     * Logger receiving a structured record with the latency of every finished document.
+     */
+    private static final System.Logger METRICS_LOGGER = System.getLogger("org.example.developed_app.metrics");
+
+    /**
+     * Logger receiving a structured record for every document that cannot be submitted or moved.
+     */
+    private static final System.Logger LOGGER = System.getLogger(InboxWatcher.class.getName());
+
+    /**
+     * Directory receiving the documents to sign.
+     */
+    private final Path inbox;
+
+    /**
+     * Directory receiving the signed copies.
+     */
+    private final Path outbox;
+
+    /**
+     * Directory receiving the originals of the signed documents.
+     */
+    private final Path originals;
+
+    /**
+     * Directory receiving the documents that could not be signed.
+     */
+    private final Path failed;
+
+    /**
+     * Queue signing the documents.
+     */
+    private final SigningQueue queue;
+
+    /**
+     * Time a file must stay unchanged before it is signed, in nanoseconds.
+     */
+    private final long quietNanos;
+
+    /**
+     * Files waiting to become stable; only used by the watching thread.
+     */
+    private final Map<Path, Candidate> candidates = new HashMap<>();
+
+    /**
+     * Files submitted to the queue and not yet moved out of the inbox.
+     */
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the watcher should keep running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Watch service of the running watcher, closed by {@link #close()} to wake it up.
+     */
+    private volatile WatchService watchService;
+
+    /**
+     * Creates a watcher; it starts watching when {@link #run()} is called.
+     *
+     * @param inbox       Directory receiving the documents to sign.
+     * @param outbox      Directory receiving the signed copies, created if needed; it must differ from the inbox.
+     * @param queue       Queue signing the documents.
+     * @param quietPeriod Time a file must stay unchanged before it is signed.
+     * @throws IOException If the inbox is not a directory or the outbox cannot be created.
+     */
+    public InboxWatcher(Path inbox, Path outbox, SigningQueue queue, Duration quietPeriod) throws IOException {
+        this.inbox = inbox.toAbsolutePath().normalize();
+        this.outbox = outbox.toAbsolutePath().normalize();
+        if (!Files.isDirectory(this.inbox)) {
+            throw new NoSuchFileException(this.inbox.toString(), null, "Inbox is not a directory");
+        }
+        if (this.inbox.equals(this.outbox)) {
+            throw new IllegalArgumentException("Inbox and outbox must differ: " + this.inbox);
+        }
+        this.originals = Files.createDirectories(this.outbox.resolve("originals"));
+        this.failed = Files.createDirectories(this.outbox.resolve("failed"));
+        this.queue = queue;
+        this.quietNanos = quietPeriod.toNanos();
+    }
+
+    /**
+     * Watches the inbox until {@link #close()} is called or the thread is interrupted.
+     *
+     * @throws UncheckedIOException If the inbox cannot be watched or disappears.
+     */
+    @Override
+    public void run() {
+        try (WatchService watcher = inbox.getFileSystem().newWatchService()) {
+            watchService = watcher;
+            inbox.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            rescan();
+
+            while (running) {
+                WatchKey key = watcher.poll(TICK_MILLIS, TimeUnit.MILLISECONDS);
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            rescan();
+                        } else if (event.context() instanceof Path name) {
+                            offer(inbox.resolve(name));
+                        }
+                    }
+                    if (!key.reset()) {
+                        throw new IOException("Inbox is no longer accessible: " + inbox);
+                    }
+                    key = watcher.poll();
+                }
+                submitStable();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped by close() or interrupted while waiting for events or queue capacity.
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops watching and wakes the watcher up. Documents already submitted are still finished by the
+     * queue; files that were not yet stable stay in the inbox and are found on the next start.
+     */
+    @Override
+    public void close() {
+        running = false;
+        WatchService watcher = watchService;
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                // Nothing left to release.
+            }
+        }
+    }
+
+    /**
+     * Gets the number of documents submitted and not yet moved out of the inbox.
+     *
+     * @return Number of documents in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Offers every document currently in the inbox as a candidate.
+     */
+    private void rescan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox)) {
+            for (Path file : files) {
+                offer(file);
+            }
+        }
+    }
+
+    /**
+     * Records a file as a candidate, unless it is no document or is already handled.
+     */
+    private void offer(Path file) {
+        String name = file.getFileName().toString();
+        String lower = name.toLowerCase();
+        if (name.startsWith(".") || !lower.endsWith(".pdf") || lower.endsWith("_signed.pdf") || inFlight.contains(file)) {
+            return;
+        }
+        if (candidates.putIfAbsent(file, new Candidate(-1, null, System.nanoTime(), System.nanoTime())) == null) {
+            METRICS.counter("watch_detected").increment();
+        }
+    }
+
+    /**
+     * Submits the candidates that have not changed for the quiet period.
+     */
+    private void submitStable() throws IOException, InterruptedException {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Candidate>> iterator = candidates.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Candidate> entry = iterator.next();
+            Path file = entry.getKey();
+            Candidate candidate = entry.getValue();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Deleted or renamed away; it is offered again if it comes back.
+                iterator.remove();
+                continue;
+            }
+            if (!attributes.isRegularFile()) {
+                iterator.remove();
+                continue;
+            }
+            if (attributes.size() != candidate.size() || !attributes.lastModifiedTime().equals(candidate.modified())) {
+                entry.setValue(new Candidate(attributes.size(), attributes.lastModifiedTime(), now, candidate.detected()));
+                continue;
+            }
+            if (now - candidate.since() < quietNanos || candidate.size() == 0 || !isReadable(file)) {
+                continue;
+            }
+            iterator.remove();
+            submit(file, candidate.detected());
+        }
+    }
+
+    /**
+     * Checks whether a file can be opened, which fails on platforms locking files being written.
+     */
+    private static boolean isReadable(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Submits a stable document to the queue, waiting while the queue is full.
+     */
+    private void submit(Path file, long detected) throws InterruptedException {
+        inFlight.add(file);
+        CompletableFuture<SignResult> result;
+        try {
+            result = queue.submit(file, Lane.NORMAL);
+        } catch (IOException e) {
+            // The file disappeared or cannot be read; it is offered again if it changes.
+            inFlight.remove(file);
+            LOGGER.log(System.Logger.Level.WARNING, "operation=watch document={0} status=failed error={1}", file, e.getMessage());
+            return;
+        }
+        result.whenComplete((signed, error) -> finish(file, signed, detected));
+    }
+
+    /**
+     * Moves a finished document out of the inbox.
+     */
+    private void finish(Path file, SignResult result, long detected) {
+        Path name = file.getFileName();
+        try {
+            if (result != null && result.isSuccess()) {
+                Path signed = result.signedDocument().toAbsolutePath();
+                if (!outbox.equals(signed.getParent())) {
+                    move(signed, outbox.resolve(signed.getFileName()));
+                }
+                move(file, originals.resolve(name));
+                METRICS.counter("watch_signed").increment();
+            } else {
+                move(file, failed.resolve(name));
+                Files.writeString(failed.resolve(name + ".error"),
+                        result != null ? result.error() : "The signing queue was stopped");
+                METRICS.counter("watch_failed").increment();
+            }
+            METRICS_LOGGER.log(System.Logger.Level.DEBUG, "operation=watch document={0} outcome={1} latency_ms={2}",
+                    file, result != null && result.isSuccess() ? "SIGNED" : "FAILED",
+                    (System.nanoTime() - detected) / 1_000_000);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "operation=watch document={0} status=failed error={1}", file, e.getMessage());
+        } finally {
+            inFlight.remove(file);
+        }
+    }
+
+    /**
+     * Moves a file, atomically where the file system allows it, replacing an existing file.
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * A file waiting to become stable.
+     *
+     * @param size     Size at the last check, or -1 before the first check.
+     * @param modified Modification time at the last check, or `null` before the first check.
+     * @param since    Time of the last observed change, from {@link System#nanoTime()}.
+     * @param detected Time the file was first seen, from {@link System#nanoTime()}.
+     */
+    private record Candidate(long size, FileTime modified, long since, long detected) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.developed_app.queue;
+
+/**
+ * The `Lane` enum lists the priority lanes of a {@link SigningQueue}, from the most urgent.
+ *
+ * <p>A waiting document of a more urgent lane is always signed before any document of a less urgent
+ * one; within a lane, documents are signed in the order they were submitted.</p>
+ */
+public enum Lane {
+
+    /**
+     * Documents that must be signed before anything else that is waiting.
+     */
+    URGENT,
+
+    /**
+     * Regular documents.
+     */
+    NORMAL
+}
@@ -0,0 +1,298 @@
+package org.example.developed_app.queue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `SigningJournal` class records the progress of a signing queue in a local append-only file,
+ * so a process restarted after a crash knows which documents were already signed.
+ *
+ * <p>Every state change of a document is appended as one line holding the state, the SHA-256 digest
+ * of the source document, its lane and its absolute path. A {@link State#SIGNED} or
+ * {@link State#FAILED} line is forced to the storage device before the result is reported, so a
+ * document reported as signed is never signed again after a crash; {@link State#QUEUED} lines are
+ * not forced, since a lost one only means the document is queued again.</p>
+ *
+ * <p>When the journal is opened, it is replayed and the latest line of every document wins; a line
+ * cut short by a crash is ignored and the journal is rewritten, so new lines never continue it. Once the journal holds more than twice as many lines as documents
+ * it is rewritten with the latest lines only, through a temporary file replacing the old one. While it is
+ * open, it is rewritten the same way once the superseded lines reach {@link #COMPACTION_THRESHOLD} and half
+ * the number of documents, so a long-running queue keeps it small at amortized constant cost per line.</p>
+ *
+ * <p>The journal may be shared by several signing threads.</p>
+ */
+public final class SigningJournal implements Closeable {
+
+    /**
+     * First line of the journal, identifying its format.
+     */
+    private static final String HEADER = "pades-signing-journal 1";
+
+    /**
+     * Minimum number of superseded lines before an open journal is rewritten.
+     */
+    static final int COMPACTION_THRESHOLD = 4096;
+
+    /**
+     * Logger receiving a structured record for every failed compaction.
+     */
+    private static final System.Logger LOGGER = System.getLogger(SigningJournal.class.getName());
+
+    /**
+     * Path to the journal file.
+     */
+    private final Path file;
+
+    /**
+     * Latest entry of every document, in the order the documents were first recorded, guarded by `this`.
+     */
+    private final Map<Path, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Channel appending to the journal, guarded by `this`.
+     */
+    private FileChannel channel;
+
+    /**
+     * Number of lines in the journal, guarded by `this`.
+     */
+    private int lines;
+
+    /**
+     * Opens a journal, creating the file if it does not exist.
+     *
+     * @param file Path to the journal file.
+     * @throws IOException If the journal cannot be read or created, or is not a signing journal.
+     */
+    public SigningJournal(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        boolean torn = false;
+        if (Files.exists(this.file)) {
+            replay();
+            torn = !endsWithNewline();
+        }
+        if (lines == 0 || torn || lines > 2 * entries.size() + 1) {
+            rewrite();
+        }
+        channel = FileChannel.open(this.file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Gets the latest entry of a document.
+     *
+     * @param document Path to the source document.
+     * @return The latest entry, or `null` if the document was never recorded.
+     */
+    public synchronized Entry get(Path document) {
+        return entries.get(normalize(document));
+    }
+
+    /**
+     * Lists the documents that were queued but neither signed nor failed, e.g. because the process
+     * stopped while they were waiting.
+     *
+     * @return Entries of the pending documents, in the order they were first recorded.
+     */
+    public synchronized List<Entry> pending() {
+        List<Entry> pending = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.state() == State.QUEUED) {
+                pending.add(entry);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Checks whether a document was signed in exactly its current version.
+     *
+     * @param document Path to the source document.
+     * @param digest   Hexadecimal SHA-256 digest of the current document.
+     * @return `true` if the latest entry of the document is {@link State#SIGNED} with the same digest.
+     */
+    public synchronized boolean isSigned(Path document, String digest) {
+        Entry entry = entries.get(normalize(document));
+        return entry != null && entry.state() == State.SIGNED && entry.digest().equals(digest);
+    }
+
+    /**
+     * Appends a state change of a document.
+     *
+     * @param state    The new state.
+     * @param document Path to the source document.
+     * @param digest   Hexadecimal SHA-256 digest of the source document.
+     * @param lane     Lane of the document.
+     * @throws IOException If the line cannot be written or forced to the storage device.
+     */
+    public synchronized void append(State state, Path document, String digest, Lane lane) throws IOException {
+        Entry entry = new Entry(state, digest, lane, normalize(document));
+        String line = format(entry);
+        if (line.indexOf('\n') >= 0 || line.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Path cannot be journaled: " + document);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (state != State.QUEUED) {
+            channel.force(false);
+        }
+        entries.put(entry.document(), entry);
+        lines++;
+        if (lines - entries.size() - 1 >= Math.max(COMPACTION_THRESHOLD, entries.size() / 2)) {
+            compact();
+        }
+    }
+
+    /**
+     * Closes the journal.
+     *
+     * @throws IOException If the journal cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Rewrites the open journal with the latest lines only and reopens it for appending.
+     *
+     * <p>The line that triggered the compaction is already recorded, so a failure is logged and the
+     * journal keeps growing instead of failing the state change.</p>
+     */
+    private void compact() {
+        try {
+            rewrite();
+            FileChannel previous = channel;
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            previous.close();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "operation=journal_compaction file={0} status=failed error={1}",
+                    file, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the entries recorded in the journal, oldest first.
+     */
+    private void replay() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            if (!HEADER.equals(line)) {
+                throw new IOException("Not a signing journal: " + file);
+            }
+            lines = 1;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String[] fields = line.split(" ", 4);
+                if (fields.length != 4) {
+                    continue;
+                }
+                try {
+                    Entry entry = new Entry(State.valueOf(fields[0]), fields[1], Lane.valueOf(fields[2]), Path.of(fields[3]));
+                    entries.put(entry.document(), entry);
+                } catch (IllegalArgumentException e) {
+                    // A line cut short by a crash; the document is simply queued again.
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the journal ends with a complete line, so appended lines start on a line of their own.
+     */
+    private boolean endsWithNewline() throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() == 0) {
+                return false;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, in.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Writes the latest entries to a temporary file replacing the journal.
+     */
+    private void rewrite() throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            out.write(HEADER + '\n');
+            for (Entry entry : entries.values()) {
+                out.write(format(entry) + '\n');
+            }
+        }
+        try (FileChannel synced = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            synced.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lines = entries.size() + 1;
+    }
+
+    /**
+     * Formats a journal line.
+     */
+    private static String format(Entry entry) {
+        return entry.state().name() + ' ' + entry.digest() + ' ' + entry.lane().name() + ' ' + entry.document();
+    }
+
+    /**
+     * Makes the journal independent of the working directory.
+     */
+    private static Path normalize(Path document) {
+        return document.toAbsolutePath().normalize();
+    }
+
+    /**
+     * State of a document in the journal.
+     */
+    public enum State {
+
+        /**
+         * Accepted by the queue and waiting or being signed.
+         */
+        QUEUED,
+
+        /**
+         * Signed; the signed copy was written.
+         */
+        SIGNED,
+
+        /**
+         * Signing failed; the document is queued again when it is submitted again.
+         */
+        FAILED
+    }
+
+    /**
+     * Latest recorded state of a document.
+     *
+     * @param state    The state.
+     * @param digest   Hexadecimal SHA-256 digest of the source document.
+     * @param lane     Lane of the document.
+     * @param document Absolute path to the source document.
+     */
+    public record Entry(State state, String digest, Lane lane, Path document) {
+    }
+}
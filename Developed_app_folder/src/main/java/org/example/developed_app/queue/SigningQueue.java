@@ -0,0 +1,294 @@
+package org.example.developed_app.queue;
+
+import org.example.developed_app.codec.Hex;
+import org.example.developed_app.digest.StreamingDigest;
+import org.example.developed_app.sign.KeyProvider;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.sign.SignResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `SigningQueue` class signs submitted documents on a pool of worker threads, in the order of
+ * their {@link Lane priority lanes}, and records their progress in an optional {@link SigningJournal}.
+ *
+ * <p>Every submitted document is hashed first. If the journal says that exactly this version of the
+ * document was already signed and its signed copy still exists, the document is not signed again, so
+ * a batch restarted after a crash resumes where it stopped.</p>
+ *
+ * <p>The queue holds a bounded number of documents, counting the ones being signed. When it is full,
+ * {@link #submit(Path, Lane)} blocks until a worker finishes a document. A slow output disk therefore
+ * slows the producer down instead of piling up documents in memory.</p>
+ */
+public final class SigningQueue implements Closeable {
+
+    /**
+     * Default number of documents held per worker, counting the one being signed.
+     */
+    public static final int DEFAULT_CAPACITY_PER_WORKER = 4;
+
+    /**
+     * Digest algorithm identifying document versions in the journal.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Object used to sign the individual documents.
+     */
+    private final Sign sign;
+
+    /**
+     * Provider of the signing key.
+     */
+    private final KeyProvider keyProvider;
+
+    /**
+     * Journal recording the progress, or `null` if nothing is recorded.
+     */
+    private final SigningJournal journal;
+
+    /**
+     * Waiting documents, most urgent lane first and in submission order within a lane.
+     */
+    private final PriorityBlockingQueue<Task> tasks = new PriorityBlockingQueue<>();
+
+    /**
+     * Free places in the queue; taken on submission and returned when a document is finished.
+     */
+    private final Semaphore capacity;
+
+    /**
+     * Threads signing the documents.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Number of worker threads.
+     */
+    private final int workerCount;
+
+    /**
+     * Submission counter keeping documents of one lane in order.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Number of documents skipped because the journal records them as signed.
+     */
+    private final LongAdder resumed = new LongAdder();
+
+    /**
+     * Set once by {@link #close()}; written and checked before adding a task while holding `this`,
+     * so no task is added after the stop markers.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a queue and starts its workers.
+     *
+     * @param sign        Object used to sign the individual documents; it may be shared with other callers.
+     * @param keyProvider Provider of the signing key.
+     * @param journal     Journal recording the progress, or `null` to record nothing.
+     * @param workers     Number of documents signed concurrently.
+     * @param capacity    Maximum number of documents held by the queue, counting the ones being signed.
+     */
+    public SigningQueue(Sign sign, KeyProvider keyProvider, SigningJournal journal, int workers, int capacity) {
+        if (workers < 1 || capacity < workers) {
+            throw new IllegalArgumentException("Invalid number of workers or capacity: " + workers + ", " + capacity);
+        }
+        this.sign = sign;
+        this.keyProvider = keyProvider;
+        this.journal = journal;
+        this.capacity = new Semaphore(capacity);
+        this.workerCount = workers;
+        this.workers = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Submits a document, blocking while the queue is full.
+     *
+     * @param document Path to the document to sign.
+     * @param lane     Priority lane of the document.
+     * @return Future completed with the result of signing the document; an already signed document
+     * completes immediately with a result of zero duration.
+     * @throws IOException           If the document cannot be hashed or the journal cannot be written.
+     * @throws InterruptedException  If the calling thread is interrupted while the queue is full.
+     * @throws IllegalStateException If the queue is closed before the document is added.
+     */
+    public CompletableFuture<SignResult> submit(Path document, Lane lane) throws IOException, InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("The signing queue is closed");
+        }
+        String digest = digestOf(document);
+        if (journal != null && journal.isSigned(document, digest)) {
+            Path signedPath = sign.signedPathOf(document);
+            if (Files.exists(signedPath)) {
+                resumed.increment();
+                return CompletableFuture.completedFuture(new SignResult(document, signedPath, null, 0));
+            }
+        }
+
+        capacity.acquire();
+        try {
+            if (journal != null) {
+                journal.append(SigningJournal.State.QUEUED, document, digest, lane);
+            }
+        } catch (IOException | RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+        Task task = new Task(document, digest, lane, sequence.getAndIncrement(), new CompletableFuture<>());
+        synchronized (this) {
+            if (closed) {
+                capacity.release();
+                throw new IllegalStateException("The signing queue is closed");
+            }
+            tasks.add(task);
+        }
+        return task.result();
+    }
+
+    /**
+     * Gets the number of documents skipped because the journal records them as signed.
+     *
+     * @return Number of resumed documents.
+     */
+    public long getResumed() {
+        return resumed.sum();
+    }
+
+    /**
+     * Gets the number of documents waiting for a worker.
+     *
+     * @return Number of waiting documents.
+     */
+    public int getWaiting() {
+        return (int) tasks.stream().filter(task -> task.document() != null).count();
+    }
+
+    /**
+     * Stops accepting documents, waits until every submitted document is signed and stops the workers.
+     * The journal is not closed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int i = 0; i < workerCount; i++) {
+                tasks.add(Task.STOP);
+            }
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loop of a worker thread: takes the most urgent document until told to stop.
+     */
+    private void work() {
+        try {
+            while (true) {
+                Task task = tasks.take();
+                if (task == Task.STOP) {
+                    return;
+                }
+                try {
+                    task.result().complete(signOne(task));
+                } finally {
+                    capacity.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Signs one document, records the outcome and converts any failure into a result.
+     *
+     * @param task The document to sign.
+     * @return Result of signing the document.
+     */
+    private SignResult signOne(Task task) {
+        long start = System.nanoTime();
+        try {
+            Path signedPath = sign.signDocument(keyProvider, task.document());
+            if (journal != null) {
+                journal.append(SigningJournal.State.SIGNED, task.document(), task.digest(), task.lane());
+            }
+            return new SignResult(task.document(), signedPath, null, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (journal != null) {
+                try {
+                    journal.append(SigningJournal.State.FAILED, task.document(), task.digest(), task.lane());
+                } catch (IOException journalError) {
+                    e.addSuppressed(journalError);
+                }
+            }
+            return new SignResult(task.document(), null, error, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Computes the digest identifying the current version of a document.
+     */
+    private static String digestOf(Path document) throws IOException {
+        try {
+            return Hex.encode(StreamingDigest.digest(document, DIGEST_ALGORITHM));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A waiting document.
+     *
+     * @param document Path to the document, or `null` for the stop marker.
+     * @param digest   Hexadecimal SHA-256 digest of the document.
+     * @param lane     Priority lane, or `null` for the stop marker.
+     * @param sequence Submission counter.
+     * @param result   Future completed with the result.
+     */
+    private record Task(Path document, String digest, Lane lane, long sequence, CompletableFuture<SignResult> result)
+            implements Comparable<Task> {
+
+        /**
+         * Marker ordered after every document, telling a worker to stop.
+         */
+        static final Task STOP = new Task(null, null, null, Long.MAX_VALUE, null);
+
+        @Override
+        public int compareTo(Task other) {
+            int lanes = Integer.compare(rank(), other.rank());
+            return lanes != 0 ? lanes : Long.compare(sequence, other.sequence);
+        }
+
+        private int rank() {
+            return lane != null ? lane.ordinal() : Integer.MAX_VALUE;
+        }
+    }
+}
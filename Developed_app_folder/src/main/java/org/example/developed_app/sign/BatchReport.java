@@ -0,0 +1,123 @@
+package org.example.developed_app.sign;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * The `BatchReport` class summarizes a batch signing run: the per-document results
+ * and the overall throughput of the worker pool.
+ */
+public class BatchReport {
+
+    /**
+     * Results of the individual documents, in input order.
+     */
+    private final List<SignResult> results;
+
+    /**
+     * Wall-clock duration of the whole batch, in milliseconds.
+     */
+    private final long elapsedMillis;
+
+    /**
+     * Number of documents not signed again because a journal records them as signed.
+     */
+    private final long resumed;
+
+    /**
+     * Creates a report for a finished batch.
+     *
+     * @param results       Results of the individual documents.
+     * @param elapsedMillis Wall-clock duration of the batch, in milliseconds.
+     */
+    public BatchReport(List<SignResult> results, long elapsedMillis) {
+        this(results, elapsedMillis, 0);
+    }
+
+    /**
+     * Creates a report for a finished batch resumed from a journal.
+     *
+     * @param results       Results of the individual documents, including the resumed ones.
+     * @param elapsedMillis Wall-clock duration of the batch, in milliseconds.
+     * @param resumed       Number of documents not signed again because they were already signed.
+     */
+    public BatchReport(List<SignResult> results, long elapsedMillis, long resumed) {
+        this.results = List.copyOf(results);
+        this.elapsedMillis = elapsedMillis;
+        this.resumed = resumed;
+    }
+
+    /**
+     * Gets the results of the individual documents.
+     *
+     * @return Unmodifiable list of results, in input order.
+     */
+    public List<SignResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the wall-clock duration of the batch.
+     *
+     * @return Duration in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the number of documents not signed again because a journal records them as signed.
+     *
+     * @return Number of resumed documents.
+     */
+    public long getResumed() {
+        return resumed;
+    }
+
+    /**
+     * Counts the documents that were signed successfully.
+     *
+     * @return Number of signed documents.
+     */
+    public long getSucceeded() {
+        return results.stream().filter(SignResult::isSuccess).count();
+    }
+
+    /**
+     * Counts the documents that could not be signed.
+     *
+     * @return Number of failed documents.
+     */
+    public long getFailed() {
+        return results.size() - getSucceeded();
+    }
+
+    /**
+     * Calculates the throughput of the batch.
+     *
+     * @return Number of processed documents per second.
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedMillis == 0 ? results.size() : results.size() * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Prints one line per document followed by a summary line.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        for (SignResult result : results) {
+            if (result.isSuccess()) {
+                out.printf("OK     %s -> %s (%d ms)%n", result.document(), result.signedDocument(), result.durationMillis());
+            } else {
+                out.printf("FAILED %s: %s (%d ms)%n", result.document(), result.error(), result.durationMillis());
+            }
+        }
+        out.printf("Signed %d of %d documents in %d ms (%.2f documents/s), %d failed%n",
+                getSucceeded(), results.size(), elapsedMillis, getDocumentsPerSecond(), getFailed());
+        if (resumed > 0) {
+            out.printf("Resumed: %d documents were already signed according to the journal%n", resumed);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.developed_app.sign;
+
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.queue.Lane;
+import org.example.developed_app.queue.SigningJournal;
+import org.example.developed_app.queue.SigningQueue;
+import org.example.developed_app.tsa.TimestampClient;
+import org.example.developed_app.validation.CertificateValidator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * The `BatchSigner` class signs many PDF documents without the GUI.
+ *
+ * <p>The key provider is unlocked once, before the batch starts, and shared by a bounded pool
+ * of worker threads, each of which signs one document at a time.</p>
+ */
+public class BatchSigner {
+
+    /**
+     * Object used to sign the individual documents.
+     */
+    private final Sign sign;
+
+    /**
+     * Provider of the signing key.
+     */
+    private final KeyProvider keyProvider;
+
+    /**
+     * Number of documents signed concurrently.
+     */
+    private final int workers;
+
+    /**
+     * Creates a batch signer.
+     *
+     * @param keyProvider Provider of the signing key.
+     * @param workers     Number of documents signed concurrently.
+     * @param digestMode  Selects which data of the documents is hashed.
+     */
+    public BatchSigner(KeyProvider keyProvider, int workers, DigestMode digestMode) {
+        this(keyProvider, workers, digestMode, null);
+    }
+
+    /**
+     * Creates a batch signer with a selected hash function.
+     *
+     * @param keyProvider     Provider of the signing key.
+     * @param workers         Number of documents signed concurrently.
+     * @param digestMode      Selects which data of the documents is hashed.
+     * @param digestAlgorithm Hash function of the digest stage, or `null` for the default digest of the key's profile.
+     */
+    public BatchSigner(KeyProvider keyProvider, int workers, DigestMode digestMode, DigestAlgorithm digestAlgorithm) {
+        this(keyProvider, workers, digestMode, digestAlgorithm, null);
+    }
+
+    /**
+     * Creates a batch signer timestamping its PAdES signatures.
+     *
+     * <p>The workers wait for their tokens concurrently, so the timestamp requests of a batch are
+     * pipelined up to the in-flight limit of the client instead of being sent one after another.</p>
+     *
+     * @param keyProvider     Provider of the signing key.
+     * @param workers         Number of documents signed concurrently.
+     * @param digestMode      Selects which data of the documents is hashed.
+     * @param digestAlgorithm Hash function of the digest stage, or `null` for the default digest of the key's profile.
+     * @param timestampClient Client of the timestamp authority, or `null` for signatures without a trusted time.
+     */
+    public BatchSigner(KeyProvider keyProvider, int workers, DigestMode digestMode, DigestAlgorithm digestAlgorithm,
+                       TimestampClient timestampClient) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        this.keyProvider = keyProvider;
+        this.sign = new Sign();
+        this.sign.setDigestMode(digestMode);
+        this.sign.setDigestAlgorithm(digestAlgorithm);
+        this.sign.setTimestampClient(timestampClient);
+        this.workers = workers;
+    }
+
+    /**
+     * Sets the validator collecting the validation data embedded into the PAdES signatures of the batch.
+     *
+     * @param certificateValidator The certificate validator, or `null` to embed no validation data.
+     */
+    public void setCertificateValidator(CertificateValidator certificateValidator) {
+        sign.setCertificateValidator(certificateValidator);
+    }
+
+    /**
+     * Sets the directory receiving the signed copies of the batch.
+     *
+     * <p>Documents are written under their own file name, so documents with the same name in different
+     * input directories replace each other's signed copy.</p>
+     *
+     * @param outputDirectory The output directory, or `null` to write copies next to the originals.
+     */
+    public void setOutputDirectory(Path outputDirectory) {
+        sign.setOutputDirectory(outputDirectory);
+    }
+
+    /**
+     * Sets the size of the chunks hashed in parallel when the batch is signed in Merkle mode.
+     *
+     * @param merkleChunkSize The chunk size in bytes.
+     */
+    public void setMerkleChunkSize(int merkleChunkSize) {
+        sign.setMerkleChunkSize(merkleChunkSize);
+    }
+
+    /**
+     * Collects the documents to sign.
+     *
+     * <p>If the input is a directory, every `.pdf` file in it and its subdirectories is returned,
+     * except for files that are already signed copies. Otherwise the input is treated as a manifest
+     * listing one document per line; blank lines and lines starting with `#` are ignored and relative
+     * paths are resolved against the directory of the manifest.</p>
+     *
+     * @param input Directory or manifest file.
+     * @return Paths to the documents to sign.
+     * @throws IOException If the directory or manifest cannot be read.
+     */
+    public static List<Path> collectDocuments(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> files = Files.walk(input)) {
+                return files.filter(Files::isRegularFile)
+                        .filter(path -> {
+                            String name = path.getFileName().toString().toLowerCase();
+                            return name.endsWith(".pdf") && !name.endsWith("_signed.pdf");
+                        })
+                        .sorted()
+                        .toList();
+            }
+        }
+
+        Path base = input.toAbsolutePath().getParent();
+        List<Path> documents = new ArrayList<>();
+        for (String line : Files.readAllLines(input)) {
+            String entry = line.strip();
+            if (!entry.isEmpty() && !entry.startsWith("#")) {
+                documents.add(base.resolve(entry));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Signs all given documents on the worker pool.
+     *
+     * <p>A failure of one document does not stop the batch; it is recorded in its result instead.</p>
+     *
+     * @param documents Paths to the documents to sign.
+     * @return Report with per-document results and overall throughput.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    public BatchReport signAll(List<Path> documents) throws InterruptedException {
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<SignResult>> futures = new ArrayList<>(documents.size());
+            for (Path document : documents) {
+                futures.add(executor.submit(() -> signOne(document)));
+            }
+
+            List<SignResult> results = new ArrayList<>(documents.size());
+            for (Future<SignResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return new BatchReport(results, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a {@link SigningQueue} signing with the settings of this batch signer, for callers
+     * submitting documents as they arrive.
+     *
+     * @param journal  Journal recording the progress, or `null` to record nothing.
+     * @param capacity Maximum number of documents held by the queue, at least the number of workers.
+     * @return The running queue; the caller closes it.
+     */
+    public SigningQueue openQueue(SigningJournal journal, int capacity) {
+        return new SigningQueue(sign, keyProvider, journal, workers, capacity);
+    }
+
+    /**
+     * Signs documents through a {@link SigningQueue}, recording the progress in a journal.
+     *
+     * <p>Urgent documents are queued in the {@link Lane#URGENT} lane and signed before the others.
+     * Documents the journal records as signed in their current version are not signed again, and
+     * documents it still lists as queued from an interrupted run are signed as well, so running the
+     * same batch again after a crash resumes it. At most `capacity` documents are held at once.</p>
+     *
+     * @param documents Paths to the documents to sign.
+     * @param urgent    Paths to the documents to sign first.
+     * @param journal   Journal recording the progress, or `null` to record nothing.
+     * @param capacity  Maximum number of documents held by the queue, at least the number of workers.
+     * @return Report with per-document results, in submission order, and overall throughput.
+     * @throws IOException          If a document cannot be hashed or the journal cannot be written.
+     * @throws InterruptedException If the calling thread is interrupted while the queue is full.
+     */
+    public BatchReport signQueued(List<Path> documents, List<Path> urgent, SigningJournal journal, int capacity)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<SigningJournal.Entry> pending = journal != null ? journal.pending() : List.of();
+        List<CompletableFuture<SignResult>> futures = new ArrayList<>();
+        long resumed;
+
+        try (SigningQueue queue = openQueue(journal, capacity)) {
+            Set<Path> submitted = new HashSet<>();
+            for (Path document : urgent) {
+                if (submitted.add(document.toAbsolutePath().normalize())) {
+                    futures.add(queue.submit(document, Lane.URGENT));
+                }
+            }
+            for (Path document : documents) {
+                if (submitted.add(document.toAbsolutePath().normalize())) {
+                    futures.add(queue.submit(document, Lane.NORMAL));
+                }
+            }
+            for (SigningJournal.Entry entry : pending) {
+                if (Files.isRegularFile(entry.document()) && submitted.add(entry.document())) {
+                    futures.add(queue.submit(entry.document(), entry.lane()));
+                }
+            }
+            queue.close();
+            resumed = queue.getResumed();
+        }
+
+        List<SignResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<SignResult> future : futures) {
+            results.add(future.join());
+        }
+        return new BatchReport(results, (System.nanoTime() - start) / 1_000_000, resumed);
+    }
+
+    /**
+     * Signs one document and converts any failure into a result.
+     *
+     * @param document Path to the document to sign.
+     * @return Result of signing the document.
+     */
+    private SignResult signOne(Path document) {
+        long start = System.nanoTime();
+        try {
+            Path signedPath = sign.signDocument(keyProvider, document);
+            return new SignResult(document, signedPath, null, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new SignResult(document, null, error, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
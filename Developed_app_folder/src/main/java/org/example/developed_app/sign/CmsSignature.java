@@ -0,0 +1,314 @@
+package org.example.developed_app.sign;
+
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureInterface;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.cms.Attribute;
+import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.cms.CMSAttributes;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.asn1.ess.ESSCertIDv2;
+import org.bouncycastle.asn1.ess.SigningCertificateV2;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.CMSTypedData;
+import org.bouncycastle.cms.DefaultSignedAttributeTableGenerator;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.SignerInformationStore;
+import org.bouncycastle.cms.jcajce.JcaSignerInfoGeneratorBuilder;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DefaultSignatureAlgorithmIdentifierFinder;
+import org.bouncycastle.operator.RuntimeOperatorException;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.keys.SignatureProfile;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Trace;
+import org.example.developed_app.tsa.TimestampClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The `CmsSignature` class creates the detached CMS container of a PAdES signature.
+ *
+ * <p>PDFBox passes the bytes covered by the `/ByteRange` of the signature dictionary, which are
+ * streamed into the digest without being buffered. The signed attributes follow the PAdES baseline
+ * profile: they carry the signing certificate reference and omit the signing time, which is stored
+ * in the signature dictionary instead.</p>
+ *
+ * <p>The private key operation is delegated to a {@link KeyProvider}, so the key may live in a file
+ * or on a hardware token.</p>
+ *
+ * <p>With a {@link TimestampClient}, the signature value is timestamped and the token is added as the
+ * `signature-time-stamp` unsigned attribute, raising the signature to the PAdES-B-T level.</p>
+ *
+ * <p>With a {@link Trace}, hashing the byte range, the private key operation and waiting for the
+ * timestamp are measured as separate stages.</p>
+ */
+public class CmsSignature implements SignatureInterface {
+
+    /**
+     * The provider performing the private key operation.
+     */
+    private final KeyProvider keyProvider;
+
+    /**
+     * Digest of the signed content and of the signed attributes.
+     */
+    private final DigestAlgorithm digestAlgorithm;
+
+    /**
+     * Client of the timestamp authority, or `null` for signatures without a trusted time.
+     */
+    private final TimestampClient timestampClient;
+
+    /**
+     * Trace of the signed document, or `null` to measure nothing.
+     */
+    private final Trace trace;
+
+    /**
+     * Creates a CMS signature for the given key provider, using the default digest of its profile.
+     *
+     * @param keyProvider The provider performing the private key operation.
+     */
+    public CmsSignature(KeyProvider keyProvider) {
+        this(keyProvider, keyProvider.profile().getDefaultDigest());
+    }
+
+    /**
+     * Creates a CMS signature for the given key provider and digest.
+     *
+     * @param keyProvider     The provider performing the private key operation.
+     * @param digestAlgorithm Digest of the signed content and of the signed attributes.
+     */
+    public CmsSignature(KeyProvider keyProvider, DigestAlgorithm digestAlgorithm) {
+        this(keyProvider, digestAlgorithm, null);
+    }
+
+    /**
+     * Creates a CMS signature for the given key provider and digest, timestamped by a timestamp authority.
+     *
+     * @param keyProvider     The provider performing the private key operation.
+     * @param digestAlgorithm Digest of the signed content, the signed attributes and the timestamped signature value.
+     * @param timestampClient Client of the timestamp authority, or `null` for signatures without a trusted time.
+     */
+    public CmsSignature(KeyProvider keyProvider, DigestAlgorithm digestAlgorithm, TimestampClient timestampClient) {
+        this(keyProvider, digestAlgorithm, timestampClient, null);
+    }
+
+    /**
+     * Creates a CMS signature whose digest, private key and timestamp stages are measured.
+     *
+     * @param keyProvider     The provider performing the private key operation.
+     * @param digestAlgorithm Digest of the signed content, the signed attributes and the timestamped signature value.
+     * @param timestampClient Client of the timestamp authority, or `null` for signatures without a trusted time.
+     * @param trace           Trace of the signed document, or `null` to measure nothing.
+     */
+    public CmsSignature(KeyProvider keyProvider, DigestAlgorithm digestAlgorithm, TimestampClient timestampClient,
+                        Trace trace) {
+        this.keyProvider = keyProvider;
+        this.digestAlgorithm = digestAlgorithm;
+        this.timestampClient = timestampClient;
+        this.trace = trace;
+    }
+
+    /**
+     * Signs the content covered by the byte range of the signature dictionary.
+     *
+     * @param content The content to sign.
+     * @return The DER-encoded detached CMS container.
+     * @throws IOException If the content cannot be read or the container cannot be created.
+     */
+    @Override
+    public byte[] sign(InputStream content) throws IOException {
+        try {
+            X509Certificate certificate = keyProvider.certificate();
+
+            CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
+            generator.addSignerInfoGenerator(new JcaSignerInfoGeneratorBuilder(new JcaDigestCalculatorProviderBuilder().build())
+                    .setSignedAttributeGenerator(new PadesAttributeTableGenerator(signedAttributes(certificate)))
+                    .build(new ProviderContentSigner(keyProvider, digestAlgorithm, trace), certificate));
+            generator.addCertificate(new JcaX509CertificateHolder(certificate));
+            for (X509Certificate intermediate : keyProvider.chain()) {
+                generator.addCertificate(new JcaX509CertificateHolder(intermediate));
+            }
+
+            CMSSignedData signedData;
+            try (Trace.Span span = trace != null ? trace.stage(Stage.DIGEST) : null) {
+                signedData = generator.generate(new StreamContent(content), false);
+            }
+            if (timestampClient != null) {
+                try (Trace.Span span = trace != null ? trace.stage(Stage.TIMESTAMP) : null) {
+                    signedData = addTimestamps(signedData);
+                }
+            }
+            return signedData.getEncoded();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cannot create CMS signature", e);
+        }
+    }
+
+    /**
+     * Timestamps the signature value of every signer and stores the token as an unsigned attribute.
+     *
+     * @param signedData The CMS container.
+     * @return The container with the timestamped signers.
+     * @throws Exception If the timestamp authority cannot be reached or rejects the request.
+     */
+    private CMSSignedData addTimestamps(CMSSignedData signedData) throws Exception {
+        List<SignerInformation> signers = new ArrayList<>();
+        for (SignerInformation signer : signedData.getSignerInfos().getSigners()) {
+            byte[] imprint = digestAlgorithm.newDigest().digest(signer.getSignature());
+            TimeStampToken token;
+            try {
+                token = timestampClient.timestamp(digestAlgorithm, imprint).get();
+            } catch (ExecutionException e) {
+                throw new IOException("Cannot timestamp the signature", e.getCause());
+            }
+
+            AttributeTable unsigned = signer.getUnsignedAttributes();
+            if (unsigned == null) {
+                unsigned = new AttributeTable(new ASN1EncodableVector());
+            }
+            unsigned = unsigned.add(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken,
+                    ASN1Primitive.fromByteArray(token.getEncoded()));
+            signers.add(SignerInformation.replaceUnsignedAttributes(signer, unsigned));
+        }
+        return CMSSignedData.replaceSigners(signedData, new SignerInformationStore(signers));
+    }
+
+    /**
+     * Builds the signed attributes referencing the signing certificate.
+     *
+     * @param certificate The signer certificate.
+     * @return The attribute table.
+     * @throws Exception If the certificate cannot be encoded.
+     */
+    private static AttributeTable signedAttributes(X509Certificate certificate) throws Exception {
+        byte[] certificateHash = MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded());
+        SigningCertificateV2 signingCertificate = new SigningCertificateV2(new ESSCertIDv2(certificateHash));
+
+        ASN1EncodableVector attributes = new ASN1EncodableVector();
+        attributes.add(new Attribute(PKCSObjectIdentifiers.id_aa_signingCertificateV2, new DERSet(signingCertificate)));
+        return new AttributeTable(attributes);
+    }
+
+    /**
+     * Content signer hashing the DER-encoded signed attributes once and passing only the digest to the key provider.
+     *
+     * <p>Ed25519 cannot sign a precomputed digest inside CMS, so for it the signed attributes are buffered
+     * and signed as a whole.</p>
+     */
+    private static class ProviderContentSigner implements ContentSigner {
+
+        private final KeyProvider keyProvider;
+
+        private final SignatureProfile profile;
+
+        private final DigestAlgorithm digestAlgorithm;
+
+        private final MessageDigest digest;
+
+        private final ByteArrayOutputStream signedAttributes = new ByteArrayOutputStream();
+
+        private final OutputStream out;
+
+        private final Trace trace;
+
+        ProviderContentSigner(KeyProvider keyProvider, DigestAlgorithm digestAlgorithm, Trace trace)
+                throws NoSuchAlgorithmException {
+            this.keyProvider = keyProvider;
+            this.trace = trace;
+            this.profile = keyProvider.profile();
+            this.digestAlgorithm = digestAlgorithm;
+            this.digest = digestAlgorithm.newDigest();
+            this.out = profile == SignatureProfile.ED25519
+                    ? signedAttributes : new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+        }
+
+        @Override
+        public AlgorithmIdentifier getAlgorithmIdentifier() {
+            return new DefaultSignatureAlgorithmIdentifierFinder().find(profile.getSignatureAlgorithm(digestAlgorithm));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        @Override
+        public byte[] getSignature() {
+            try (Trace.Span span = trace != null ? trace.stage(Stage.CRYPTO) : null) {
+                if (profile == SignatureProfile.ED25519) {
+                    return keyProvider.sign(profile.getSignatureAlgorithm(), signedAttributes.toByteArray());
+                }
+                return keyProvider.signDigest(digestAlgorithm, digest.digest());
+            } catch (Exception e) {
+                throw new RuntimeOperatorException("Cannot sign the signed attributes", e);
+            }
+        }
+    }
+
+    /**
+     * Signed attribute generator that drops the CMS signing time, as required by PAdES.
+     */
+    private static class PadesAttributeTableGenerator extends DefaultSignedAttributeTableGenerator {
+
+        PadesAttributeTableGenerator(AttributeTable attributes) {
+            super(attributes);
+        }
+
+        @Override
+        public AttributeTable getAttributes(Map parameters) {
+            return super.getAttributes(parameters).remove(CMSAttributes.signingTime);
+        }
+    }
+
+    /**
+     * CMS content read once from an input stream.
+     */
+    private static class StreamContent implements CMSTypedData {
+
+        private final InputStream in;
+
+        StreamContent(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public ASN1ObjectIdentifier getContentType() {
+            return CMSObjectIdentifiers.data;
+        }
+
+        @Override
+        public void write(OutputStream out) throws IOException, CMSException {
+            in.transferTo(out);
+        }
+
+        @Override
+        public Object getContent() {
+            return in;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.developed_app.sign;
+
+import org.example.developed_app.codec.Pem;
+import org.example.developed_app.keys.KeyCache;
+import org.example.developed_app.keys.SignatureProfile;
+import org.example.developed_app.validation.CertificateValidator;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The `FileKeyProvider` class signs with a private key read from an AES-encrypted `private.enc`
+ * file, as written by the key generator of the auxiliary application.
+ *
+ * <p>The key file holds only the bare private key. Its certificate is read from a companion file next
+ * to it, see {@link #certificatePathOf(Path)}; the file may hold the whole chain, the signer certificate
+ * first, followed by the intermediate certificates. If there is none, a self-signed certificate is created
+ * once and stored there, so every signature made with the key carries the same certificate. Such a
+ * certificate chains to no trusted root; replace the file with the chain issued by a CA to sign PAdES-LT.</p>
+ */
+public class FileKeyProvider implements KeyProvider {
+
+    private static final System.Logger LOGGER = System.getLogger(FileKeyProvider.class.getName());
+
+    /**
+     * The decrypted key and its certificate.
+     */
+    private final SigningIdentity identity;
+
+    /**
+     * Creates a provider for an already decrypted key.
+     *
+     * @param identity The decrypted key and its certificate.
+     */
+    public FileKeyProvider(SigningIdentity identity) {
+        this.identity = identity;
+    }
+
+    /**
+     * Decrypts the key file and creates a provider for it with the certificate stored next to it.
+     *
+     * <p>If the companion certificate file does not exist yet, a self-signed certificate is created
+     * and written to it. If it cannot be written, e.g. on a read-only drive, the certificate is used
+     * for this provider only and a warning is logged.</p>
+     *
+     * @param keyPath Path to the encrypted key file.
+     * @param pin     PIN used to decrypt the key.
+     * @return The key provider.
+     * @throws IllegalArgumentException If the stored certificate does not belong to the key.
+     * @throws Exception                If the key file cannot be read or the PIN does not decrypt it.
+     */
+    public static FileKeyProvider load(Path keyPath, String pin) throws Exception {
+        PrivateKey privateKey = loadPrivateKey(keyPath, pin);
+        Path certificatePath = certificatePathOf(keyPath);
+        if (Files.exists(certificatePath)) {
+            return new FileKeyProvider(SigningIdentity.of(privateKey, readCertificates(certificatePath)));
+        }
+
+        SigningIdentity identity = SigningIdentity.selfSigned(privateKey);
+        try {
+            writeCertificate(certificatePath, identity.certificate());
+        } catch (FileAlreadyExistsException e) {
+            return new FileKeyProvider(SigningIdentity.of(privateKey, readCertificates(certificatePath)));
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "operation=certificate path={0} status=not_stored error={1}",
+                    certificatePath, e.toString());
+        }
+        return new FileKeyProvider(identity);
+    }
+
+    /**
+     * Gets the path of the certificate file belonging to a key file.
+     *
+     * @param keyPath Path to the encrypted key file, e.g. `private.enc`.
+     * @return Path to the PEM or DER certificate chain next to it, e.g. `private.crt`.
+     */
+    public static Path certificatePathOf(Path keyPath) {
+        String fileName = keyPath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        return keyPath.resolveSibling((extension > 0 ? fileName.substring(0, extension) : fileName) + ".crt");
+    }
+
+    /**
+     * Reads the signer certificate and its intermediate certificates from a PEM or DER file.
+     *
+     * @param path Path to the certificate file.
+     * @return The certificates of the file, the signer certificate first.
+     * @throws IOException If the file cannot be read or holds no certificate.
+     */
+    private static List<X509Certificate> readCertificates(Path path) throws IOException {
+        List<X509Certificate> certificates = CertificateValidator.readCertificates(path);
+        if (certificates.isEmpty()) {
+            throw new IOException("No certificate in " + path);
+        }
+        return certificates;
+    }
+
+    /**
+     * Stores a certificate as a PEM file, failing if the file already exists.
+     *
+     * <p>The file is written under a temporary name and then moved into place, so a concurrent
+     * {@link #load(Path, String)} never reads a partial file.</p>
+     *
+     * @param path        Path to the certificate file.
+     * @param certificate The certificate.
+     * @throws FileAlreadyExistsException If another process stored a certificate first.
+     * @throws IOException                If the file cannot be written.
+     */
+    private static void writeCertificate(Path path, X509Certificate certificate) throws IOException {
+        String pem;
+        try {
+            pem = "-----BEGIN CERTIFICATE-----\n"
+                    + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(certificate.getEncoded())
+                    + "\n-----END CERTIFICATE-----\n";
+        } catch (CertificateEncodingException e) {
+            throw new IOException("Cannot encode certificate " + certificate.getSubjectX500Principal(), e);
+        }
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temporary, pem, StandardCharsets.US_ASCII);
+            Files.move(temporary, path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Loads the private key from the encrypted key file and decrypts it using the PIN.
+     *
+     * <p>Decrypted keys are kept in the shared {@link KeyCache} until the key file changes
+     * or the key stays unused for the idle timeout.</p>
+     *
+     * @param keyPath Path to the encrypted key file.
+     * @param pin     PIN used to decrypt the key.
+     * @return The decrypted private key.
+     * @throws Exception If the key file cannot be read or the PIN does not decrypt it.
+     */
+    public static PrivateKey loadPrivateKey(Path keyPath, String pin) throws Exception {
+        return KeyCache.shared().privateKey(keyPath, pin, path -> decryptPrivateKey(path, pin));
+    }
+
+    /**
+     * Reads the encrypted key file and decrypts it using the PIN.
+     *
+     * <p>The AES key and the decrypted PKCS#8 encoding are cleared as soon as the key is parsed. The AES
+     * key is passed to the cipher without an intermediate {@link javax.crypto.spec.SecretKeySpec}, which
+     * would keep a copy of it that cannot be cleared.</p>
+     *
+     * @param path Path to the encrypted key file.
+     * @param pin  PIN used to decrypt the key.
+     * @return The decrypted private key.
+     * @throws Exception If the key file cannot be read or the PIN does not decrypt it.
+     */
+    private static PrivateKey decryptPrivateKey(Path path, String pin) throws Exception {
+        byte[] encryptedBytes = Pem.read(path);
+
+        MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        AesKey aesKey = new AesKey(sha.digest(pin.getBytes(StandardCharsets.UTF_8)));
+
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, aesKey);
+        } finally {
+            aesKey.destroy();
+        }
+
+        byte[] decryptedKey = cipher.doFinal(encryptedBytes);
+        try {
+            return SignatureProfile.decodePrivateKey(decryptedKey);
+        } finally {
+            Arrays.fill(decryptedKey, (byte) 0);
+        }
+    }
+
+    /**
+     * Gets the decrypted private key.
+     *
+     * @return The private key.
+     */
+    public PrivateKey privateKey() {
+        return identity.privateKey();
+    }
+
+    /**
+     * Gets the decrypted key and its certificates.
+     *
+     * @return The signing identity.
+     */
+    public SigningIdentity identity() {
+        return identity;
+    }
+
+    @Override
+    public X509Certificate certificate() {
+        return identity.certificate();
+    }
+
+    @Override
+    public List<X509Certificate> chain() {
+        return identity.chain();
+    }
+
+    @Override
+    public byte[] sign(String algorithm, byte[] data) throws Exception {
+        Signature signature = Signature.getInstance(algorithm);
+        signature.initSign(identity.privateKey());
+        signature.update(data);
+        return signature.sign();
+    }
+
+    /**
+     * AES key derived from the PIN that, unlike {@link javax.crypto.spec.SecretKeySpec}, can be destroyed.
+     *
+     * <p>The cipher copies the key when it is initialized, so the key is destroyed right after that.</p>
+     */
+    private static final class AesKey implements SecretKey {
+
+        private final byte[] key;
+
+        private boolean destroyed;
+
+        AesKey(byte[] key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "AES";
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            if (destroyed) {
+                throw new IllegalStateException("Key has been destroyed");
+            }
+            return key.clone();
+        }
+
+        @Override
+        public void destroy() {
+            Arrays.fill(key, (byte) 0);
+            destroyed = true;
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.developed_app.sign;
+
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.keys.SignatureProfile;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * The `KeyProvider` interface abstracts where the signing key lives and how the private key
+ * operation is performed, so `Sign` works the same with an encrypted key file and with a hardware token.
+ *
+ * <p>Implementations must be safe for concurrent use: batch signing calls {@link #sign(String, byte[])}
+ * from several worker threads at once.</p>
+ */
+public interface KeyProvider extends AutoCloseable {
+
+    /**
+     * Gets the certificate of the signer, embedded in the CMS container of PAdES signatures.
+     *
+     * @return The signer certificate.
+     */
+    X509Certificate certificate();
+
+    /**
+     * Gets the intermediate certificates between the signer certificate and its root, embedded next to
+     * the signer certificate so verifiers and the document security store can build its chain.
+     *
+     * @return The intermediate certificates, empty if the provider knows none.
+     */
+    default List<X509Certificate> chain() {
+        return List.of();
+    }
+
+    /**
+     * Gets the signature profile of the key, detected from the public key of the certificate.
+     *
+     * @return The signature profile.
+     * @throws IllegalArgumentException If the key is not supported.
+     */
+    default SignatureProfile profile() {
+        return SignatureProfile.of(certificate().getPublicKey());
+    }
+
+    /**
+     * Signs data with the private key.
+     *
+     * @param algorithm JCA name of the signature algorithm, usually the one of {@link #profile()}.
+     * @param data      The data to sign.
+     * @return The signature.
+     * @throws Exception If the private key operation fails.
+     */
+    byte[] sign(String algorithm, byte[] data) throws Exception;
+
+    /**
+     * Signs a digest computed beforehand, so the signed data never has to reach the key and is not hashed again.
+     *
+     * @param algorithm The algorithm that computed the digest.
+     * @param digest    The digest.
+     * @return The signature, identical to signing the original data with the profile's signature algorithm
+     * for that digest, except for Ed25519, which signs the digest itself.
+     * @throws Exception If the private key operation fails.
+     * @see SignatureProfile#encodeDigest(DigestAlgorithm, byte[])
+     */
+    default byte[] signDigest(DigestAlgorithm algorithm, byte[] digest) throws Exception {
+        SignatureProfile profile = profile();
+        return sign(profile.getDigestSignatureAlgorithm(), profile.encodeDigest(algorithm, digest));
+    }
+
+    /**
+     * Releases the key and any sessions held by the provider.
+     *
+     * @throws Exception If the provider cannot be closed cleanly.
+     */
+    @Override
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.developed_app.sign;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The `MountInfoMonitor` class waits for mount table changes on Linux by polling
+ * `/proc/self/mountinfo` for a priority event.
+ *
+ * <p>The kernel flags the file with `POLLPRI` whenever a file system is mounted or unmounted in the
+ * mount namespace of the process, also when a drive is mounted onto a directory that already exists,
+ * e.g. an fstab or udisks mount point, which creates no directory entry a `WatchService` could see.
+ * The `poll(2)` call is made through the foreign function API, since Java has no readiness API for
+ * regular files.</p>
+ */
+final class MountInfoMonitor implements AutoCloseable {
+
+    /**
+     * The watched mount table.
+     */
+    private static final Path MOUNT_INFO = Paths.get("/proc/self/mountinfo");
+
+    /**
+     * `poll(2)` event flag of a changed mount table.
+     */
+    private static final short POLLPRI = 0x002;
+
+    /**
+     * `poll(2)` result flag set together with {@link #POLLPRI} for a changed mount table.
+     */
+    private static final short POLLERR = 0x008;
+
+    /**
+     * `open(2)` flags: read only, closed on exec.
+     */
+    private static final int O_RDONLY_CLOEXEC = 0x80000;
+
+    /**
+     * Size of a `struct pollfd`: an `int` descriptor followed by the `short` requested and returned events.
+     */
+    private static final long POLLFD_SIZE = 8;
+
+    /**
+     * Memory holding the path and the `struct pollfd`.
+     */
+    private final Arena arena;
+
+    /**
+     * The `struct pollfd` of the mount table.
+     */
+    private final MemorySegment pollFd;
+
+    /**
+     * Descriptor of the opened mount table.
+     */
+    private final int fd;
+
+    private MountInfoMonitor(Arena arena, MemorySegment pollFd, int fd) {
+        this.arena = arena;
+        this.pollFd = pollFd;
+        this.fd = fd;
+    }
+
+    /**
+     * Opens the mount table of the process for monitoring.
+     *
+     * @return The monitor, or `null` if the system is not Linux or the mount table cannot be polled.
+     */
+    static MountInfoMonitor open() {
+        if (!System.getProperty("os.name", "").startsWith("Linux") || !Files.isReadable(MOUNT_INFO)) {
+            return null;
+        }
+        Arena arena = Arena.ofShared();
+        try {
+            int fd = (int) Libc.OPEN.invokeExact(arena.allocateFrom(MOUNT_INFO.toString()), O_RDONLY_CLOEXEC, 0);
+            if (fd >= 0) {
+                return new MountInfoMonitor(arena, arena.allocate(POLLFD_SIZE, 4), fd);
+            }
+        } catch (Throwable e) {
+            // No usable libc; the caller falls back to watching the mount directories.
+        }
+        arena.close();
+        return null;
+    }
+
+    /**
+     * Waits until the mount table changes or the timeout expires.
+     *
+     * @param timeoutMillis Maximum time to wait, in milliseconds.
+     * @return `true` if a file system was mounted or unmounted; `false` on timeout or interruption.
+     */
+    boolean await(int timeoutMillis) {
+        pollFd.set(ValueLayout.JAVA_INT, 0, fd);
+        pollFd.set(ValueLayout.JAVA_SHORT, 4, POLLPRI);
+        pollFd.set(ValueLayout.JAVA_SHORT, 6, (short) 0);
+        int ready;
+        try {
+            ready = (int) Libc.POLL.invokeExact(pollFd, 1L, timeoutMillis);
+        } catch (Throwable e) {
+            throw new IllegalStateException("poll(2) failed", e);
+        }
+        return ready > 0 && (pollFd.get(ValueLayout.JAVA_SHORT, 6) & (POLLPRI | POLLERR)) != 0;
+    }
+
+    /**
+     * Closes the mount table. Must not be called while another thread is waiting in {@link #await(int)}.
+     */
+    @Override
+    public void close() {
+        try {
+            int result = (int) Libc.CLOSE.invokeExact(fd);
+        } catch (Throwable e) {
+            // The descriptor is released with the process.
+        } finally {
+            arena.close();
+        }
+    }
+
+    /**
+     * Downcall handles of the used libc functions, resolved on first use.
+     */
+    private static final class Libc {
+
+        private static final Linker LINKER = Linker.nativeLinker();
+
+        private static final SymbolLookup LOOKUP = LINKER.defaultLookup();
+
+        static final MethodHandle OPEN = LINKER.downcallHandle(LOOKUP.find("open").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT),
+                Linker.Option.firstVariadicArg(2));
+
+        static final MethodHandle POLL = LINKER.downcallHandle(LOOKUP.find("poll").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT));
+
+        static final MethodHandle CLOSE = LINKER.downcallHandle(LOOKUP.find("close").orElseThrow(),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+
+        private Libc() {
+        }
+    }
+}
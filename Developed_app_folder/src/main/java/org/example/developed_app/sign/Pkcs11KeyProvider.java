@@ -0,0 +1,140 @@
+package org.example.developed_app.sign;
+
+import java.nio.file.Path;
+import java.security.AuthProvider;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Security;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The `Pkcs11KeyProvider` class signs with a key stored on a hardware token or HSM through the
+ * SunPKCS11 provider.
+ *
+ * <p>The token is logged in once when the provider is created. Signing operations then draw from a
+ * pool of at most `sessions` initialized `Signature` objects, each bound to its own token session,
+ * so concurrent documents neither log in again nor exceed the session limit of the token.</p>
+ *
+ * <p>For local testing the provider works against SoftHSM with a configuration such as:</p>
+ * <pre>
+ * name = SoftHSM
+ * library = /usr/lib/softhsm/libsofthsm2.so
+ * slot = 0
+ * </pre>
+ * <p>The token must hold the private key and its certificate under the same alias.</p>
+ */
+public class Pkcs11KeyProvider implements KeyProvider {
+
+    /**
+     * The configured SunPKCS11 provider instance.
+     */
+    private final Provider provider;
+
+    /**
+     * Handle to the private key on the token.
+     */
+    private final PrivateKey privateKey;
+
+    /**
+     * The signer certificate read from the token.
+     */
+    private final X509Certificate certificate;
+
+    /**
+     * Permits for concurrent signing operations, one per token session.
+     */
+    private final Semaphore sessions;
+
+    /**
+     * Idle `Signature` objects per algorithm.
+     */
+    private final Map<String, Queue<Signature>> idle = new ConcurrentHashMap<>();
+
+    /**
+     * Logs in to the token and looks up the signing key.
+     *
+     * @param configFile Path to the SunPKCS11 configuration file.
+     * @param pin        User PIN of the token.
+     * @param alias      Alias of the key and certificate on the token, or `null` to use the first key.
+     * @param sessions   Maximum number of concurrent signing sessions.
+     * @throws Exception If the token cannot be opened, the PIN is wrong or the key is missing.
+     */
+    public Pkcs11KeyProvider(Path configFile, char[] pin, String alias, int sessions) throws Exception {
+        if (sessions < 1) {
+            throw new IllegalArgumentException("Number of sessions must be positive: " + sessions);
+        }
+        Provider base = Security.getProvider("SunPKCS11");
+        if (base == null) {
+            throw new IllegalStateException("SunPKCS11 provider is not available");
+        }
+        this.provider = base.configure(configFile.toString());
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS11", provider);
+        keyStore.load(null, pin);
+
+        String keyAlias = alias != null ? alias : firstKeyAlias(keyStore);
+        this.privateKey = (PrivateKey) keyStore.getKey(keyAlias, null);
+        this.certificate = (X509Certificate) keyStore.getCertificate(keyAlias);
+        if (privateKey == null || certificate == null) {
+            throw new IllegalStateException("Token holds no private key with a certificate under alias " + keyAlias);
+        }
+        this.sessions = new Semaphore(sessions, true);
+    }
+
+    /**
+     * Finds the alias of the first private key on the token.
+     */
+    private static String firstKeyAlias(KeyStore keyStore) throws Exception {
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (keyStore.isKeyEntry(alias)) {
+                return alias;
+            }
+        }
+        throw new IllegalStateException("Token holds no private key");
+    }
+
+    @Override
+    public X509Certificate certificate() {
+        return certificate;
+    }
+
+    @Override
+    public byte[] sign(String algorithm, byte[] data) throws Exception {
+        sessions.acquire();
+        try {
+            Queue<Signature> pool = idle.computeIfAbsent(algorithm, key -> new ConcurrentLinkedQueue<>());
+            Signature signature = pool.poll();
+            if (signature == null) {
+                signature = Signature.getInstance(algorithm, provider);
+            }
+            signature.initSign(privateKey);
+            signature.update(data);
+            byte[] result = signature.sign();
+            pool.offer(signature);
+            return result;
+        } finally {
+            sessions.release();
+        }
+    }
+
+    /**
+     * Logs out of the token.
+     *
+     * @throws Exception If the logout fails.
+     */
+    @Override
+    public void close() throws Exception {
+        idle.clear();
+        if (provider instanceof AuthProvider authProvider) {
+            authProvider.logout();
+        }
+    }
+}
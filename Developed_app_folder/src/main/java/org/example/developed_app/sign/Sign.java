@@ -1,28 +1,57 @@
 package org.example.developed_app.sign;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.SignatureOptions;
+import org.example.developed_app.codec.Hex;
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.digest.MerkleDigest;
+import org.example.developed_app.digest.PageDigests;
+import org.example.developed_app.digest.StreamingDigest;
+import org.example.developed_app.jobs.Job;
+import org.example.developed_app.jobs.JobContext;
+import org.example.developed_app.jobs.JobRunner;
+import org.example.developed_app.jobs.ProgressListener;
+import org.example.developed_app.jobs.ProgressTextStripper;
+import org.example.developed_app.memory.MemoryPolicy;
+import org.example.developed_app.memory.MeteredDocument;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Timer;
+import org.example.developed_app.metrics.Trace;
+import org.example.developed_app.tsa.TimestampClient;
+import org.example.developed_app.validation.CertificateValidator;
+import org.example.developed_app.validation.DssDictionary;
 
-import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.KeyFactory;
-import java.security.MessageDigest;
 import java.security.PrivateKey;
-import java.security.Signature;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.util.Base64;
-import java.util.stream.Collectors;
+import java.util.Calendar;
 
 /**
- * The `Sign` class is responsible for signing PDF documents using an encrypted private key
- * and the SHA256withRSA algorithm.
+ * The `Sign` class is responsible for signing PDF documents using an encrypted private key,
+ * or any other {@link KeyProvider}, and the signature algorithm of the key's
+ * {@link org.example.developed_app.keys.SignatureProfile} (RSA, ECDSA or Ed25519). By default a PAdES signature is appended to the document
+ * as an incremental update.
  */
 public class Sign {
 
+    /**
+     * Space reserved for a timestamped CMS container, which also carries the token and the
+     * certificate of the timestamp authority.
+     */
+    private static final int TIMESTAMPED_SIGNATURE_SIZE = SignatureOptions.DEFAULT_SIGNATURE_SIZE * 2;
+
+    /**
+     * Logger receiving a structured record of every document signed from {@link #init()}.
+     */
+    private static final System.Logger LOGGER = System.getLogger(Sign.class.getName());
+
     /**
      * Flag indicating whether the USB drive has been recognized.
      */
@@ -43,74 +72,392 @@ public class Sign {
      */
     private String keyPath = "";
 
+    /**
+     * Selects which data of the document is hashed before signing.
+     */
+    private DigestMode digestMode = DigestMode.PADES;
+
+    /**
+     * Hash function of the digest stage, or `null` to use the default digest of the key's profile.
+     */
+    private DigestAlgorithm digestAlgorithm;
+
+    /**
+     * Provider of the signing key used instead of the key file, or `null` to use the key file.
+     */
+    private KeyProvider keyProvider;
+
+    /**
+     * Decides how much of the loaded document may be buffered on the heap.
+     */
+    private MemoryPolicy memoryPolicy = MemoryPolicy.defaultPolicy();
+
+    /**
+     * Client of the timestamp authority, or `null` for PAdES signatures without a trusted time.
+     */
+    private TimestampClient timestampClient;
+
+    /**
+     * Collects the validation data embedded into PAdES signatures, or `null` to embed none.
+     */
+    private CertificateValidator certificateValidator;
+
+    /**
+     * Registry receiving the stage times of every signed document.
+     */
+    private MetricsRegistry metricsRegistry = MetricsRegistry.shared();
+
+    /**
+     * Directory receiving the signed copies, or `null` to write them next to the originals.
+     */
+    private Path outputDirectory;
+
+    /**
+     * Size of the chunks hashed in parallel in {@link DigestMode#MERKLE} mode.
+     */
+    private int merkleChunkSize = MerkleDigest.DEFAULT_CHUNK_SIZE;
+
     /**
      * Converts a byte array to a hexadecimal string.
      *
      * @param bytes The byte array to convert.
      * @return Hexadecimal representation of the bytes.
+     * @see Hex#encode(byte[])
      */
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) hexString.append('0');
-            hexString.append(hex);
-        }
-        return hexString.toString();
+    public static String bytesToHex(byte[] bytes) {
+        return Hex.encode(bytes);
     }
 
     /**
      * Initializes the process of signing a PDF document.
      *
-     * <p>Loads the private key from an encrypted file, decrypts it using the PIN,
-     * calculates the hash of the PDF content, signs it, and saves the signature
-     * in the PDF metadata.</p>
+     * <p>Loads the signing key, by default from an encrypted file decrypted with the PIN, and signs
+     * the document in the selected {@link DigestMode}. A PAdES signature, the default, is appended as an
+     * incremental update holding a signature dictionary with a detached CMS container; the other modes
+     * store the signature in the PDF metadata. See {@link #signDocument(KeyProvider, Path, JobContext)}.</p>
      *
      * @throws Exception If an error occurs during decryption, signing, or saving the document.
      */
     public void init() throws Exception {
-        String base64 = Files.lines(Paths.get(keyPath))
-                .filter(line -> !line.contains("BEGIN") && !line.contains("END"))
-                .collect(Collectors.joining());
+        Path signedPath = signDocument(loadKeyProvider(), Paths.get(documentPath));
+        LOGGER.log(System.Logger.Level.INFO, "operation=sign document={0} status=signed output={1}",
+                documentPath, signedPath.getFileName());
+    }
+
+    /**
+     * Loads the private key from the encrypted key file and decrypts it using the PIN.
+     *
+     * @return The decrypted private key.
+     * @throws Exception If the key file cannot be read or the PIN does not decrypt it.
+     * @see FileKeyProvider#loadPrivateKey(Path, String)
+     */
+    public PrivateKey loadPrivateKey() throws Exception {
+        return FileKeyProvider.loadPrivateKey(Paths.get(keyPath), pin);
+    }
+
+    /**
+     * Gets the provider of the signing key.
+     *
+     * <p>Returns the provider set with {@link #setKeyProvider(KeyProvider)}, e.g. a hardware token,
+     * or otherwise decrypts the key file with the PIN. The returned provider can be reused for any number
+     * of {@link #signDocument(KeyProvider, Path)} calls, so batch callers only pay for unlocking the key once.</p>
+     *
+     * @return The key provider.
+     * @throws Exception If the key cannot be decrypted or the certificate cannot be created.
+     */
+    public KeyProvider loadKeyProvider() throws Exception {
+        if (keyProvider != null) {
+            return keyProvider;
+        }
+        try (Timer.Sample sample = metricsRegistry.timer("sign", Stage.KEY_LOAD).start()) {
+            return FileKeyProvider.load(Paths.get(keyPath), pin);
+        }
+    }
 
-        byte[] encryptedBytes = Base64.getDecoder().decode(base64);
+    /**
+     * Starts signing the selected document on a job runner instead of the calling thread.
+     *
+     * <p>The document path, key path, PIN and digest mode are captured when the job is submitted,
+     * so the caller may select the next document while the job is queued or running.</p>
+     *
+     * @param runner   The job runner.
+     * @param listener Listener receiving progress updates on the job thread.
+     * @return Handle to the job, completed with the path to the signed copy.
+     */
+    public Job<Path> initAsync(JobRunner runner, ProgressListener listener) {
+        Sign snapshot = new Sign();
+        snapshot.setKeyPath(keyPath);
+        snapshot.setPin(pin);
+        snapshot.setDocumentPath(documentPath);
+        snapshot.setDigestMode(digestMode);
+        snapshot.setDigestAlgorithm(digestAlgorithm);
+        snapshot.setKeyProvider(keyProvider);
+        snapshot.setMemoryPolicy(memoryPolicy);
+        snapshot.setTimestampClient(timestampClient);
+        snapshot.setCertificateValidator(certificateValidator);
+        snapshot.setMetricsRegistry(metricsRegistry);
+        snapshot.setOutputDirectory(outputDirectory);
+        snapshot.setMerkleChunkSize(merkleChunkSize);
 
-        MessageDigest sha = MessageDigest.getInstance("SHA-256");
-        byte[] key = sha.digest(pin.getBytes(StandardCharsets.UTF_8));
-        SecretKeySpec aesKey = new SecretKeySpec(key, "AES");
+        return runner.submit(context -> snapshot.signDocument(snapshot.loadKeyProvider(),
+                Paths.get(snapshot.getDocumentPath()), context), listener);
+    }
 
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-        cipher.init(Cipher.DECRYPT_MODE, aesKey);
+    /**
+     * Signs a single PDF document with an already decrypted private key.
+     *
+     * @param keyProvider  The provider of the signing key.
+     * @param originalPath Path to the PDF document to sign.
+     * @return Path to the signed copy of the document.
+     * @throws Exception If an error occurs during signing or saving the document.
+     * @see #signDocument(KeyProvider, Path, JobContext)
+     */
+    public Path signDocument(KeyProvider keyProvider, Path originalPath) throws Exception {
+        return signDocument(keyProvider, originalPath, JobContext.NONE);
+    }
 
-        byte[] decryptedKey = cipher.doFinal(encryptedBytes);
+    /**
+     * Signs a single PDF document with an already decrypted private key.
+     *
+     * <p>Writes a `&lt;name&gt;_signed.pdf` copy into the output directory, by default next to the
+     * original. The copy is written by a {@link SignedOutput}: the original bytes are copied by the
+     * operating system, the new revision is appended, and the file is synced and atomically renamed
+     * into place, so the target is either the previous file or the complete signed copy. The method
+     * keeps no state between calls and may be invoked concurrently for different documents.</p>
+     *
+     * <p>In {@link DigestMode#PADES} mode a signature dictionary with a `/ByteRange` and a detached
+     * CMS container is appended as an incremental update, so only the signature section is written
+     * after the original bytes. In {@link DigestMode#TEXT} mode the hash of the extracted text is
+     * signed and stored in the document metadata, also as an incremental update, together with a
+     * {@link PageDigests} table that lets verification locate modified pages without extracting the text.
+     * The table is signed separately (`PageDigestsSignature`), bound to the text signature.</p>
+     *
+     * <p>Signing an already signed document adds another signature and leaves the earlier revisions
+     * byte for byte intact, so approval workflows with several signers keep every signature valid.
+     * A new PAdES signature covers the earlier ones, acting as their counter-signature; further
+     * metadata signatures are stored under numbered entries, see {@link #metadataKey(String, int)}.
+     * PAdES and metadata signatures cannot be mixed on one document, and a text signature cannot follow
+     * a signature over the raw bytes; such requests fail before anything is written.</p>
+     *
+     * <p>In {@link DigestMode#BYTES} mode the original file is hashed straight from disk and the
+     * signature is appended as an incremental update, so the document text is never extracted
+     * and the signed bytes stay untouched. {@link DigestMode#MERKLE} mode works the same way, but hashes
+     * the file as a Merkle tree of memory-mapped chunks on all cores and records the chunk size in a
+     * `MerkleChunkSize` entry and the tree layout in a `MerkleTree` entry, so it suits archive documents
+     * of several gigabytes.</p>
+     *
+     * <p>The content is hashed once with the selected {@link DigestAlgorithm} and the key provider signs
+     * that digest without hashing it again. The metadata signatures record the algorithm in a
+     * `DigestAlgorithm` entry. The document is loaded according to the {@link MemoryPolicy} of this object.</p>
+     *
+     * <p>If a {@link TimestampClient} is set, PAdES signatures are timestamped (PAdES-B-T). Metadata
+     * signatures are never timestamped. If a {@link CertificateValidator} is set, the chain of the signer
+     * certificate and its CRLs or OCSP responses are written to the document security store in the
+     * same incremental update as the signature, so the signature can be validated offline.</p>
+     *
+     * <p>The time spent loading, hashing, signing, timestamping and saving, and the bytes read and
+     * written, are recorded as a {@link Trace} in the {@link MetricsRegistry} of this object.</p>
+     *
+     * @param keyProvider  The provider of the signing key.
+     * @param originalPath Path to the PDF document to sign.
+     * @param context      Context receiving the progress and signalling cancellation.
+     * @return Path to the signed copy of the document.
+     * @throws IllegalArgumentException If the document is already signed in an incompatible mode.
+     * @throws Exception                If an error occurs during signing or saving the document.
+     */
+    public Path signDocument(KeyProvider keyProvider, Path originalPath, JobContext context) throws Exception {
+        Path signedPath = signedPathOf(originalPath);
+        DigestAlgorithm algorithm = digestAlgorithm != null ? digestAlgorithm : keyProvider.profile().getDefaultDigest();
 
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(decryptedKey);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        PrivateKey privateKey = kf.generatePrivate(keySpec);
+        try (Trace trace = metricsRegistry.trace("sign", originalPath)) {
+            trace.bytesIn(Files.size(originalPath));
+            writeSignedCopy(keyProvider, originalPath, signedPath, algorithm, context, trace);
+            trace.bytesOut(Files.size(signedPath));
+            trace.outcome("SIGNED");
+        }
+        return signedPath;
+    }
 
-        Path originalPath = Paths.get(documentPath);
+    /**
+     * Gets the path the signed copy of a document is written to.
+     *
+     * @param originalPath Path to the PDF document.
+     * @return Path to `&lt;name&gt;_signed.pdf` in the output directory, by default next to the original.
+     */
+    public Path signedPathOf(Path originalPath) {
         String fileName = originalPath.getFileName().toString().replace(".pdf", "");
-        Path signedPath = originalPath.resolveSibling(fileName + "_signed.pdf");
+        return (outputDirectory != null ? outputDirectory : originalPath.toAbsolutePath().getParent())
+                .resolve(fileName + "_signed.pdf");
+    }
+
+    /**
+     * Writes the signed copy of a document in the selected digest mode, measuring every stage.
+     *
+     * @param keyProvider  The provider of the signing key.
+     * @param originalPath Path to the PDF document to sign.
+     * @param signedPath   Path to the signed copy.
+     * @param algorithm    Hash function of the digest stage.
+     * @param context      Context receiving the progress and signalling cancellation.
+     * @param trace        Trace receiving the stage times.
+     * @throws Exception If an error occurs during signing or saving the document.
+     */
+    private void writeSignedCopy(KeyProvider keyProvider, Path originalPath, Path signedPath, DigestAlgorithm algorithm,
+                                 JobContext context, Trace trace) throws Exception {
+        if (digestMode == DigestMode.PADES) {
+            try (MeteredDocument loaded = trace.time(Stage.LOAD, () -> memoryPolicy.load(originalPath));
+                 SignedOutput output = new SignedOutput(originalPath, signedPath)) {
+                PDDocument document = loaded.document();
+                checkSignatureChain(document);
+                context.documentLoaded(document.getNumberOfPages());
+                PDSignature signature = new PDSignature();
+                signature.setFilter(PDSignature.FILTER_ADOBE_PPKLITE);
+                signature.setSubFilter(PDSignature.SUBFILTER_ETSI_CADES_DETACHED);
+                signature.setSignDate(Calendar.getInstance());
+
+                if (certificateValidator != null) {
+                    try (Trace.Span span = trace.stage(Stage.VALIDATION)) {
+                        DssDictionary.write(document, certificateValidator.collect(keyProvider.certificate(), keyProvider.chain()));
+                    }
+                }
+                try (SignatureOptions options = new SignatureOptions();
+                     Trace.Span span = trace.stage(Stage.SAVE)) {
+                    if (timestampClient != null) {
+                        options.setPreferredSignatureSize(TIMESTAMPED_SIGNATURE_SIZE);
+                    }
+                    document.addSignature(signature, new CmsSignature(keyProvider, algorithm, timestampClient, trace), options);
+                    document.saveIncremental(context.track(output.incrementalStream()));
+                    output.commit();
+                }
+                loaded.sample();
+            }
+            return;
+        }
+
+        if (digestMode == DigestMode.BYTES || digestMode == DigestMode.MERKLE) {
+            boolean merkle = digestMode == DigestMode.MERKLE;
+            int chunkSize = merkleChunkSize;
+            long signedLength = Files.size(originalPath);
+            byte[] hash = trace.time(Stage.DIGEST, () -> merkle
+                    ? MerkleDigest.digest(originalPath, signedLength, algorithm, chunkSize)
+                    : StreamingDigest.digest(originalPath, 0, signedLength, algorithm.getJcaName()));
+
+            try (MeteredDocument loaded = trace.time(Stage.LOAD, () -> memoryPolicy.load(originalPath));
+                 SignedOutput output = new SignedOutput(originalPath, signedPath)) {
+                PDDocument document = loaded.document();
+                checkSignatureChain(document);
+                context.documentLoaded(document.getNumberOfPages());
+                byte[] signatureValue = trace.time(Stage.CRYPTO, () -> keyProvider.signDigest(algorithm, hash));
+                PDDocumentInformation info = document.getDocumentInformation();
+                int index = nextSignatureIndex(info);
+                info.setCustomMetadataValue(metadataKey("Signature", index), bytesToHex(signatureValue));
+                info.setCustomMetadataValue(metadataKey("DigestAlgorithm", index), algorithm.getJcaName());
+                info.setCustomMetadataValue(metadataKey("SignedLength", index), Long.toString(signedLength));
+                if (merkle) {
+                    info.setCustomMetadataValue(metadataKey("MerkleTree", index), MerkleDigest.TREE);
+                    info.setCustomMetadataValue(metadataKey("MerkleChunkSize", index), Integer.toString(chunkSize));
+                }
+                info.getCOSObject().setNeedToBeUpdated(true);
 
-        PDDocument document = PDDocument.load(originalPath.toFile());
+                try (Trace.Span span = trace.stage(Stage.SAVE)) {
+                    document.saveIncremental(context.track(output.incrementalStream()));
+                    output.commit();
+                }
+            }
+            return;
+        }
 
-        PDFTextStripper stripper = new PDFTextStripper();
-        String extractedText = stripper.getText(document);
-        byte[] hash = sha.digest(extractedText.getBytes(StandardCharsets.UTF_8));
+        try (MeteredDocument loaded = trace.time(Stage.LOAD, () -> memoryPolicy.load(originalPath))) {
+            PDDocument document = loaded.document();
+            checkSignatureChain(document);
+            context.documentLoaded(document.getNumberOfPages());
+            byte[] hash;
+            byte[] pageDigests;
+            try (Trace.Span span = trace.stage(Stage.DIGEST)) {
+                ProgressTextStripper stripper = new ProgressTextStripper(context);
+                String extractedText = stripper.getText(document);
+                loaded.sample();
+                hash = algorithm.newDigest().digest(extractedText.getBytes(StandardCharsets.UTF_8));
+                pageDigests = PageDigests.compute(document, algorithm);
+            }
 
-        Signature signature = Signature.getInstance("SHA256withRSA");
-        signature.initSign(privateKey);
-        signature.update(hash);
-        byte[] digitalSignature = signature.sign();
-        String signatureHex = bytesToHex(digitalSignature);
+            byte[] signatureValue = trace.time(Stage.CRYPTO, () -> keyProvider.signDigest(algorithm, hash));
+            byte[] pageDigestsSignature = trace.time(Stage.CRYPTO, () -> keyProvider.signDigest(algorithm,
+                    PageDigests.signedDigest(algorithm, signatureValue, pageDigests)));
+            PDDocumentInformation info = document.getDocumentInformation();
+            int index = nextSignatureIndex(info);
+            info.setCustomMetadataValue(metadataKey("Signature", index), bytesToHex(signatureValue));
+            info.setCustomMetadataValue(metadataKey("DigestAlgorithm", index), algorithm.getJcaName());
+            info.setCustomMetadataValue(metadataKey("PageDigestsSignature", index), bytesToHex(pageDigestsSignature));
+            PageDigests.write(document, info, metadataKey("PageDigests", index), pageDigests, document.getNumberOfPages());
+            info.getCOSObject().setNeedToBeUpdated(true);
 
-        document.getDocumentInformation().setCustomMetadataValue("Signature", signatureHex);
+            try (Trace.Span span = trace.stage(Stage.SAVE);
+                 SignedOutput output = new SignedOutput(originalPath, signedPath)) {
+                document.saveIncremental(context.track(output.incrementalStream()));
+                output.commit();
+            }
+        }
+    }
 
-        document.save(signedPath.toFile());
-        document.close();
+    /**
+     * Gets the name of a metadata entry of the signature with the given index.
+     *
+     * <p>The first signature uses the plain names (`Signature`, `DigestAlgorithm`, `SignedLength`), so
+     * documents signed once stay readable by earlier versions; later signatures append their index,
+     * e.g. `Signature2`.</p>
+     *
+     * @param entry Name of the entry for the first signature.
+     * @param index Index of the signature, starting at 1.
+     * @return The entry name.
+     */
+    public static String metadataKey(String entry, int index) {
+        return index == 1 ? entry : entry + index;
+    }
 
-        System.out.println("Podpisany PDF zapisano jako: " + signedPath.getFileName());
-        System.out.println("Podpis (hex): " + signatureHex);
+    /**
+     * Finds the index of the next metadata signature of a document.
+     *
+     * @param info The document information dictionary.
+     * @return One more than the number of metadata signatures the document already carries.
+     */
+    private static int nextSignatureIndex(PDDocumentInformation info) {
+        int index = 1;
+        while (info.getCustomMetadataValue(metadataKey("Signature", index)) != null) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks that the selected digest mode can be added to the signatures a document already carries.
+     *
+     * <p>PAdES signatures and metadata signatures cannot be mixed: the verifier checks only the PAdES
+     * signatures of a document that has any. A text signature cannot follow a signature over the raw bytes,
+     * because it does not record the signed length that bounds the revision of the earlier signature.</p>
+     *
+     * @param document The document to sign.
+     * @throws IllegalArgumentException If the document is already signed in an incompatible mode.
+     */
+    private void checkSignatureChain(PDDocument document) throws IOException {
+        PDDocumentInformation info = document.getDocumentInformation();
+        int signatures = nextSignatureIndex(info) - 1;
+        if (!document.getSignatureDictionaries().isEmpty()) {
+            if (digestMode != DigestMode.PADES) {
+                throw new IllegalArgumentException("Document already carries a PAdES signature; sign it in PADES mode, not "
+                        + digestMode);
+            }
+        } else if (signatures > 0 && digestMode == DigestMode.PADES) {
+            throw new IllegalArgumentException("Document already carries a metadata signature; sign it in TEXT, BYTES"
+                    + " or MERKLE mode, not PADES");
+        }
+        if (digestMode == DigestMode.TEXT) {
+            for (int index = 1; index <= signatures; index++) {
+                if (info.getCustomMetadataValue(metadataKey("SignedLength", index)) != null) {
+                    throw new IllegalArgumentException("Document already carries a signature over the raw bytes;"
+                            + " sign it in BYTES or MERKLE mode, not TEXT");
+                }
+            }
+        }
     }
 
     /**
@@ -175,4 +522,168 @@ public class Sign {
     public void setKeyPath(String keyPath) {
         this.keyPath = keyPath;
     }
+
+    /**
+     * Gets the mode selecting which data of the document is hashed.
+     *
+     * @return The digest mode.
+     */
+    public DigestMode getDigestMode() {
+        return digestMode;
+    }
+
+    /**
+     * Sets the mode selecting which data of the document is hashed.
+     *
+     * @param digestMode The digest mode.
+     */
+    public void setDigestMode(DigestMode digestMode) {
+        this.digestMode = digestMode;
+    }
+
+    /**
+     * Gets the provider of the signing key used instead of the key file.
+     *
+     * @return The key provider, or `null` if the key file is used.
+     */
+    public KeyProvider getKeyProvider() {
+        return keyProvider;
+    }
+
+    /**
+     * Sets the provider of the signing key used instead of the key file, e.g. a hardware token.
+     *
+     * @param keyProvider The key provider, or `null` to use the key file.
+     */
+    public void setKeyProvider(KeyProvider keyProvider) {
+        this.keyProvider = keyProvider;
+    }
+
+    /**
+     * Gets the memory policy used to load documents.
+     *
+     * @return The memory policy.
+     */
+    public MemoryPolicy getMemoryPolicy() {
+        return memoryPolicy;
+    }
+
+    /**
+     * Sets the memory policy used to load documents.
+     *
+     * @param memoryPolicy The memory policy.
+     */
+    public void setMemoryPolicy(MemoryPolicy memoryPolicy) {
+        this.memoryPolicy = memoryPolicy;
+    }
+
+    /**
+     * Gets the hash function of the digest stage.
+     *
+     * @return The digest algorithm, or `null` if the default digest of the key's profile is used.
+     */
+    public DigestAlgorithm getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    /**
+     * Sets the hash function of the digest stage.
+     *
+     * @param digestAlgorithm The digest algorithm, or `null` to use the default digest of the key's profile.
+     */
+    public void setDigestAlgorithm(DigestAlgorithm digestAlgorithm) {
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    /**
+     * Gets the client of the timestamp authority.
+     *
+     * @return The timestamp client, or `null` if signatures are not timestamped.
+     */
+    public TimestampClient getTimestampClient() {
+        return timestampClient;
+    }
+
+    /**
+     * Sets the client of the timestamp authority used for PAdES signatures.
+     *
+     * @param timestampClient The timestamp client, or `null` for signatures without a trusted time.
+     */
+    public void setTimestampClient(TimestampClient timestampClient) {
+        this.timestampClient = timestampClient;
+    }
+
+    /**
+     * Gets the validator collecting the validation data of PAdES signatures.
+     *
+     * @return The certificate validator, or `null` if no validation data is embedded.
+     */
+    public CertificateValidator getCertificateValidator() {
+        return certificateValidator;
+    }
+
+    /**
+     * Sets the validator collecting the validation data of PAdES signatures.
+     *
+     * @param certificateValidator The certificate validator, or `null` to embed no validation data.
+     */
+    public void setCertificateValidator(CertificateValidator certificateValidator) {
+        this.certificateValidator = certificateValidator;
+    }
+
+    /**
+     * Gets the registry receiving the stage times of signed documents.
+     *
+     * @return The metrics registry.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Sets the registry receiving the stage times of signed documents.
+     *
+     * @param metricsRegistry The metrics registry.
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Gets the directory receiving the signed copies.
+     *
+     * @return The output directory, or `null` if copies are written next to the originals.
+     */
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Sets the directory receiving the signed copies. It is created when the first copy is written.
+     *
+     * @param outputDirectory The output directory, or `null` to write copies next to the originals.
+     */
+    public void setOutputDirectory(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Gets the size of the chunks hashed in parallel in {@link DigestMode#MERKLE} mode.
+     *
+     * @return The chunk size in bytes.
+     */
+    public int getMerkleChunkSize() {
+        return merkleChunkSize;
+    }
+
+    /**
+     * Sets the size of the chunks hashed in parallel in {@link DigestMode#MERKLE} mode. Smaller chunks
+     * spread smaller documents over more cores; larger chunks need fewer tree nodes.
+     *
+     * @param merkleChunkSize The chunk size in bytes, at least {@link MerkleDigest#MIN_CHUNK_SIZE}.
+     */
+    public void setMerkleChunkSize(int merkleChunkSize) {
+        MerkleDigest.checkChunkSize(merkleChunkSize);
+        this.merkleChunkSize = merkleChunkSize;
+    }
 }
@@ -0,0 +1,23 @@
+package org.example.developed_app.sign;
+
+import java.nio.file.Path;
+
+/**
+ * The `SignResult` record describes the outcome of signing a single document in a batch.
+ *
+ * @param document       Path to the source PDF document.
+ * @param signedDocument Path to the signed copy, or `null` if signing failed.
+ * @param error          Description of the failure, or `null` if signing succeeded.
+ * @param durationMillis Time spent signing the document, in milliseconds.
+ */
+public record SignResult(Path document, Path signedDocument, String error, long durationMillis) {
+
+    /**
+     * Checks whether the document was signed successfully.
+     *
+     * @return `true` if the signed copy was written, `false` otherwise.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.developed_app.sign;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `SignedOutput` class writes the signed copy of a document that is saved as an incremental update.
+ *
+ * <p>An incremental save starts by copying the loaded original unchanged and then appends the new
+ * revision. Instead of streaming the original through the heap, the original file is copied with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the
+ * operating system copy it without passing it through user space, and the copy written by PDFBox is
+ * skipped. Only the appended revision is collected in a direct buffer and written to the channel.</p>
+ *
+ * <p>The copy is written to a hidden temporary file next to the target, forced to the storage device
+ * and then atomically renamed to the target, so a crash never leaves a half-written signed document
+ * behind. A copy that is closed without {@link #commit()} is deleted.</p>
+ */
+public final class SignedOutput implements Closeable {
+
+    /**
+     * Size of the direct buffers collecting the appended revision.
+     */
+    public static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Largest number of direct buffers kept for reuse.
+     */
+    private static final int MAX_POOLED_BUFFERS = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Direct buffers kept for reuse; allocating them is much slower than allocating heap buffers.
+     */
+    private static final Queue<ByteBuffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of buffers in {@link #BUFFERS}.
+     */
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    /**
+     * Path the copy is renamed to on commit.
+     */
+    private final Path target;
+
+    /**
+     * Temporary file receiving the copy.
+     */
+    private final Path temporary;
+
+    /**
+     * Channel writing the temporary file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Length of the original file, copied before the appended revision.
+     */
+    private final long originalLength;
+
+    /**
+     * Buffer collecting the appended revision, or `null` once it was returned to the pool.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Number of bytes written by PDFBox so far, including the skipped copy of the original.
+     */
+    private long written;
+
+    private boolean committed;
+
+    /**
+     * Creates the temporary file and copies the original into it.
+     *
+     * @param original Path to the original document.
+     * @param target   Path to the signed copy; its directory is created if needed.
+     * @throws IOException If the temporary file cannot be created or the original cannot be copied.
+     */
+    public SignedOutput(Path original, Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        Path directory = Files.createDirectories(this.target.getParent());
+        this.temporary = directory.resolve("." + this.target.getFileName() + "."
+                + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt()) + ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try (FileChannel source = FileChannel.open(original, StandardOpenOption.READ)) {
+            this.originalLength = source.size();
+            long position = 0;
+            while (position < originalLength) {
+                position += source.transferTo(position, originalLength - position, channel);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        this.buffer = acquireBuffer();
+    }
+
+    /**
+     * Gets the stream passed to the incremental save of PDFBox.
+     *
+     * <p>The first bytes written, the copy of the original, are skipped; the rest is appended to the
+     * file. Closing the stream flushes it but keeps the output open for {@link #commit()}.</p>
+     *
+     * @return The stream.
+     */
+    public OutputStream incrementalStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                long skip = Math.max(0, Math.min(len, originalLength - written));
+                written += len;
+                append(b, off + (int) skip, len - (int) skip);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                SignedOutput.this.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                SignedOutput.this.flush();
+            }
+        };
+    }
+
+    /**
+     * Appends bytes after the original through the direct buffer.
+     */
+    private void append(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Forces the copy to the storage device and atomically renames it to the target, replacing an
+     * existing file.
+     *
+     * @return Path to the signed copy.
+     * @throws IOException If nothing but the original was written, or the copy cannot be written or renamed.
+     */
+    public Path commit() throws IOException {
+        if (written <= originalLength) {
+            throw new IOException("The incremental save did not append a revision to " + target.getFileName());
+        }
+        flush();
+        channel.force(true);
+        channel.close();
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+        syncDirectory(target.getParent());
+        return target;
+    }
+
+    /**
+     * Releases the buffer and deletes the temporary file if the copy was not committed.
+     *
+     * @throws IOException If the temporary file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            releaseBuffer(buffer);
+            buffer = null;
+        }
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Forces the directory entry of the renamed file to the storage device, where the platform allows
+     * opening directories.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on this platform; the rename itself is still atomic.
+        }
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer pooled = BUFFERS.poll();
+        if (pooled != null) {
+            POOLED.decrementAndGet();
+            return pooled.clear();
+        }
+        return ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (POOLED.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFERS.offer(buffer);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.developed_app.sign;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.util.PrivateKeyFactory;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.example.developed_app.keys.SignatureProfile;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The `SigningIdentity` record pairs a private key with the certificates embedded in the
+ * CMS container of a PAdES signature.
+ *
+ * @param privateKey  The private key used for signing.
+ * @param certificate The certificate identifying the signer.
+ * @param chain       The intermediate certificates between the signer certificate and its root.
+ */
+public record SigningIdentity(PrivateKey privateKey, X509Certificate certificate, List<X509Certificate> chain) {
+
+    /**
+     * Distinguished name used for self-signed certificates.
+     */
+    private static final String SUBJECT = "CN=PAdES Qualified Electronic Signature";
+
+    /**
+     * Creates an identity without intermediate certificates.
+     *
+     * @param privateKey  The private key used for signing.
+     * @param certificate The certificate identifying the signer.
+     */
+    public SigningIdentity(PrivateKey privateKey, X509Certificate certificate) {
+        this(privateKey, certificate, List.of());
+    }
+
+    /**
+     * Creates an identity with a self-signed certificate for a key that has no certificate of its own.
+     *
+     * <p>The key files produced by the key generator contain only the bare private key, so the public key
+     * is derived from it. The certificate is signed with the algorithm of the key's {@link SignatureProfile}.</p>
+     *
+     * @param privateKey The RSA, EC or Ed25519 private key.
+     * @return The signing identity.
+     * @throws Exception If the public key cannot be derived or the certificate cannot be created.
+     */
+    public static SigningIdentity selfSigned(PrivateKey privateKey) throws Exception {
+        SignatureProfile profile = SignatureProfile.of(privateKey);
+        PublicKey publicKey = derivePublicKey(privateKey, profile);
+
+        X500Name subject = new X500Name(SUBJECT);
+        Instant now = Instant.now();
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(subject,
+                BigInteger.valueOf(now.toEpochMilli()),
+                Date.from(now.minus(1, ChronoUnit.DAYS)),
+                Date.from(now.plus(3650, ChronoUnit.DAYS)),
+                subject, publicKey);
+
+        ContentSigner signer = new JcaContentSignerBuilder(profile.getSignatureAlgorithm()).build(privateKey);
+        X509Certificate certificate = new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+        return new SigningIdentity(privateKey, certificate);
+    }
+
+    /**
+     * Creates an identity from a private key and the certificate chain issued for it.
+     *
+     * @param privateKey   The RSA, EC or Ed25519 private key.
+     * @param certificates The certificate holding the public key of the private key, followed by its
+     *                     intermediate certificates.
+     * @return The signing identity.
+     * @throws IllegalArgumentException If there is no certificate or the first one holds another public key.
+     * @throws Exception                If the public key cannot be derived.
+     */
+    public static SigningIdentity of(PrivateKey privateKey, List<X509Certificate> certificates) throws Exception {
+        if (certificates.isEmpty()) {
+            throw new IllegalArgumentException("No certificate for the private key");
+        }
+        X509Certificate certificate = certificates.get(0);
+        PublicKey publicKey = derivePublicKey(privateKey, SignatureProfile.of(privateKey));
+        if (!Arrays.equals(publicKey.getEncoded(), certificate.getPublicKey().getEncoded())) {
+            throw new IllegalArgumentException("Certificate " + certificate.getSubjectX500Principal()
+                    + " does not belong to the private key");
+        }
+        return new SigningIdentity(privateKey, certificate, List.copyOf(certificates.subList(1, certificates.size())));
+    }
+
+    /**
+     * Checks whether the signer certificate is self-signed, so it chains to no trusted root but itself.
+     *
+     * @return `true` if the certificate is its own issuer.
+     */
+    public boolean isSelfSigned() {
+        return certificate.getSubjectX500Principal().equals(certificate.getIssuerX500Principal());
+    }
+
+    /**
+     * Derives the public key belonging to a private key.
+     *
+     * <p>RSA keys carry the public exponent in their CRT parameters. For EC keys the public point is
+     * the generator multiplied by the private scalar, and Ed25519 public keys are computed from the seed.</p>
+     *
+     * @param privateKey The private key.
+     * @param profile    The profile of the private key.
+     * @return The public key.
+     * @throws Exception If the public key cannot be derived.
+     */
+    private static PublicKey derivePublicKey(PrivateKey privateKey, SignatureProfile profile) throws Exception {
+        if (privateKey instanceof RSAPrivateCrtKey crtKey) {
+            return KeyFactory.getInstance("RSA")
+                    .generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        }
+
+        AsymmetricKeyParameter publicParameters;
+        AsymmetricKeyParameter privateParameters = PrivateKeyFactory.createKey(privateKey.getEncoded());
+        if (privateParameters instanceof ECPrivateKeyParameters ecKey) {
+            ECDomainParameters domain = ecKey.getParameters();
+            publicParameters = new ECPublicKeyParameters(domain.getG().multiply(ecKey.getD()).normalize(), domain);
+        } else if (privateParameters instanceof Ed25519PrivateKeyParameters edKey) {
+            publicParameters = edKey.generatePublicKey();
+        } else {
+            throw new IllegalArgumentException("Cannot derive the public key from " + privateKey.getAlgorithm() + " key");
+        }
+
+        byte[] encoded = SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(publicParameters).getEncoded();
+        return KeyFactory.getInstance(profile.getKeyAlgorithm()).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+}
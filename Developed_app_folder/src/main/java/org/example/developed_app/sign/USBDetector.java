@@ -2,22 +2,67 @@ package org.example.developed_app.sign;
 
 import javafx.application.Platform;
 import org.example.developed_app.HelloController;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Timer;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileStore;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-
-import static java.lang.Thread.sleep;
-import static org.example.developed_app.HelloController.signed;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The `USBDetector` class implements `Runnable` and is responsible for monitoring the file system
  * to detect the connection of a USB drive containing an encrypted private key file (`private.enc`).
+ *
+ * <p>On systems that mount removable drives below a well-known directory (`/media`, `/run/media`,
+ * `/mnt` or `/Volumes`) the detector sleeps on a `WatchService` registered for those directories and
+ * for the mounted volumes, so it only wakes up when a mount directory is created or removed or a file
+ * appears on a drive. On Linux it also waits for changes of the mount table with a {@link MountInfoMonitor},
+ * which catches drives mounted onto a directory that already exists. Elsewhere, e.g. for Windows drive
+ * letters, it falls back to rescanning the file system roots periodically.</p>
+ *
+ * <p>Every scan is measured by the `usb` {@link Stage#SCAN} timer of the shared {@link MetricsRegistry}.</p>
  */
 public class USBDetector implements Runnable {
 
+    /**
+     * Name of the encrypted private key file.
+     */
+    private static final String KEY_FILE = "private.enc";
+
+    /**
+     * Interval between rescans when no mount directory can be watched, in seconds.
+     */
+    private static final long FALLBACK_RESCAN_SECONDS = 2;
+
+    /**
+     * Time after which a wait for mount table changes returns to check whether the detector was stopped.
+     */
+    private static final int MOUNT_POLL_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Registry receiving the scan times and the number of scans.
+     */
+    private static final MetricsRegistry METRICS = MetricsRegistry.shared();
+
+    /**
+     * Logger receiving a structured record when the key file appears or disappears.
+     */
+    private static final System.Logger LOGGER = System.getLogger("org.example.developed_app.metrics");
+
     /**
      * Object responsible for signing PDF documents.
      */
@@ -28,55 +73,255 @@ public class USBDetector implements Runnable {
      */
     public HelloController controller;
 
+    /**
+     * Whether the detector should keep running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Watch service of the running detector, closed by {@link #stop()} to wake it up.
+     */
+    private volatile WatchService watchService;
+
+    /**
+     * Released by the event threads whenever a rescan is due.
+     */
+    private final Semaphore changes = new Semaphore(0);
+
+    /**
+     * Path to the key file seen by the last scan, or an empty string if none was found.
+     */
+    private String lastKeyPath;
+
     /**
      * Main loop for detecting USB devices.
      *
-     * <p>The loop runs every second, checking the list of available drives.
-     * If it finds a `private.enc` file on a removable drive, it marks the USB drive as recognized
-     * and sets the path to the key file.</p>
+     * <p>After every mount change the removable drives are scanned for a `private.enc` file.
+     * Only when the result differs from the previous scan is the USB status of {@link Sign} updated
+     * and the `tryTo()` method of the controller called in the JavaFX thread context using
+     * {@link Platform#runLater(Runnable)}.</p>
      *
-     * <p>After each iteration, the `tryTo()` method of the controller is called
-     * in the JavaFX thread context using {@link Platform#runLater(Runnable)}.</p>
+     * <p>Directory events and mount table changes are awaited on two daemon threads, which wake up
+     * this loop; several events arriving during a scan cause a single rescan.</p>
      */
     @Override
     public void run() {
-        while (!signed) {
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            watchService = watcher;
+            boolean watching = registerMountDirectories(watcher);
+            MountInfoMonitor monitor = MountInfoMonitor.open();
+            if (watching) {
+                startDaemon("usb-watch", () -> awaitDirectoryEvents(watcher));
+            }
+            if (monitor != null) {
+                startDaemon("usb-mountinfo", () -> awaitMountChanges(monitor));
+            }
+            update();
+
+            while (running) {
+                if (watching || monitor != null) {
+                    changes.acquire();
+                } else {
+                    changes.tryAcquire(FALLBACK_RESCAN_SECONDS, TimeUnit.SECONDS);
+                }
+                changes.drainPermits();
+                if (!running) {
+                    break;
+                }
+                if (watching) {
+                    registerMountDirectories(watcher);
+                }
+                update();
+            }
+        } catch (InterruptedException e) {
+            // Interrupted while waiting for events.
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Stops the detector and wakes it up if it is waiting for events.
+     */
+    public void stop() {
+        running = false;
+        WatchService watcher = watchService;
+        if (watcher != null) {
             try {
-                sleep(1000);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+                watcher.close();
+            } catch (IOException e) {
+                // Nothing left to release.
+            }
+        }
+        changes.release();
+    }
+
+    /**
+     * Starts a daemon thread waiting for one kind of event.
+     *
+     * @param name   Name of the thread.
+     * @param waiter The waiting loop.
+     */
+    private static void startDaemon(String name, Runnable waiter) {
+        Thread thread = new Thread(waiter, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Wakes up the detector after every batch of events of the watched directories.
+     *
+     * @param watcher The watch service, closed by {@link #stop()}.
+     */
+    private void awaitDirectoryEvents(WatchService watcher) {
+        try {
+            while (running) {
+                WatchKey key = watcher.take();
+                while (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                    key = watcher.poll();
+                }
+                changes.release();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped by stop().
+        }
+    }
+
+    /**
+     * Wakes up the detector after every change of the mount table.
+     *
+     * <p>The wait times out regularly, so the thread notices {@link #stop()} and only then closes the
+     * monitor; a descriptor must not be closed while another thread polls it.</p>
+     *
+     * @param monitor The mount table monitor, closed when the detector stops.
+     */
+    private void awaitMountChanges(MountInfoMonitor monitor) {
+        try {
+            while (running) {
+                if (monitor.await(MOUNT_POLL_TIMEOUT_MILLIS)) {
+                    changes.release();
+                }
+            }
+        } finally {
+            monitor.close();
+        }
+    }
+
+    /**
+     * Scans for the key file and notifies the controller if the result changed.
+     */
+    private void update() {
+        String keyPath;
+        try (Timer.Sample sample = METRICS.timer("usb", Stage.SCAN).start()) {
+            keyPath = findKeyFile();
+        }
+        METRICS.counter("usb_scans").increment();
+        if (keyPath.equals(lastKeyPath)) {
+            return;
+        }
+        lastKeyPath = keyPath;
+        METRICS.counter("usb_key_changes").increment();
+        LOGGER.log(System.Logger.Level.DEBUG, "operation=usb event=key_changed present={0}", !keyPath.isEmpty());
+
+        sign.setPendriveRecognized(!keyPath.isEmpty());
+        sign.setKeyPath(keyPath);
+
+        Platform.runLater(() -> controller.tryTo());
+    }
+
+    /**
+     * Searches the removable drives for the key file.
+     *
+     * @return Path to the key file, or an empty string if none was found.
+     */
+    private String findKeyFile() {
+        for (Path volume : mountedVolumes()) {
+            Path key = volume.resolve(KEY_FILE);
+            if (Files.isRegularFile(key)) {
+                return key.toString();
             }
+        }
 
-            File[] roots = File.listRoots();
-            boolean fl = false;
-            String tmpPath = "";
-
-            for (File root : roots) {
-                try {
-                    Path path = root.toPath();
-                    FileStore fileStore = Files.getFileStore(path);
-                    boolean isUSB = fileStore.toString().toLowerCase().contains("removable");
-
-                    if (isUSB && root.isDirectory()) {
-                        File[] files = root.listFiles();
-                        if (files != null) {
-                            for (File file : files) {
-                                if (file.isFile() && file.getName().equals("private.enc")) {
-                                    fl = true;
-                                    tmpPath = file.getPath();
-                                }
-                            }
-                        }
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
+        for (File root : File.listRoots()) {
+            try {
+                FileStore fileStore = Files.getFileStore(root.toPath());
+                boolean isUSB = fileStore.toString().toLowerCase().contains("removable");
+
+                File key = new File(root, KEY_FILE);
+                if (isUSB && key.isFile()) {
+                    return key.getPath();
                 }
+            } catch (IOException e) {
+                // The drive disappeared while it was scanned.
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Registers the mount directories and the volumes mounted below them with the watch service.
+     *
+     * <p>Registering an already registered directory is a no-op, so this is repeated after every event
+     * to pick up newly mounted volumes.</p>
+     *
+     * @param watcher The watch service.
+     * @return `true` if at least one mount directory is watched.
+     */
+    private boolean registerMountDirectories(WatchService watcher) {
+        boolean watching = false;
+        for (Path directory : mountDirectories()) {
+            try {
+                directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+                watching = true;
+            } catch (IOException e) {
+                // Not accessible; other mount directories may still be watched.
+            }
+        }
+        for (Path volume : mountedVolumes()) {
+            try {
+                volume.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException e) {
+                // Unmounted in the meantime.
             }
+        }
+        return watching;
+    }
 
-            sign.setPendriveRecognized(fl);
-            sign.setKeyPath(tmpPath);
+    /**
+     * Lists the existing directories below which removable drives are mounted.
+     *
+     * @return The mount directories.
+     */
+    private static List<Path> mountDirectories() {
+        String user = System.getProperty("user.name");
+        List<Path> directories = new ArrayList<>();
+        for (Path candidate : List.of(Paths.get("/media"), Paths.get("/media", user), Paths.get("/run/media", user),
+                Paths.get("/mnt"), Paths.get("/Volumes"))) {
+            if (Files.isDirectory(candidate)) {
+                directories.add(candidate);
+            }
+        }
+        return directories;
+    }
 
-            Platform.runLater(() -> controller.tryTo());
+    /**
+     * Lists the volumes currently mounted below the mount directories.
+     *
+     * @return The volume root directories.
+     */
+    private static List<Path> mountedVolumes() {
+        List<Path> volumes = new ArrayList<>();
+        for (Path directory : mountDirectories()) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(directory, Files::isDirectory)) {
+                children.forEach(volumes::add);
+            } catch (IOException e) {
+                // Not accessible.
+            }
         }
+        return volumes;
     }
 }
@@ -0,0 +1,203 @@
+package org.example.developed_app.tsa;
+
+import org.bouncycastle.tsp.TSPException;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampRequestGenerator;
+import org.bouncycastle.tsp.TimeStampResponse;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.example.developed_app.digest.DigestAlgorithm;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `HttpTimestampClient` class requests RFC 3161 timestamp tokens from a timestamp authority over HTTP.
+ *
+ * <p>All requests go through one shared {@link HttpClient}, which keeps its connections to the
+ * authority alive and reuses them, so a batch pays the TCP and TLS handshake once instead of per
+ * document. Requests are sent asynchronously and pipelined up to a configurable number in flight;
+ * callers beyond that limit wait for a free slot, so a large batch cannot flood the authority.</p>
+ *
+ * <p>Each request carries a random nonce and asks for the authority's certificate, and each response
+ * is checked against its request before the token is returned.</p>
+ */
+public class HttpTimestampClient implements TimestampClient {
+
+    /**
+     * Default time allowed for one request.
+     */
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Address of the timestamp authority.
+     */
+    private final URI uri;
+
+    /**
+     * Client holding the pooled connections.
+     */
+    private final HttpClient http;
+
+    /**
+     * Free slots for requests in flight.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * Time allowed for one request.
+     */
+    private final Duration timeout;
+
+    /**
+     * Source of the request nonces.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a client with the default timeout.
+     *
+     * @param uri         Address of the timestamp authority.
+     * @param maxInFlight Largest number of requests waiting for a response at once.
+     */
+    public HttpTimestampClient(URI uri, int maxInFlight) {
+        this(uri, maxInFlight, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a client.
+     *
+     * @param uri         Address of the timestamp authority.
+     * @param maxInFlight Largest number of requests waiting for a response at once.
+     * @param timeout     Time allowed for one request.
+     */
+    public HttpTimestampClient(URI uri, int maxInFlight, Duration timeout) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Number of requests in flight must be positive: " + maxInFlight);
+        }
+        this.uri = uri;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Requests a timestamp token, waiting for a free slot if the in-flight limit is reached.
+     *
+     * @param algorithm The algorithm that computed the digest.
+     * @param digest    The digest to timestamp.
+     * @return Future completed with the validated token.
+     */
+    @Override
+    public CompletableFuture<TimeStampToken> timestamp(DigestAlgorithm algorithm, byte[] digest) {
+        TimeStampRequest request;
+        byte[] body;
+        try {
+            TimeStampRequestGenerator generator = new TimeStampRequestGenerator();
+            generator.setCertReq(true);
+            request = generator.generate(algorithm.getOid(), digest, new BigInteger(64, random));
+            body = request.getEncoded();
+            inFlight.acquire();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        requests.increment();
+
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/timestamp-query")
+                .header("Accept", "application/timestamp-reply")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        return http.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> inFlight.release())
+                .thenApply(response -> parse(request, response))
+                .whenComplete((token, error) -> {
+                    if (error != null) {
+                        failures.increment();
+                    }
+                });
+    }
+
+    /**
+     * Parses and validates the response of the authority.
+     *
+     * @param request  The request that was sent.
+     * @param response The HTTP response.
+     * @return The timestamp token.
+     * @throws CompletionException If the authority rejected the request or sent an invalid response.
+     */
+    private TimeStampToken parse(TimeStampRequest request, HttpResponse<byte[]> response) {
+        try {
+            if (response.statusCode() != 200) {
+                throw new IOException("Timestamp authority " + uri + " returned HTTP " + response.statusCode());
+            }
+            TimeStampResponse timeStampResponse = new TimeStampResponse(response.body());
+            timeStampResponse.validate(request);
+            TimeStampToken token = timeStampResponse.getTimeStampToken();
+            if (token == null) {
+                throw new IOException("Timestamp authority " + uri + " rejected the request: "
+                        + timeStampResponse.getStatusString());
+            }
+            return token;
+        } catch (IOException | TSPException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Gets the address of the timestamp authority.
+     *
+     * @return The address.
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Gets the number of requests sent so far.
+     *
+     * @return Number of requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of requests that did not produce a token.
+     *
+     * @return Number of failures.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Closes the pooled connections once the requests in flight have completed.
+     */
+    @Override
+    public void close() {
+        http.close();
+    }
+}
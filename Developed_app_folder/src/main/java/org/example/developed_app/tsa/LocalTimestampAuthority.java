@@ -0,0 +1,183 @@
+package org.example.developed_app.tsa;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The `LocalTimestampAuthority` class is a minimal RFC 3161 timestamp authority listening on the
+ * loopback interface, standing in for a real authority when signing is tested offline.
+ *
+ * <p>The authority creates a fresh P-256 key and a self-signed certificate with the critical
+ * `timeStamping` extended key usage on start, so its tokens are structurally valid but not trusted
+ * by anyone else. Requests are served on virtual threads.</p>
+ */
+public class LocalTimestampAuthority implements Closeable {
+
+    /**
+     * Distinguished name of the authority's certificate.
+     */
+    private static final String SUBJECT = "CN=PAdES Local Timestamp Authority";
+
+    /**
+     * Policy under which the tokens are issued, from the OID arc reserved for examples.
+     */
+    private static final ASN1ObjectIdentifier POLICY = new ASN1ObjectIdentifier("1.3.6.1.4.1.4146.99.1");
+
+    /**
+     * The HTTP server accepting the requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * Certificate of the authority.
+     */
+    private final X509Certificate certificate;
+
+    /**
+     * Creates the responses, guarded by `this`.
+     */
+    private final TimeStampResponseGenerator responseGenerator;
+
+    /**
+     * Serial number of the last issued token.
+     */
+    private final AtomicLong serial = new AtomicLong();
+
+    /**
+     * Creates the authority and starts listening.
+     *
+     * @param port Port on the loopback interface, or `0` for any free port.
+     * @throws Exception If the key cannot be generated or the port cannot be bound.
+     */
+    public LocalTimestampAuthority(int port) throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        X500Name subject = new X500Name(SUBJECT);
+        Instant now = Instant.now();
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(subject,
+                BigInteger.valueOf(now.toEpochMilli()),
+                Date.from(now.minus(1, ChronoUnit.DAYS)),
+                Date.from(now.plus(365, ChronoUnit.DAYS)),
+                subject, keyPair.getPublic());
+        builder.addExtension(Extension.extendedKeyUsage, true, new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping));
+        this.certificate = new JcaX509CertificateConverter().getCertificate(
+                builder.build(new JcaContentSignerBuilder("SHA256withECDSA").build(keyPair.getPrivate())));
+
+        TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(
+                new JcaSimpleSignerInfoGeneratorBuilder().build("SHA256withECDSA", keyPair.getPrivate(), certificate),
+                new JcaDigestCalculatorProviderBuilder().build().get(new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha256)),
+                POLICY);
+        tokenGenerator.addCertificates(new JcaCertStore(List.of(certificate)));
+        this.responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Answers one timestamp request.
+     *
+     * @param exchange The HTTP exchange.
+     * @throws IOException If the request cannot be read or the response cannot be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] response;
+            try (InputStream in = exchange.getRequestBody()) {
+                TimeStampRequest request = new TimeStampRequest(in);
+                synchronized (this) {
+                    response = responseGenerator.generate(request, BigInteger.valueOf(serial.incrementAndGet()), new Date())
+                            .getEncoded();
+                }
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/timestamp-reply");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    /**
+     * Gets the address clients send their requests to.
+     *
+     * @return The address of the authority.
+     */
+    public URI getUri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + "/");
+    }
+
+    /**
+     * Gets the certificate of the authority, which signs the tokens.
+     *
+     * @return The certificate.
+     */
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    /**
+     * Gets the number of tokens issued so far.
+     *
+     * @return Number of tokens.
+     */
+    public long getIssued() {
+        return serial.get();
+    }
+
+    /**
+     * Stops the authority.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.developed_app.tsa;
+
+import org.bouncycastle.tsp.TimeStampToken;
+import org.example.developed_app.digest.DigestAlgorithm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The `TimestampClient` interface obtains RFC 3161 timestamp tokens, which prove that a signature
+ * existed at the time stated by a trusted timestamp authority.
+ *
+ * <p>Requests are asynchronous, so many signatures can wait for their tokens at once. Implementations
+ * must be safe for use by several threads.</p>
+ */
+public interface TimestampClient extends Closeable {
+
+    /**
+     * Requests a timestamp token over a digest.
+     *
+     * @param algorithm The algorithm that computed the digest.
+     * @param digest    The digest to timestamp, e.g. of a signature value.
+     * @return Future completed with the token, whose message imprint has been checked against the digest.
+     */
+    CompletableFuture<TimeStampToken> timestamp(DigestAlgorithm algorithm, byte[] digest);
+
+    /**
+     * Releases the connections of the client. Does nothing by default.
+     *
+     * @throws IOException If the connections cannot be released.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,350 @@
+package org.example.developed_app.validation;
+
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertPathBuilderException;
+import java.security.cert.CertStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXCertPathBuilderResult;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The `CertificateValidator` class checks that a signer certificate chains to a trusted root and that
+ * none of the certificates of the chain has been revoked.
+ *
+ * <p>The chain is built with the PKIX algorithm of the JDK from the trust anchors and the intermediate
+ * certificates known to the validator or supplied with the signature. Revocation is checked for every
+ * certificate below the trust anchor, preferring OCSP over CRLs and data embedded in the document over
+ * the {@link RevocationSource}, so documents carrying their validation data verify without any lookup.
+ * Certificates that name neither an OCSP responder nor a CRL distribution point cannot be revoked and
+ * are not checked.</p>
+ *
+ * <p>The same validator collects the validation data embedded in the DSS dictionary when signing.
+ * It keeps no per-document state and may be shared by concurrent verifications.</p>
+ */
+public class CertificateValidator {
+
+    /**
+     * Object identifier of the OCSP signing extended key usage.
+     */
+    private static final String OCSP_SIGNING = "1.3.6.1.5.5.7.3.9";
+
+    /**
+     * The trusted root certificates.
+     */
+    private final Set<TrustAnchor> trustAnchors = new HashSet<>();
+
+    /**
+     * Intermediate certificates available for building chains.
+     */
+    private final List<X509Certificate> intermediates;
+
+    /**
+     * Source of revocation data not embedded in the document, or `null` to use embedded data only.
+     */
+    private final RevocationSource revocationSource;
+
+    /**
+     * Creates a certificate validator.
+     *
+     * @param trusted          The trusted root certificates.
+     * @param intermediates    Intermediate certificates available for building chains.
+     * @param revocationSource Source of revocation data not embedded in the document, or `null` to use embedded data only.
+     */
+    public CertificateValidator(Collection<X509Certificate> trusted, Collection<X509Certificate> intermediates,
+                                RevocationSource revocationSource) {
+        if (trusted.isEmpty()) {
+            throw new IllegalArgumentException("At least one trusted certificate is required");
+        }
+        for (X509Certificate certificate : trusted) {
+            trustAnchors.add(new TrustAnchor(certificate, null));
+        }
+        this.intermediates = List.copyOf(intermediates);
+        this.revocationSource = revocationSource;
+    }
+
+    /**
+     * Reads the certificates stored in a PEM or DER file, or in all files of a directory.
+     *
+     * @param path Path to the certificate file or directory.
+     * @return The certificates.
+     * @throws IOException If a file cannot be read or holds no valid certificate.
+     */
+    public static List<X509Certificate> readCertificates(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> entries = Files.list(path)) {
+                files = entries.filter(Files::isRegularFile).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+
+        List<X509Certificate> certificates = new ArrayList<>();
+        try {
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            for (Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    for (Certificate certificate : factory.generateCertificates(in)) {
+                        certificates.add((X509Certificate) certificate);
+                    }
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Invalid certificate in " + path, e);
+        }
+        return certificates;
+    }
+
+    /**
+     * Collects the chain of a signer certificate and the revocation data of its certificates.
+     *
+     * @param certificate   The signer certificate.
+     * @param intermediates Further intermediate certificates, e.g. sent along with the signature.
+     * @return The validation data to embed into the document.
+     * @throws CertPathBuilderException If the certificate does not chain to a trust anchor.
+     * @throws Exception                If revocation data cannot be obtained.
+     */
+    public ValidationData collect(X509Certificate certificate, Collection<X509Certificate> intermediates) throws Exception {
+        List<X509Certificate> path = buildPath(certificate, intermediates, new Date());
+        List<byte[]> crls = new ArrayList<>();
+        List<byte[]> ocspResponses = new ArrayList<>();
+
+        if (revocationSource != null) {
+            for (int i = 0; i < path.size() - 1; i++) {
+                byte[] ocsp = revocationSource.ocspResponse(path.get(i), path.get(i + 1));
+                if (ocsp != null) {
+                    ocspResponses.add(ocsp);
+                } else {
+                    crls.addAll(revocationSource.crls(path.get(i)));
+                }
+            }
+        }
+        return new ValidationData(path, crls, ocspResponses);
+    }
+
+    /**
+     * Validates a signer certificate at the current time.
+     *
+     * @param certificate   The signer certificate.
+     * @param intermediates Further intermediate certificates, e.g. sent along with the signature.
+     * @param embedded      Validation data embedded in the document.
+     * @return The status of the certificate chain.
+     * @throws Exception If revocation data cannot be obtained or parsed.
+     */
+    public ChainStatus validate(X509Certificate certificate, Collection<X509Certificate> intermediates,
+                                ValidationData embedded) throws Exception {
+        Date now = new Date();
+        List<X509Certificate> candidates = new ArrayList<>(intermediates);
+        candidates.addAll(embedded.certificates());
+
+        List<X509Certificate> path;
+        try {
+            path = buildPath(certificate, candidates, now);
+        } catch (CertPathBuilderException e) {
+            return ChainStatus.UNTRUSTED;
+        }
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            Revocation revocation = revocation(path.get(i), path.get(i + 1), embedded, now);
+            if (revocation == Revocation.REVOKED) {
+                return ChainStatus.REVOKED;
+            }
+            if (revocation == Revocation.UNKNOWN) {
+                return ChainStatus.UNTRUSTED;
+            }
+        }
+        return ChainStatus.TRUSTED;
+    }
+
+    /**
+     * Builds the chain from a certificate to a trust anchor.
+     *
+     * @return The chain, starting with the certificate and ending with the trusted root.
+     */
+    private List<X509Certificate> buildPath(X509Certificate certificate, Collection<X509Certificate> extra, Date time)
+            throws GeneralSecurityException {
+        for (TrustAnchor anchor : trustAnchors) {
+            if (anchor.getTrustedCert().equals(certificate)) {
+                return List.of(certificate);
+            }
+        }
+
+        List<X509Certificate> candidates = new ArrayList<>(intermediates);
+        candidates.addAll(extra);
+        candidates.add(certificate);
+
+        X509CertSelector target = new X509CertSelector();
+        target.setCertificate(certificate);
+        PKIXBuilderParameters parameters = new PKIXBuilderParameters(trustAnchors, target);
+        parameters.setRevocationEnabled(false);
+        parameters.setDate(time);
+        parameters.addCertStore(CertStore.getInstance("Collection", new CollectionCertStoreParameters(candidates)));
+
+        PKIXCertPathBuilderResult result = (PKIXCertPathBuilderResult) CertPathBuilder.getInstance("PKIX").build(parameters);
+        List<X509Certificate> path = new ArrayList<>();
+        for (Certificate element : result.getCertPath().getCertificates()) {
+            path.add((X509Certificate) element);
+        }
+        path.add(result.getTrustAnchor().getTrustedCert());
+        return path;
+    }
+
+    /**
+     * Determines the revocation status of one certificate of the chain.
+     */
+    private Revocation revocation(X509Certificate certificate, X509Certificate issuer, ValidationData embedded, Date time)
+            throws Exception {
+        for (byte[] response : embedded.ocspResponses()) {
+            Revocation revocation = ocspStatus(response, certificate, issuer, time);
+            if (revocation != Revocation.UNKNOWN) {
+                return revocation;
+            }
+        }
+        for (byte[] crl : embedded.crls()) {
+            Revocation revocation = crlStatus(crl, certificate, issuer, time);
+            if (revocation != Revocation.UNKNOWN) {
+                return revocation;
+            }
+        }
+        if (!RevocationSource.isRevocable(certificate)) {
+            return Revocation.GOOD;
+        }
+        if (revocationSource == null) {
+            return Revocation.UNKNOWN;
+        }
+
+        byte[] response = revocationSource.ocspResponse(certificate, issuer);
+        if (response != null) {
+            Revocation revocation = ocspStatus(response, certificate, issuer, time);
+            if (revocation != Revocation.UNKNOWN) {
+                return revocation;
+            }
+        }
+        for (byte[] crl : revocationSource.crls(certificate)) {
+            Revocation revocation = crlStatus(crl, certificate, issuer, time);
+            if (revocation != Revocation.UNKNOWN) {
+                return revocation;
+            }
+        }
+        return Revocation.UNKNOWN;
+    }
+
+    /**
+     * Reads the status of a certificate from an OCSP response signed by its issuer or a delegated responder.
+     */
+    private static Revocation ocspStatus(byte[] encoded, X509Certificate certificate, X509Certificate issuer, Date time)
+            throws Exception {
+        OCSPResp response = new OCSPResp(encoded);
+        if (response.getStatus() != OCSPResp.SUCCESSFUL
+                || !(response.getResponseObject() instanceof BasicOCSPResp basic)
+                || !isAuthorizedResponder(basic, issuer)) {
+            return Revocation.UNKNOWN;
+        }
+
+        DigestCalculatorProvider digests = new JcaDigestCalculatorProviderBuilder().build();
+        X509CertificateHolder issuerHolder = new JcaX509CertificateHolder(issuer);
+        for (SingleResp single : basic.getResponses()) {
+            CertificateID id = single.getCertID();
+            if (!id.getSerialNumber().equals(certificate.getSerialNumber()) || !id.matchesIssuer(issuerHolder, digests)) {
+                continue;
+            }
+            if (single.getNextUpdate() != null && single.getNextUpdate().before(time)) {
+                continue;
+            }
+            if (single.getCertStatus() == null) {
+                return Revocation.GOOD;
+            }
+            if (single.getCertStatus() instanceof RevokedStatus revoked && !revoked.getRevocationTime().after(time)) {
+                return Revocation.REVOKED;
+            }
+        }
+        return Revocation.UNKNOWN;
+    }
+
+    /**
+     * Checks that an OCSP response is signed by the issuer or by a responder the issuer authorized.
+     */
+    private static boolean isAuthorizedResponder(BasicOCSPResp response, X509Certificate issuer) {
+        try {
+            if (response.isSignatureValid(new JcaContentVerifierProviderBuilder().build(issuer))) {
+                return true;
+            }
+        } catch (Exception e) {
+            // Signed by a delegated responder with a different key.
+        }
+        JcaX509CertificateConverter converter = new JcaX509CertificateConverter();
+        for (X509CertificateHolder holder : response.getCerts()) {
+            try {
+                X509Certificate responder = converter.getCertificate(holder);
+                List<String> usages = responder.getExtendedKeyUsage();
+                if (usages != null && usages.contains(OCSP_SIGNING)
+                        && responder.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())) {
+                    responder.verify(issuer.getPublicKey());
+                    if (response.isSignatureValid(new JcaContentVerifierProviderBuilder().build(responder))) {
+                        return true;
+                    }
+                }
+            } catch (Exception e) {
+                // Not a valid delegated responder of this issuer.
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the status of a certificate from a CRL signed by its issuer.
+     */
+    private static Revocation crlStatus(byte[] encoded, X509Certificate certificate, X509Certificate issuer, Date time) {
+        try {
+            X509CRL crl = (X509CRL) CertificateFactory.getInstance("X.509").generateCRL(new ByteArrayInputStream(encoded));
+            if (!crl.getIssuerX500Principal().equals(issuer.getSubjectX500Principal())
+                    || (crl.getNextUpdate() != null && crl.getNextUpdate().before(time))) {
+                return Revocation.UNKNOWN;
+            }
+            crl.verify(issuer.getPublicKey());
+            return crl.isRevoked(certificate) ? Revocation.REVOKED : Revocation.GOOD;
+        } catch (GeneralSecurityException e) {
+            return Revocation.UNKNOWN;
+        }
+    }
+
+    /**
+     * Revocation status of a single certificate.
+     */
+    private enum Revocation {
+        GOOD,
+        REVOKED,
+        UNKNOWN
+    }
+}
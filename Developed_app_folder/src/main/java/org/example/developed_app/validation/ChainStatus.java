@@ -0,0 +1,23 @@
+package org.example.developed_app.validation;
+
+/**
+ * The `ChainStatus` enum describes the outcome of validating a signer certificate against the trust anchors.
+ */
+public enum ChainStatus {
+
+    /**
+     * The certificate chains to a trust anchor and no certificate of the chain is revoked.
+     */
+    TRUSTED,
+
+    /**
+     * A certificate of the chain has been revoked.
+     */
+    REVOKED,
+
+    /**
+     * The certificate does not chain to a trust anchor, or the revocation status of a certificate
+     * of the chain could not be determined.
+     */
+    UNTRUSTED
+}
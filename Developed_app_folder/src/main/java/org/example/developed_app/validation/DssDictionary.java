@@ -0,0 +1,133 @@
+package org.example.developed_app.validation;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `DssDictionary` class reads and writes the Document Security Store, the `/DSS` dictionary of the
+ * document catalog that carries the certificates, CRLs and OCSP responses of the signatures (ETSI EN 319 142-1).
+ *
+ * <p>Each certificate, CRL and OCSP response is stored DER-encoded in its own stream, listed in the
+ * `/Certs`, `/CRLs` and `/OCSPs` arrays. Writing appends to an existing store and marks the changed
+ * objects for the next incremental update.</p>
+ */
+public final class DssDictionary {
+
+    private static final COSName DSS = COSName.getPDFName("DSS");
+
+    private static final COSName CERTS = COSName.getPDFName("Certs");
+
+    private static final COSName CRLS = COSName.getPDFName("CRLs");
+
+    private static final COSName OCSPS = COSName.getPDFName("OCSPs");
+
+    private DssDictionary() {
+    }
+
+    /**
+     * Adds validation data to the document security store, creating the store if needed.
+     *
+     * @param document The document, saved afterwards with an incremental update.
+     * @param data     The validation data.
+     * @throws IOException If a certificate cannot be encoded or a stream cannot be written.
+     */
+    public static void write(PDDocument document, ValidationData data) throws IOException {
+        if (data.isEmpty()) {
+            return;
+        }
+        COSDictionary catalog = document.getDocumentCatalog().getCOSObject();
+        COSDictionary dss = catalog.getDictionaryObject(DSS) instanceof COSDictionary existing ? existing : new COSDictionary();
+
+        List<byte[]> certificates = new ArrayList<>();
+        try {
+            for (X509Certificate certificate : data.certificates()) {
+                certificates.add(certificate.getEncoded());
+            }
+        } catch (CertificateEncodingException e) {
+            throw new IOException("Cannot encode certificate", e);
+        }
+        append(document, dss, CERTS, certificates);
+        append(document, dss, CRLS, data.crls());
+        append(document, dss, OCSPS, data.ocspResponses());
+
+        dss.setNeedToBeUpdated(true);
+        catalog.setItem(DSS, dss);
+        catalog.setNeedToBeUpdated(true);
+    }
+
+    /**
+     * Reads the validation data of the document security store.
+     *
+     * @param document The document.
+     * @return The validation data, empty if the document has no store.
+     * @throws IOException If a stream cannot be read or holds an invalid certificate.
+     */
+    public static ValidationData read(PDDocument document) throws IOException {
+        if (!(document.getDocumentCatalog().getCOSObject().getDictionaryObject(DSS) instanceof COSDictionary dss)) {
+            return ValidationData.EMPTY;
+        }
+
+        List<X509Certificate> certificates = new ArrayList<>();
+        try {
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            for (byte[] encoded : streams(dss, CERTS)) {
+                certificates.add((X509Certificate) factory.generateCertificate(new ByteArrayInputStream(encoded)));
+            }
+        } catch (CertificateException e) {
+            throw new IOException("Invalid certificate in the document security store", e);
+        }
+        return new ValidationData(certificates, streams(dss, CRLS), streams(dss, OCSPS));
+    }
+
+    /**
+     * Appends one stream per value to an array of the store.
+     */
+    private static void append(PDDocument document, COSDictionary dss, COSName name, List<byte[]> values)
+            throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+        COSArray array = dss.getDictionaryObject(name) instanceof COSArray existing ? existing : new COSArray();
+        for (byte[] value : values) {
+            COSStream stream = document.getDocument().createCOSStream();
+            try (OutputStream out = stream.createOutputStream()) {
+                out.write(value);
+            }
+            stream.setNeedToBeUpdated(true);
+            array.add(stream);
+        }
+        array.setNeedToBeUpdated(true);
+        dss.setItem(name, array);
+    }
+
+    /**
+     * Reads the contents of the streams listed in an array of the store.
+     */
+    private static List<byte[]> streams(COSDictionary dss, COSName name) throws IOException {
+        List<byte[]> values = new ArrayList<>();
+        if (dss.getDictionaryObject(name) instanceof COSArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                if (array.getObject(i) instanceof COSStream stream) {
+                    try (InputStream in = stream.createInputStream()) {
+                        values.add(in.readAllBytes());
+                    }
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.developed_app.validation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `RevocationCache` class keeps downloaded CRLs and OCSP responses on disk, so revocation data is
+ * fetched once per time-to-live instead of once per verified document, and verification can run
+ * offline as long as the cached data is fresh.
+ *
+ * <p>Each entry is stored in its own file named after the SHA-256 digest of its key; the modification
+ * time of the file is the time the data was fetched. Entries read from disk are also kept in memory,
+ * so all verifications of a run share them. Files are written to a temporary file and moved into
+ * place, so concurrent processes sharing the directory never see a partial entry.</p>
+ *
+ * <p>The time-to-live only decides when data is fetched again; whether a CRL or OCSP response is still
+ * valid is checked against its own update times by the {@link CertificateValidator}.</p>
+ */
+public final class RevocationCache {
+
+    /**
+     * Default time after which cached data is fetched again.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    /**
+     * Directory holding the entries.
+     */
+    private final Path directory;
+
+    /**
+     * Time after which cached data is fetched again.
+     */
+    private final Duration ttl;
+
+    /**
+     * Entries already read or written by this process.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Opens a cache directory, creating it if it does not exist.
+     *
+     * @param directory Directory holding the entries.
+     * @param ttl       Time after which cached data is fetched again.
+     * @throws IOException If the directory cannot be created.
+     */
+    public RevocationCache(Path directory, Duration ttl) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the default cache directory, `.pades/revocation` in the home directory of the user.
+     *
+     * @return Path to the default directory.
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".pades", "revocation");
+    }
+
+    /**
+     * Gets fresh cached data.
+     *
+     * @param key Key of the entry, e.g. the URL of a CRL.
+     * @return The cached data, or `null` if it is missing or older than the time-to-live.
+     * @throws IOException If the entry cannot be read.
+     */
+    public byte[] get(String key) throws IOException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Path file = fileOf(key);
+            try {
+                Instant fetched = Files.getLastModifiedTime(file).toInstant();
+                entry = new Entry(Files.readAllBytes(file), fetched);
+                entries.put(key, entry);
+            } catch (NoSuchFileException e) {
+                misses.increment();
+                return null;
+            }
+        }
+        if (entry.fetched().plus(ttl).isBefore(Instant.now())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.data();
+    }
+
+    /**
+     * Stores freshly fetched data.
+     *
+     * @param key  Key of the entry.
+     * @param data The DER-encoded CRL or OCSP response.
+     * @throws IOException If the entry cannot be written.
+     */
+    public void put(String key, byte[] data) throws IOException {
+        Instant now = Instant.now();
+        Path file = fileOf(key);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, data);
+            Files.setLastModifiedTime(temporary, FileTime.from(now));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        entries.put(key, new Entry(data, now));
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found no fresh data.
+     *
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Maps a key to the file of its entry.
+     */
+    private Path fileOf(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + ".der");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Cached data with the time it was fetched.
+     */
+    private record Entry(byte[] data, Instant fetched) {
+    }
+}
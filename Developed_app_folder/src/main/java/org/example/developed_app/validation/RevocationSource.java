@@ -0,0 +1,228 @@
+package org.example.developed_app.validation;
+
+import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.jcajce.JcaCertificateID;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * The `RevocationSource` class obtains the CRLs and OCSP responses of certificates, first from a
+ * {@link RevocationCache} and, unless it works offline, from the distribution points and OCSP
+ * responders named in the certificates.
+ *
+ * <p>Downloads go through one shared {@link HttpClient}, so connections to the same responder are
+ * reused. Only `http` and `https` locations are supported. OCSP requests carry no nonce, so a response
+ * can be cached and shared by all documents signed with the same certificate.</p>
+ */
+public class RevocationSource implements Closeable {
+
+    /**
+     * Time allowed for one download.
+     */
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+
+    /**
+     * Cache of downloaded data.
+     */
+    private final RevocationCache cache;
+
+    /**
+     * Whether only cached data is used.
+     */
+    private final boolean offline;
+
+    /**
+     * Client holding the pooled connections, or `null` when offline.
+     */
+    private final HttpClient http;
+
+    /**
+     * Creates a revocation source.
+     *
+     * @param cache   Cache of downloaded data.
+     * @param offline Whether only cached data is used.
+     */
+    public RevocationSource(RevocationCache cache, boolean offline) {
+        this.cache = cache;
+        this.offline = offline;
+        this.http = offline ? null : HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Gets an OCSP response for a certificate from the responders named in it.
+     *
+     * @param certificate The certificate.
+     * @param issuer      The certificate of its issuer.
+     * @return The DER-encoded OCSP response, or `null` if the certificate names no responder or none answered.
+     * @throws Exception If the request cannot be built or the cache cannot be accessed.
+     */
+    public byte[] ocspResponse(X509Certificate certificate, X509Certificate issuer) throws Exception {
+        List<String> urls = ocspUrls(certificate);
+        if (urls.isEmpty()) {
+            return null;
+        }
+        String key = "ocsp:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(issuer.getPublicKey().getEncoded())) + ":" + certificate.getSerialNumber().toString(16);
+        byte[] cached = cache.get(key);
+        if (cached != null || offline) {
+            return cached;
+        }
+
+        DigestCalculatorProvider digests = new JcaDigestCalculatorProviderBuilder().build();
+        CertificateID id = new JcaCertificateID(digests.get(CertificateID.HASH_SHA1), issuer, certificate.getSerialNumber());
+        byte[] request = new OCSPReqBuilder().addRequest(id).build().getEncoded();
+
+        for (String url : urls) {
+            byte[] response = download(HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/ocsp-request")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(request)));
+            if (response != null && new OCSPResp(response).getStatus() == OCSPResp.SUCCESSFUL) {
+                cache.put(key, response);
+                return response;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the CRLs of a certificate from the distribution points named in it.
+     *
+     * @param certificate The certificate.
+     * @return The DER-encoded CRLs that could be obtained.
+     * @throws IOException If the cache cannot be accessed.
+     */
+    public List<byte[]> crls(X509Certificate certificate) throws IOException {
+        List<byte[]> crls = new ArrayList<>();
+        for (String url : crlUrls(certificate)) {
+            String key = "crl:" + url;
+            byte[] crl = cache.get(key);
+            if (crl == null && !offline) {
+                crl = download(HttpRequest.newBuilder(URI.create(url)).GET());
+                if (crl != null) {
+                    cache.put(key, crl);
+                }
+            }
+            if (crl != null) {
+                crls.add(crl);
+            }
+        }
+        return crls;
+    }
+
+    /**
+     * Checks whether a certificate names any source of revocation data.
+     *
+     * @param certificate The certificate.
+     * @return `true` if it names an OCSP responder or a CRL distribution point.
+     * @throws IOException If the extensions of the certificate cannot be parsed.
+     */
+    public static boolean isRevocable(X509Certificate certificate) throws IOException {
+        return !ocspUrls(certificate).isEmpty() || !crlUrls(certificate).isEmpty();
+    }
+
+    /**
+     * Sends a download request.
+     *
+     * @param request The request without its timeout.
+     * @return The response body, or `null` if the server cannot be reached or does not answer with HTTP 200.
+     */
+    private byte[] download(HttpRequest.Builder request) {
+        try {
+            HttpResponse<byte[]> response = http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Reads the OCSP responder locations from the authority information access extension.
+     */
+    private static List<String> ocspUrls(X509Certificate certificate) throws IOException {
+        List<String> urls = new ArrayList<>();
+        byte[] value = certificate.getExtensionValue(Extension.authorityInfoAccess.getId());
+        if (value != null) {
+            AuthorityInformationAccess access = AuthorityInformationAccess.getInstance(
+                    JcaX509ExtensionUtils.parseExtensionValue(value));
+            for (AccessDescription description : access.getAccessDescriptions()) {
+                if (AccessDescription.id_ad_ocsp.equals(description.getAccessMethod())) {
+                    addUrl(urls, description.getAccessLocation());
+                }
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Reads the CRL locations from the CRL distribution points extension.
+     */
+    private static List<String> crlUrls(X509Certificate certificate) throws IOException {
+        List<String> urls = new ArrayList<>();
+        byte[] value = certificate.getExtensionValue(Extension.cRLDistributionPoints.getId());
+        if (value != null) {
+            CRLDistPoint distributionPoints = CRLDistPoint.getInstance(JcaX509ExtensionUtils.parseExtensionValue(value));
+            for (DistributionPoint point : distributionPoints.getDistributionPoints()) {
+                DistributionPointName name = point.getDistributionPoint();
+                if (name != null && name.getType() == DistributionPointName.FULL_NAME) {
+                    for (GeneralName location : GeneralNames.getInstance(name.getName()).getNames()) {
+                        addUrl(urls, location);
+                    }
+                }
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Adds a location to the list if it is an `http` or `https` URI.
+     */
+    private static void addUrl(List<String> urls, GeneralName location) {
+        if (location.getTagNo() == GeneralName.uniformResourceIdentifier) {
+            String url = DERIA5String.getInstance(location.getName()).getString();
+            if (url.startsWith("http://") || url.startsWith("https://")) {
+                urls.add(url);
+            }
+        }
+    }
+
+    /**
+     * Releases the pooled connections.
+     */
+    @Override
+    public void close() {
+        if (http != null) {
+            http.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.developed_app.validation;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * The `ValidationData` record holds the certificates and revocation data needed to validate a signer
+ * certificate without network access, as stored in the DSS dictionary of a PAdES-LT document.
+ *
+ * @param certificates  The certificates of the chain, from the signer certificate to the trust anchor.
+ * @param crls          DER-encoded certificate revocation lists.
+ * @param ocspResponses DER-encoded OCSP responses.
+ */
+public record ValidationData(List<X509Certificate> certificates, List<byte[]> crls, List<byte[]> ocspResponses) {
+
+    /**
+     * Validation data without any entries.
+     */
+    public static final ValidationData EMPTY = new ValidationData(List.of(), List.of(), List.of());
+
+    /**
+     * Checks whether the record holds no data.
+     *
+     * @return `true` if there are no certificates, CRLs or OCSP responses.
+     */
+    public boolean isEmpty() {
+        return certificates.isEmpty() && crls.isEmpty() && ocspResponses.isEmpty();
+    }
+}
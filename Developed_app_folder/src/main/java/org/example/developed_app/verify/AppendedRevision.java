@@ -0,0 +1,298 @@
+package org.example.developed_app.verify;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSObjectKey;
+import org.apache.pdfbox.io.RandomAccessBufferedFileInputStream;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The `AppendedRevision` class checks the revision appended after the prefix of a file covered by a
+ * metadata signature over the raw bytes.
+ *
+ * <p>Signatures in {@link org.example.developed_app.digest.DigestMode#BYTES} and
+ * {@link org.example.developed_app.digest.DigestMode#MERKLE} mode cover the file as it was before
+ * signing; the signature itself is stored in the incremental update that follows, which is not
+ * covered. That update must therefore be a single revision that changes nothing but the document
+ * information dictionary; otherwise anyone could append a revision that rewrites a page while the
+ * signed prefix still matches.</p>
+ *
+ * <p>The document is parsed twice, once as it ends at the signed prefix and once as it ends after
+ * the appended revision. Only the cross-reference tables and trailers of both are compared; no page
+ * content is read.</p>
+ */
+final class AppendedRevision {
+
+    /**
+     * Marker ending every revision of a PDF file.
+     */
+    private static final byte[] EOF_MARKER = "%%EOF".getBytes(StandardCharsets.ISO_8859_1);
+
+    /**
+     * Size of the buffer the appended revision is scanned through.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private AppendedRevision() {
+    }
+
+    /**
+     * Checks that the bytes `[start, end)` of a file are exactly one revision that only stores the
+     * metadata of one signature.
+     *
+     * <p>The revision must end with the only `%%EOF` marker after `start`, must keep the catalog and
+     * the encryption dictionary of the signed prefix, and must leave every object of the signed prefix
+     * at its offset except the document information dictionary. The information dictionary of the
+     * revision must hold the given metadata entries, and the signed prefix must not hold the first one.</p>
+     *
+     * @param path     Path to the document.
+     * @param start    Length of the signed prefix.
+     * @param end      Offset the revision ends at, the file size for the latest signature.
+     * @param metadata Entries of the information dictionary stored with the signature and their values,
+     *                 starting with the signature value.
+     * @return `true` if the revision only stores the signature metadata; otherwise, `false`.
+     * @throws IOException If the document cannot be read.
+     */
+    static boolean holdsOnlyMetadata(Path path, long start, long end, Map<String, String> metadata) throws IOException {
+        if (start <= 0 || start >= end || countRevisions(path, start, end) != 1 || !endsRevision(path, end)) {
+            return false;
+        }
+
+        try (PDDocument signed = load(path, start);
+             PDDocument appended = load(path, end)) {
+            COSDictionary signedTrailer = signed.getDocument().getTrailer();
+            COSDictionary appendedTrailer = appended.getDocument().getTrailer();
+            if (!Objects.equals(keyOf(signedTrailer, COSName.ROOT), keyOf(appendedTrailer, COSName.ROOT))
+                    || !Objects.equals(keyOf(signedTrailer, COSName.ENCRYPT), keyOf(appendedTrailer, COSName.ENCRYPT))) {
+                return false;
+            }
+
+            Map<COSObjectKey, Long> signedObjects = signed.getDocument().getXrefTable();
+            Map<COSObjectKey, Long> appendedObjects = appended.getDocument().getXrefTable();
+            COSObjectKey signedInfo = keyOf(signedTrailer, COSName.INFO);
+            COSObjectKey info = keyOf(appendedTrailer, COSName.INFO);
+            if (info == null || (signedInfo != null ? !signedInfo.equals(info) : signedObjects.containsKey(info))) {
+                return false;
+            }
+            for (Map.Entry<COSObjectKey, Long> object : signedObjects.entrySet()) {
+                if (!object.getKey().equals(info) && !object.getValue().equals(appendedObjects.get(object.getKey()))) {
+                    return false;
+                }
+            }
+
+            PDDocumentInformation signedMetadata = signed.getDocumentInformation();
+            PDDocumentInformation appendedMetadata = appended.getDocumentInformation();
+            if (signedMetadata.getCustomMetadataValue(metadata.keySet().iterator().next()) != null) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                if (!Objects.equals(entry.getValue(), appendedMetadata.getCustomMetadataValue(entry.getKey()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a prefix of the file ends with the `%%EOF` marker of a revision.
+     *
+     * @param path Path to the document.
+     * @param end  Length of the prefix.
+     * @return `true` if the prefix ends with `%%EOF`, optionally followed by an end of line.
+     * @throws IOException If the document cannot be read.
+     */
+    static boolean endsRevision(Path path, long end) throws IOException {
+        int length = (int) Math.min(end, 16);
+        ByteBuffer tail = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (tail.hasRemaining() && channel.read(tail, end - length + tail.position()) >= 0) {
+                // Keep reading until the tail is complete.
+            }
+        }
+        String text = new String(tail.array(), 0, tail.position(), StandardCharsets.ISO_8859_1).stripTrailing();
+        return text.endsWith("%%EOF");
+    }
+
+    /**
+     * Counts the `%%EOF` markers in a range of the file.
+     *
+     * @param path  Path to the document.
+     * @param start Offset of the range.
+     * @param end   End of the range.
+     * @return The number of revisions ending in the range.
+     * @throws IOException If the document cannot be read.
+     */
+    private static int countRevisions(Path path, long start, long end) throws IOException {
+        int count = 0;
+        int matched = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of file at offset " + position);
+                }
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer.get(i);
+                    if (b == EOF_MARKER[matched]) {
+                        matched++;
+                    } else if (b == '%') {
+                        matched = matched == 2 ? 2 : 1;
+                    } else {
+                        matched = 0;
+                    }
+                    if (matched == EOF_MARKER.length) {
+                        count++;
+                        matched = 0;
+                    }
+                }
+                position += read;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the key of an object referenced from a trailer.
+     *
+     * @param trailer The trailer.
+     * @param name    Name of the entry.
+     * @return The key of the referenced object, or `null` if the entry is missing or not a reference.
+     */
+    private static COSObjectKey keyOf(COSDictionary trailer, COSName name) {
+        COSBase item = trailer.getItem(name);
+        return item instanceof COSObject object ? new COSObjectKey(object) : null;
+    }
+
+    /**
+     * Parses the cross-reference tables and the trailer of a prefix of the file.
+     *
+     * @param path   Path to the document.
+     * @param length Length of the parsed prefix.
+     * @return The document as it ends at the prefix.
+     * @throws IOException If the prefix is not a readable PDF document.
+     */
+    private static PDDocument load(Path path, long length) throws IOException {
+        PrefixSource source = new PrefixSource(new RandomAccessBufferedFileInputStream(path.toFile()), length);
+        try {
+            PDFParser parser = new PDFParser(source);
+            parser.parse();
+            return parser.getPDDocument();
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    /**
+     * View of a file that ends after a given number of bytes, so PDFBox reads a revision of the
+     * document as if the later ones had never been appended.
+     */
+    private static final class PrefixSource implements RandomAccessRead {
+
+        private final RandomAccessRead file;
+
+        private final long length;
+
+        PrefixSource(RandomAccessRead file, long length) throws IOException {
+            if (file.length() < length) {
+                file.close();
+                throw new EOFException("Unexpected end of file at offset " + length);
+            }
+            this.file = file;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return isEOF() ? -1 : file.read();
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int len) throws IOException {
+            long remaining = length - file.getPosition();
+            if (remaining <= 0) {
+                return len == 0 ? 0 : -1;
+            }
+            return file.read(b, offset, (int) Math.min(len, remaining));
+        }
+
+        @Override
+        public long getPosition() throws IOException {
+            return file.getPosition();
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            file.seek(Math.min(position, length));
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return file.isClosed();
+        }
+
+        @Override
+        public int peek() throws IOException {
+            return isEOF() ? -1 : file.peek();
+        }
+
+        @Override
+        public void rewind(int bytes) throws IOException {
+            file.rewind(bytes);
+        }
+
+        @Override
+        public byte[] readFully(int len) throws IOException {
+            if (length - file.getPosition() < len) {
+                throw new EOFException("Premature end of file");
+            }
+            return file.readFully(len);
+        }
+
+        @Override
+        public boolean isEOF() throws IOException {
+            return file.getPosition() >= length;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(length - file.getPosition(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!file.isClosed()) {
+                file.close();
+            }
+        }
+    }
+}
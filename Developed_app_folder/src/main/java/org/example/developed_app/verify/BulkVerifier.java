@@ -0,0 +1,178 @@
+package org.example.developed_app.verify;
+
+import org.example.developed_app.jobs.JobContext;
+import org.example.developed_app.validation.CertificateValidator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * The `BulkVerifier` class verifies every PDF document in a directory tree without the GUI.
+ *
+ * <p>The directory walk runs on the calling thread and feeds a bounded queue of a fixed worker pool,
+ * so walking, loading, digesting and signature checks of different documents overlap across all cores
+ * while only a few documents per worker are in flight. Results are streamed to a
+ * {@link VerificationReportWriter} as soon as each document is done.</p>
+ */
+public class BulkVerifier {
+
+    /**
+     * Number of queued documents per worker.
+     */
+    private static final int QUEUE_DEPTH = 4;
+
+    /**
+     * Object performing the verification of the individual documents.
+     */
+    private final Verify verify = new Verify();
+
+    /**
+     * The public key of the signer.
+     */
+    private final PublicKey publicKey;
+
+    /**
+     * Number of documents verified concurrently.
+     */
+    private final int workers;
+
+    /**
+     * Creates a bulk verifier.
+     *
+     * @param publicKey The public key of the signer.
+     * @param workers   Number of documents verified concurrently.
+     */
+    public BulkVerifier(PublicKey publicKey, int workers) {
+        this(publicKey, workers, null);
+    }
+
+    /**
+     * Creates a bulk verifier reusing earlier results for unchanged documents.
+     *
+     * @param publicKey The public key of the signer.
+     * @param workers   Number of documents verified concurrently.
+     * @param cache     Cache of earlier verification results, or `null` to verify every document.
+     */
+    public BulkVerifier(PublicKey publicKey, int workers, VerificationCache cache) {
+        this(publicKey, workers, cache, null);
+    }
+
+    /**
+     * Creates a bulk verifier validating the signer certificates of PAdES signatures.
+     *
+     * <p>The validator and its revocation cache are shared by all workers, so revocation data is
+     * fetched once per certificate and time-to-live rather than once per document.</p>
+     *
+     * @param publicKey The public key of metadata signers, or `null` if only PAdES documents are verified.
+     * @param workers   Number of documents verified concurrently.
+     * @param cache     Cache of earlier verification results, or `null` to verify every document.
+     * @param validator Validator of the signer certificates, or `null` to identify signers by the public key.
+     */
+    public BulkVerifier(PublicKey publicKey, int workers, VerificationCache cache, CertificateValidator validator) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        this.publicKey = publicKey;
+        this.workers = workers;
+        verify.setVerificationCache(cache);
+        verify.setCertificateValidator(validator);
+    }
+
+    /**
+     * Verifies every `.pdf` file in a directory tree.
+     *
+     * <p>If a worker fails, e.g. because the report cannot be written, no further documents are queued
+     * and the first failure is rethrown once the running workers are done. Only documents whose result
+     * was written are counted in the summary.</p>
+     *
+     * @param root   Root of the directory tree.
+     * @param report Writer receiving the per-document results.
+     * @return Summary of the run.
+     * @throws IOException          If the directory tree cannot be walked or the report cannot be written.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the workers.
+     */
+    public VerificationSummary verifyTree(Path root, VerificationReportWriter report) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Map<VerificationStatus, LongAdder> counts = new EnumMap<>(VerificationStatus.class);
+        for (VerificationStatus status : VerificationStatus.values()) {
+            counts.put(status, new LongAdder());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore slots = new Semaphore(workers * QUEUE_DEPTH);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            Iterator<Path> documents = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .iterator();
+
+            while (documents.hasNext() && failure.get() == null) {
+                Path document = documents.next();
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        VerificationResult result = verifyOne(document);
+                        report.write(result);
+                        counts.get(result.status()).increment();
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (error instanceof RuntimeException e) {
+            throw e;
+        }
+        if (error != null) {
+            throw (Error) error;
+        }
+
+        Map<VerificationStatus, Long> totals = new EnumMap<>(VerificationStatus.class);
+        counts.forEach((status, count) -> totals.put(status, count.sum()));
+        return new VerificationSummary(totals, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Verifies one document and converts any failure into a result.
+     *
+     * @param document Path to the document to verify.
+     * @return Result of verifying the document.
+     */
+    private VerificationResult verifyOne(Path document) {
+        long start = System.nanoTime();
+        try {
+            return verify.verifyDocumentPages(document, publicKey, JobContext.NONE);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new VerificationResult(document, VerificationStatus.ERROR, error, (System.nanoTime() - start) / 1_000_000,
+                    List.of());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.developed_app.verify;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cms.CMSObjectIdentifiers;
+import org.bouncycastle.cms.CMSTypedData;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The `ByteRangeContent` class exposes the bytes covered by the `/ByteRange` of a PAdES signature
+ * as detached CMS content. The ranges are streamed from disk whenever the content is written,
+ * so the signed part of the document is never loaded into memory.
+ */
+public class ByteRangeContent implements CMSTypedData {
+
+    /**
+     * Path to the signed document.
+     */
+    private final Path file;
+
+    /**
+     * Pairs of offsets and lengths of the signed ranges.
+     */
+    private final int[] byteRange;
+
+    /**
+     * Trace measuring the time spent reading the ranges, or `null` to measure nothing.
+     */
+    private final Trace trace;
+
+    /**
+     * Creates the content for the given signature byte range.
+     *
+     * @param file      Path to the signed document.
+     * @param byteRange Pairs of offsets and lengths of the signed ranges.
+     */
+    public ByteRangeContent(Path file, int[] byteRange) {
+        this(file, byteRange, null);
+    }
+
+    /**
+     * Creates the content for the given signature byte range, measuring the time spent hashing it.
+     *
+     * <p>The CMS verifier hashes the content while it checks the signature, so every write of the
+     * content is measured as a {@link Stage#DIGEST} stage nested in the signature check.</p>
+     *
+     * @param file      Path to the signed document.
+     * @param byteRange Pairs of offsets and lengths of the signed ranges.
+     * @param trace     Trace of the verified document, or `null` to measure nothing.
+     */
+    public ByteRangeContent(Path file, int[] byteRange, Trace trace) {
+        this.file = file;
+        this.byteRange = byteRange.clone();
+        this.trace = trace;
+    }
+
+    @Override
+    public ASN1ObjectIdentifier getContentType() {
+        return CMSObjectIdentifiers.data;
+    }
+
+    /**
+     * Writes the signed ranges of the document to the given stream.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the document cannot be read.
+     */
+    @Override
+    public void write(OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (Trace.Span span = trace != null ? trace.stage(Stage.DIGEST) : null;
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i + 1 < byteRange.length; i += 2) {
+                long position = byteRange[i];
+                long end = position + byteRange[i + 1];
+                while (position < end) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Signed byte range exceeds the document size");
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    position += read;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Object getContent() {
+        return file;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.developed_app.verify;
+
+/**
+ * The `ReportFormat` enum lists the machine-readable formats of the bulk verification report.
+ */
+public enum ReportFormat {
+
+    /**
+     * Comma-separated values with a header line.
+     */
+    CSV,
+
+    /**
+     * A JSON array with one object per document.
+     */
+    JSON
+}
@@ -0,0 +1,330 @@
+package org.example.developed_app.verify;
+
+import org.example.developed_app.digest.StreamingDigest;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `VerificationCache` class remembers the outcome of verifying a document with a public key,
+ * so documents that are verified again without changes skip loading, text extraction and the
+ * signature check.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the whole file together with the SHA-256 fingerprint
+ * of the encoded public key. Hashing streams the file from disk and is much cheaper than parsing it,
+ * and any change of a single byte gives a different key, so stale results are never returned.
+ * Only {@link VerificationStatus#VALID}, {@link VerificationStatus#MODIFIED} and
+ * {@link VerificationStatus#UNSIGNED} are cached; errors and trust decisions, which depend on
+ * revocation data, are evaluated again on the next run.</p>
+ *
+ * <p>The cache holds at most a fixed number of entries and evicts the least recently used one.
+ * It is backed by a journal file: new results are appended as they are stored, the journal is
+ * replayed when the cache is opened and is rewritten with the live entries only once it has grown
+ * to twice the cache size or when the cache is closed. The journal is rewritten to a temporary
+ * file which replaces the old one, so a crash never leaves it half-written; a truncated last
+ * line is ignored.</p>
+ */
+public final class VerificationCache implements Closeable {
+
+    /**
+     * Default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    /**
+     * First line of the journal, identifying its format.
+     */
+    private static final String HEADER = "pades-verification-cache 1";
+
+    /**
+     * Digest algorithm of the document and key fingerprints.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Path to the journal file.
+     */
+    private final Path journal;
+
+    /**
+     * Maximum number of cached results.
+     */
+    private final int maxEntries;
+
+    /**
+     * Cached results in access order, guarded by `this`.
+     */
+    private final LinkedHashMap<CacheKey, VerificationStatus> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Writer appending to the journal, guarded by `this`.
+     */
+    private BufferedWriter writer;
+
+    /**
+     * Number of lines in the journal, guarded by `this`.
+     */
+    private int journalLines;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Opens a cache backed by a journal file, creating the file if it does not exist.
+     *
+     * @param journal    Path to the journal file.
+     * @param maxEntries Maximum number of cached results.
+     * @throws IOException If the journal cannot be read or created, or is not a cache journal.
+     */
+    public VerificationCache(Path journal, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.journal = journal.toAbsolutePath();
+        this.maxEntries = maxEntries;
+
+        if (Files.exists(this.journal)) {
+            replay();
+        }
+        if (journalLines == 0 || journalLines > 2 * maxEntries) {
+            compact();
+        } else {
+            writer = Files.newBufferedWriter(this.journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Opens a cache of the default size.
+     *
+     * @param journal Path to the journal file.
+     * @return The opened cache.
+     * @throws IOException If the journal cannot be read or created.
+     */
+    public static VerificationCache open(Path journal) throws IOException {
+        return new VerificationCache(journal, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Computes the cache key of a document and a public key.
+     *
+     * <p>The key is computed before the document is verified, so a result is stored under the digest
+     * of the bytes that were actually checked.</p>
+     *
+     * @param document  Path to the document.
+     * @param publicKey The public key of the signer.
+     * @return The cache key.
+     * @throws IOException              If the document cannot be read.
+     * @throws NoSuchAlgorithmException If SHA-256 is not supported.
+     */
+    public static CacheKey keyOf(Path document, PublicKey publicKey) throws IOException, NoSuchAlgorithmException {
+        HexFormat hex = HexFormat.of();
+        String content = hex.formatHex(StreamingDigest.digest(document, DIGEST_ALGORITHM));
+        String key = hex.formatHex(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(publicKey.getEncoded()));
+        return new CacheKey(content, key);
+    }
+
+    /**
+     * Gets a cached result.
+     *
+     * @param key The cache key.
+     * @return The cached status, or `null` if the document has not been verified with the key yet.
+     */
+    public synchronized VerificationStatus get(CacheKey key) {
+        VerificationStatus status = entries.get(key);
+        if (status != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return status;
+    }
+
+    /**
+     * Stores a result and appends it to the journal. Only {@link VerificationStatus#VALID},
+     * {@link VerificationStatus#MODIFIED} and {@link VerificationStatus#UNSIGNED} are stored.
+     *
+     * @param key    The cache key.
+     * @param status The verification status.
+     * @throws IOException If the journal cannot be written.
+     */
+    public synchronized void put(CacheKey key, VerificationStatus status) throws IOException {
+        if (!isCacheable(status) || status.equals(entries.get(key))) {
+            return;
+        }
+        insert(key, status);
+        if (writer == null) {
+            return;
+        }
+        writer.write(format(key, status));
+        writer.newLine();
+        writer.flush();
+        if (++journalLines > 2 * maxEntries) {
+            compact();
+        }
+    }
+
+    /**
+     * Checks whether a status depends only on the document bytes and the key.
+     *
+     * @param status The verification status.
+     * @return `true` for statuses that never change for the same document and key.
+     */
+    private static boolean isCacheable(VerificationStatus status) {
+        return status == VerificationStatus.VALID || status == VerificationStatus.MODIFIED
+                || status == VerificationStatus.UNSIGNED;
+    }
+
+    /**
+     * Removes all cached results and truncates the journal.
+     *
+     * @throws IOException If the journal cannot be rewritten.
+     */
+    public synchronized void clear() throws IOException {
+        entries.clear();
+        compact();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return Number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return Number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found no cached result.
+     *
+     * @return Number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Rewrites the journal with the live entries and closes it.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            if (journalLines > entries.size() + 1) {
+                rewrite();
+            }
+        }
+    }
+
+    /**
+     * Adds an entry in memory, evicting the least recently used one when the cache is full.
+     */
+    private void insert(CacheKey key, VerificationStatus status) {
+        entries.put(key, status);
+        while (entries.size() > maxEntries) {
+            Iterator<CacheKey> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Loads the entries recorded in the journal, oldest first.
+     */
+    private void replay() throws IOException {
+        List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (!HEADER.equals(lines.get(0))) {
+            throw new IOException("Not a verification cache: " + journal);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(" ");
+            if (fields.length != 3) {
+                continue;
+            }
+            try {
+                insert(new CacheKey(fields[0], fields[1]), VerificationStatus.valueOf(fields[2]));
+            } catch (IllegalArgumentException e) {
+                // A line cut short by a crash; the result is simply verified again.
+            }
+        }
+        journalLines = lines.size();
+    }
+
+    /**
+     * Rewrites the journal with the live entries and reopens it for appending.
+     */
+    private void compact() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        rewrite();
+        writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes the live entries, least recently used first, to a temporary file replacing the journal.
+     */
+    private void rewrite() throws IOException {
+        Path parent = journal.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (Map.Entry<CacheKey, VerificationStatus> entry : entries.entrySet()) {
+                out.write(format(entry.getKey(), entry.getValue()));
+                out.newLine();
+            }
+        }
+        Files.move(temporary, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journalLines = entries.size() + 1;
+    }
+
+    /**
+     * Formats a journal line.
+     */
+    private static String format(CacheKey key, VerificationStatus status) {
+        return key.contentDigest() + " " + key.keyFingerprint() + " " + status.name();
+    }
+
+    /**
+     * Identifies a document version verified with a public key.
+     *
+     * @param contentDigest  Hexadecimal SHA-256 digest of the whole document.
+     * @param keyFingerprint Hexadecimal SHA-256 digest of the encoded public key.
+     */
+    public record CacheKey(String contentDigest, String keyFingerprint) {
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.developed_app.verify;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The `VerificationReportWriter` class streams verification results to a report as they arrive,
+ * so reports covering millions of documents are never held in memory.
+ *
+ * <p>The writer may be shared by several verification threads.</p>
+ */
+public class VerificationReportWriter implements Closeable {
+
+    /**
+     * The underlying writer.
+     */
+    private final Writer out;
+
+    /**
+     * Format of the report.
+     */
+    private final ReportFormat format;
+
+    /**
+     * Whether no result has been written yet.
+     */
+    private boolean first = true;
+
+    /**
+     * Creates a report writer and writes the report header.
+     *
+     * @param out    The underlying writer.
+     * @param format Format of the report.
+     * @throws IOException If the header cannot be written.
+     */
+    public VerificationReportWriter(Writer out, ReportFormat format) throws IOException {
+        this.out = out;
+        this.format = format;
+        out.write(format == ReportFormat.CSV ? "document,status,duration_ms,error,modified_pages\n" : "[\n");
+    }
+
+    /**
+     * Appends the result of one document to the report.
+     *
+     * @param result The verification result.
+     * @throws UncheckedIOException If the result cannot be written.
+     */
+    public synchronized void write(VerificationResult result) {
+        try {
+            if (format == ReportFormat.CSV) {
+                out.write(csv(result.document().toString()) + ',' + result.status() + ','
+                        + result.durationMillis() + ',' + csv(result.error() == null ? "" : result.error()) + ','
+                        + pages(result.modifiedPages(), " ") + '\n');
+            } else {
+                out.write((first ? "" : ",\n") + "  {\"document\": " + json(result.document().toString())
+                        + ", \"status\": \"" + result.status() + "\", \"durationMs\": " + result.durationMillis()
+                        + ", \"error\": " + (result.error() == null ? "null" : json(result.error()))
+                        + ", \"modifiedPages\": [" + pages(result.modifiedPages(), ", ") + "]}");
+            }
+            first = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the report footer and closes the underlying writer.
+     *
+     * @throws IOException If the footer cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (format == ReportFormat.JSON) {
+            out.write(first ? "]\n" : "\n]\n");
+        }
+        out.close();
+    }
+
+    /**
+     * Joins page numbers with a separator.
+     */
+    private static String pages(List<Integer> pages, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int page : pages) {
+            if (!sb.isEmpty()) {
+                sb.append(separator);
+            }
+            sb.append(page);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quotes a CSV field if needed.
+     */
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Encodes a string as a JSON string literal.
+     */
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
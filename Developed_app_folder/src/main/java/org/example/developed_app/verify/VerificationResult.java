@@ -0,0 +1,17 @@
+package org.example.developed_app.verify;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The `VerificationResult` record describes the outcome of verifying a single document, in bulk or from the GUI.
+ *
+ * @param document       Path to the verified PDF document.
+ * @param status         Outcome of the verification.
+ * @param error          Description of the failure for {@link VerificationStatus#ERROR}, otherwise `null`.
+ * @param durationMillis Time spent verifying the document, in milliseconds.
+ * @param modifiedPages  Numbers of the pages found modified by their recorded page digests, empty if unknown.
+ */
+public record VerificationResult(Path document, VerificationStatus status, String error, long durationMillis,
+                                 List<Integer> modifiedPages) {
+}
@@ -0,0 +1,39 @@
+package org.example.developed_app.verify;
+
+/**
+ * The `VerificationStatus` enum describes the outcome of verifying a single document.
+ */
+public enum VerificationStatus {
+
+    /**
+     * The signature is valid and covers the whole document.
+     */
+    VALID,
+
+    /**
+     * The document has been modified after signing or was signed with a different key.
+     */
+    MODIFIED,
+
+    /**
+     * The document carries no signature.
+     */
+    UNSIGNED,
+
+    /**
+     * The signature is intact but a certificate of the signer's chain has been revoked.
+     */
+    REVOKED,
+
+    /**
+     * The signature is intact but the signer certificate does not chain to a trusted root
+     * or its revocation status is unknown, or, when certificates are validated, the signature carries
+     * a timestamp whose authority is not trusted.
+     */
+    UNTRUSTED,
+
+    /**
+     * The document could not be read or its signature could not be parsed.
+     */
+    ERROR
+}
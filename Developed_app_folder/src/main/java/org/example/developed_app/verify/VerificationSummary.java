@@ -0,0 +1,40 @@
+package org.example.developed_app.verify;
+
+import java.util.Map;
+
+/**
+ * The `VerificationSummary` record summarizes a bulk verification run.
+ *
+ * @param counts        Number of documents per verification status.
+ * @param elapsedMillis Wall-clock duration of the run, in milliseconds.
+ */
+public record VerificationSummary(Map<VerificationStatus, Long> counts, long elapsedMillis) {
+
+    /**
+     * Gets the number of verified documents.
+     *
+     * @return Number of documents.
+     */
+    public long total() {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Gets the number of documents with the given status.
+     *
+     * @param status The verification status.
+     * @return Number of documents.
+     */
+    public long count(VerificationStatus status) {
+        return counts.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Calculates the throughput of the run.
+     *
+     * @return Number of verified documents per second.
+     */
+    public double documentsPerSecond() {
+        return elapsedMillis == 0 ? total() : total() * 1000.0 / elapsedMillis;
+    }
+}
@@ -1,24 +1,93 @@
 package org.example.developed_app.verify;
 
 import javafx.scene.text.Text;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.pdmodel.interactive.digitalsignature.PDSignature;
+import org.bouncycastle.asn1.cms.Attribute;
+import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+import org.bouncycastle.tsp.TSPException;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.bouncycastle.tsp.TimeStampTokenInfo;
+import org.example.developed_app.codec.Hex;
+import org.example.developed_app.codec.Pem;
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.digest.MerkleDigest;
+import org.example.developed_app.digest.PageDigests;
+import org.example.developed_app.digest.StreamingDigest;
+import org.example.developed_app.jobs.Job;
+import org.example.developed_app.jobs.JobContext;
+import org.example.developed_app.jobs.JobRunner;
+import org.example.developed_app.jobs.ProgressListener;
+import org.example.developed_app.jobs.ProgressTextStripper;
+import org.example.developed_app.keys.KeyCache;
+import org.example.developed_app.keys.SignatureProfile;
+import org.example.developed_app.memory.MemoryPolicy;
+import org.example.developed_app.memory.MeteredDocument;
+import org.example.developed_app.metrics.MetricsRegistry;
+import org.example.developed_app.metrics.Stage;
+import org.example.developed_app.metrics.Timer;
+import org.example.developed_app.metrics.Trace;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.validation.CertificateValidator;
+import org.example.developed_app.validation.ChainStatus;
+import org.example.developed_app.validation.DssDictionary;
+import org.example.developed_app.validation.ValidationData;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.security.*;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
-import java.util.stream.Collectors;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The `Verify` class enables verification of the integrity of a PDF document
- * by comparing the digital signature stored in its metadata with the hash of its content.
+ * by checking its PAdES signature, or by comparing the digital signature stored in its metadata
+ * with the hash of its content for documents signed by earlier versions.
+ *
+ * <p>Documents signed by several signers are only valid if every signature is; independent
+ * signatures are checked concurrently.</p>
  */
 public class Verify {
 
+    /**
+     * Object identifier of the timestamping extended key usage.
+     */
+    private static final String TIME_STAMPING = "1.3.6.1.5.5.7.3.8";
+
+    /**
+     * Logger receiving a structured record of every verification started from {@link #init(Text, Text)}.
+     */
+    private static final System.Logger LOGGER = System.getLogger(Verify.class.getName());
+
     /**
      * Path to the PDF document to be verified.
      */
@@ -29,89 +98,767 @@ public class Verify {
      */
     private String keyPath;
 
+    /**
+     * Decides how much of the loaded document may be buffered on the heap.
+     */
+    private MemoryPolicy memoryPolicy = MemoryPolicy.defaultPolicy();
+
+    /**
+     * Cache of earlier verification results, or `null` to verify every document from scratch.
+     */
+    private VerificationCache verificationCache;
+
+    /**
+     * Validator of the signer certificates, or `null` to identify signers by the public key.
+     */
+    private CertificateValidator certificateValidator;
+
+    /**
+     * Registry receiving the stage times of every verified document.
+     */
+    private MetricsRegistry metricsRegistry = MetricsRegistry.shared();
+
     /**
      * Initializes the process of verifying the signature of a PDF document.
      *
+     * <p>If the document contains PAdES signature dictionaries, the CMS container of each one is verified
+     * against the bytes listed in its `/ByteRange`, and the latest one must cover the whole file. If the
+     * document carries a `SignedLength` entry next to a metadata signature, the signed prefix of the file
+     * is hashed straight from disk, as a Merkle tree in parallel if the chunk size is recorded, and the
+     * single revision appended after it may only store the signature metadata; otherwise the hash is
+     * computed over the extracted text. If page digests were recorded with a text signature,
+     * the content streams are compared page by page first and the first modified page ends the
+     * verification before any text is extracted; the modified pages are then logged. Tables whose own
+     * signature does not verify are ignored. The document is only valid if all of its signatures are.</p>
+     *
      * @param correctLabel Text displayed when the document is valid.
      * @param changedLabel Text displayed when the document has been modified.
      * @throws Exception If an error occurs during file reading or signature verification.
      */
     public void init(Text correctLabel, Text changedLabel) throws Exception {
-        byte[] digitalSignature;
-        byte[] calculatedHash;
-
-        try (PDDocument document = PDDocument.load(Paths.get(documentPath).toFile())) {
-            digitalSignature = extractSignatureFromMetadata(document);
-            if (digitalSignature == null) {
-                System.out.println("Nie znaleziono podpisu w metadanych PDF.");
-                return;
+        PublicKey publicKey = loadPublicKey();
+        VerificationStatus status = verifyDocument(Paths.get(documentPath), publicKey);
+
+        if (status == VerificationStatus.UNSIGNED) {
+            LOGGER.log(System.Logger.Level.INFO, "operation=verify document={0} status=unsigned", documentPath);
+            return;
+        }
+        if (status == VerificationStatus.MODIFIED) {
+            List<Integer> pages = findModifiedPages(Paths.get(documentPath), publicKey);
+            if (!pages.isEmpty()) {
+                LOGGER.log(System.Logger.Level.INFO, "operation=verify document={0} status=modified pages={1}",
+                        documentPath, pages);
             }
+        }
+        showResult(status == VerificationStatus.VALID, correctLabel, changedLabel);
+    }
+
+    /**
+     * Starts verifying the selected document on a job runner instead of the calling thread.
+     *
+     * <p>The document path and key path are captured when the job is submitted. A modified document
+     * is also checked page by page within the job, see {@link #verifyDocumentPages(Path, PublicKey, JobContext)}.</p>
+     *
+     * @param runner   The job runner.
+     * @param listener Listener receiving progress updates on the job thread.
+     * @return Handle to the job, completed with the verification result.
+     */
+    public Job<VerificationResult> verifyAsync(JobRunner runner, ProgressListener listener) {
+        Verify snapshot = new Verify();
+        snapshot.setKeyPath(keyPath);
+        snapshot.setDocumentPath(documentPath);
+        snapshot.setMemoryPolicy(memoryPolicy);
+        snapshot.setVerificationCache(verificationCache);
+        snapshot.setCertificateValidator(certificateValidator);
+        snapshot.setMetricsRegistry(metricsRegistry);
+
+        return runner.submit(context -> snapshot.verifyDocumentPages(Paths.get(snapshot.getDocumentPath()),
+                snapshot.loadPublicKey(), context), listener);
+    }
+
+    /**
+     * Verifies the signature of a single PDF document and, if it was modified, finds the modified pages.
+     *
+     * @param path      Path to the PDF document.
+     * @param publicKey The public key of the signer, or `null` if only PAdES signers validated by certificate are expected.
+     * @param context   Context receiving the page progress and signalling cancellation.
+     * @return The verification result; its modified pages are only filled in for {@link VerificationStatus#MODIFIED}.
+     * @throws Exception If an error occurs during file reading or signature verification.
+     * @see #findModifiedPages(Path, PublicKey)
+     */
+    public VerificationResult verifyDocumentPages(Path path, PublicKey publicKey, JobContext context) throws Exception {
+        long start = System.nanoTime();
+        VerificationStatus status = verifyDocument(path, publicKey, context);
+        List<Integer> modifiedPages = status == VerificationStatus.MODIFIED ? findModifiedPages(path, publicKey) : List.of();
+        return new VerificationResult(path, status, null, (System.nanoTime() - start) / 1_000_000, modifiedPages);
+    }
+
+    /**
+     * Verifies the signature of a single PDF document without touching the GUI.
+     *
+     * @param path      Path to the PDF document.
+     * @param publicKey The public key of the signer.
+     * @return The verification status.
+     * @throws Exception If an error occurs during file reading or signature verification.
+     * @see #verifyDocument(Path, PublicKey, JobContext)
+     */
+    public VerificationStatus verifyDocument(Path path, PublicKey publicKey) throws Exception {
+        return verifyDocument(path, publicKey, JobContext.NONE);
+    }
 
-            String extractedText = new PDFTextStripper().getText(document);
-            calculatedHash = computeSHA256(extractedText.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Verifies the signature of a single PDF document without touching the GUI.
+     *
+     * <p>The method keeps no state between calls and may be invoked concurrently for different documents.
+     * The document is loaded according to the {@link MemoryPolicy} of this object. If a
+     * {@link VerificationCache} is set, a document already verified with the same key and unchanged
+     * since is answered from the cache without being loaded.</p>
+     *
+     * <p>If a {@link CertificateValidator} is set, PAdES signers are identified by their certificates
+     * instead of the public key, which may then be `null`. The verification cache is not used in
+     * that case, since revocation status changes over time.</p>
+     *
+     * <p>The time spent loading, hashing, checking the signature and validating the certificate is
+     * recorded as a {@link Trace} in the {@link MetricsRegistry} of this object.</p>
+     *
+     * @param path      Path to the PDF document.
+     * @param publicKey The public key of the signer, or `null` if only PAdES signers validated by certificate are expected.
+     * @param context   Context receiving the page progress and signalling cancellation.
+     * @return {@link VerificationStatus#VALID}, {@link VerificationStatus#MODIFIED} or
+     * {@link VerificationStatus#UNSIGNED}.
+     * @throws Exception If an error occurs during file reading or signature verification.
+     */
+    public VerificationStatus verifyDocument(Path path, PublicKey publicKey, JobContext context) throws Exception {
+        try (Trace trace = metricsRegistry.trace("verify", path)) {
+            trace.bytesIn(Files.size(path));
+            VerificationStatus status;
+            VerificationCache cache = verificationCache;
+            if (cache == null || certificateValidator != null) {
+                status = verifyUncached(path, publicKey, context, trace);
+            } else {
+                VerificationCache.CacheKey cacheKey = trace.time(Stage.DIGEST, () -> VerificationCache.keyOf(path, publicKey));
+                status = cache.get(cacheKey);
+                if (status == null) {
+                    status = verifyUncached(path, publicKey, context, trace);
+                    cache.put(cacheKey, status);
+                }
+            }
+            trace.outcome(status);
+            return status;
         }
+    }
 
-        PublicKey publicKey = loadPublicKey();
-        boolean isValid = verifySignature(calculatedHash, digitalSignature, publicKey);
+    /**
+     * Verifies the signature of a single PDF document, bypassing the verification cache.
+     *
+     * @param path      Path to the PDF document.
+     * @param publicKey The public key of the signer.
+     * @param context   Context receiving the page progress and signalling cancellation.
+     * @param trace     Trace receiving the stage times.
+     * @return The verification status.
+     * @throws Exception If an error occurs during file reading or signature verification.
+     */
+    private VerificationStatus verifyUncached(Path path, PublicKey publicKey, JobContext context, Trace trace)
+            throws Exception {
+        List<SignatureCheck> checks = new ArrayList<>();
+
+        try (MeteredDocument loaded = trace.time(Stage.LOAD, () -> memoryPolicy.load(path))) {
+            PDDocument document = loaded.document();
+            context.documentLoaded(document.getNumberOfPages());
+            List<PDSignature> signatures = document.getSignatureDictionaries();
+            if (!signatures.isEmpty()) {
+                return verifyPades(path, document, signatures, publicKey, trace);
+            }
+
+            PDDocumentInformation info = document.getDocumentInformation();
+            String extractedText = null;
+            for (int index = 1; ; index++) {
+                String signatureHex = info.getCustomMetadataValue(Sign.metadataKey("Signature", index));
+                if (signatureHex == null || signatureHex.isEmpty()) {
+                    break;
+                }
+                if (publicKey == null) {
+                    throw new IllegalArgumentException("Metadata signatures can only be verified with a public key");
+                }
+                byte[] digitalSignature;
+                try {
+                    digitalSignature = hexToBytes(signatureHex);
+                } catch (IllegalArgumentException e) {
+                    return VerificationStatus.MODIFIED;
+                }
+                String algorithmName = info.getCustomMetadataValue(Sign.metadataKey("DigestAlgorithm", index));
+                DigestAlgorithm algorithm = algorithmName != null ? DigestAlgorithm.fromName(algorithmName) : null;
+                String hashName = algorithm != null ? algorithm.getJcaName() : "SHA-256";
 
-        if (isValid) {
-            System.out.println("Poprawne");
-            correctLabel.setVisible(true);
-            changedLabel.setVisible(false);
-        } else {
-            System.out.println("Niepoprawne");
-            correctLabel.setVisible(false);
-            changedLabel.setVisible(true);
+                String signedLength = info.getCustomMetadataValue(Sign.metadataKey("SignedLength", index));
+                if (signedLength != null) {
+                    long length = Long.parseLong(signedLength);
+                    String merkleTree = info.getCustomMetadataValue(Sign.metadataKey("MerkleTree", index));
+                    int chunkSize = merkleTree != null
+                            ? merkleChunkSize(merkleTree, info.getCustomMetadataValue(Sign.metadataKey("MerkleChunkSize", index)), algorithm)
+                            : 0;
+                    long end = signedRevisionEnd(path, info, index);
+                    Map<String, String> metadata = signatureMetadata(info, index);
+                    checks.add(checkTrace -> {
+                        try (Trace.Span span = stage(checkTrace, Stage.LOAD)) {
+                            if (end < 0 || !AppendedRevision.holdsOnlyMetadata(path, length, end, metadata)) {
+                                return VerificationStatus.MODIFIED;
+                            }
+                        }
+                        byte[] calculatedHash;
+                        try (Trace.Span span = stage(checkTrace, Stage.DIGEST)) {
+                            calculatedHash = chunkSize > 0
+                                    ? MerkleDigest.digest(path, length, algorithm, chunkSize)
+                                    : StreamingDigest.digest(path, 0, length, hashName);
+                        }
+                        try (Trace.Span span = stage(checkTrace, Stage.CRYPTO)) {
+                            return verifyMetadataSignature(algorithm, calculatedHash, digitalSignature, publicKey);
+                        }
+                    });
+                    continue;
+                }
+
+                byte[] pageDigests = algorithm != null
+                        ? readPageDigests(info, index, algorithm, digitalSignature, publicKey) : null;
+                if (pageDigests != null) {
+                    try (Trace.Span span = trace.stage(Stage.DIGEST)) {
+                        if (!PageDigests.modifiedPages(document, pageDigests, algorithm, true).isEmpty()) {
+                            return VerificationStatus.MODIFIED;
+                        }
+                    }
+                }
+
+                byte[] calculatedHash;
+                try (Trace.Span span = trace.stage(Stage.DIGEST)) {
+                    if (extractedText == null) {
+                        extractedText = new ProgressTextStripper(context).getText(document);
+                        loaded.sample();
+                    }
+                    calculatedHash = MessageDigest.getInstance(hashName).digest(extractedText.getBytes(StandardCharsets.UTF_8));
+                }
+                checks.add(checkTrace -> {
+                    try (Trace.Span span = stage(checkTrace, Stage.CRYPTO)) {
+                        return verifyMetadataSignature(algorithm, calculatedHash, digitalSignature, publicKey);
+                    }
+                });
+            }
         }
+
+        if (checks.isEmpty()) {
+            return VerificationStatus.UNSIGNED;
+        }
+        return verifyAll(checks, trace);
+    }
+
+    /**
+     * Finds the pages modified since the document was signed, using the page digests recorded with
+     * its text signatures.
+     *
+     * <p>Only the content streams of the pages are read and hashed; no text is extracted and the text
+     * signatures are not checked. Only tables whose own signature verifies with the public key are used;
+     * documents without such tables yield an empty list.</p>
+     *
+     * @param path      Path to the PDF document.
+     * @param publicKey The public key of the signer, or `null`, which yields an empty list.
+     * @return The numbers of the modified pages, starting at 1, in ascending order.
+     * @throws Exception If the document cannot be read.
+     */
+    public List<Integer> findModifiedPages(Path path, PublicKey publicKey) throws Exception {
+        if (publicKey == null) {
+            return List.of();
+        }
+        SortedSet<Integer> modified = new TreeSet<>();
+        try (MeteredDocument loaded = memoryPolicy.load(path)) {
+            PDDocument document = loaded.document();
+            PDDocumentInformation info = document.getDocumentInformation();
+            for (int index = 1; ; index++) {
+                String signatureHex = info.getCustomMetadataValue(Sign.metadataKey("Signature", index));
+                if (signatureHex == null || signatureHex.isEmpty()) {
+                    break;
+                }
+                String algorithmName = info.getCustomMetadataValue(Sign.metadataKey("DigestAlgorithm", index));
+                if (algorithmName == null) {
+                    continue;
+                }
+                DigestAlgorithm algorithm = DigestAlgorithm.fromName(algorithmName);
+                byte[] signature;
+                try {
+                    signature = hexToBytes(signatureHex);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                byte[] pageDigests = readPageDigests(info, index, algorithm, signature, publicKey);
+                if (pageDigests != null) {
+                    modified.addAll(PageDigests.modifiedPages(document, pageDigests, algorithm, false));
+                }
+            }
+        }
+        return new ArrayList<>(modified);
+    }
+
+    /**
+     * Reads the page digests recorded with a text signature if their own signature verifies.
+     *
+     * @param info      The document information dictionary.
+     * @param index     Index of the text signature.
+     * @param algorithm Hash function of the page digests.
+     * @param signature Value of the text signature.
+     * @param publicKey The public key of the signer.
+     * @return The page digests, or `null` if none are recorded or they are corrupt, unsigned or signed by another key.
+     * @throws Exception If the signature algorithm of the key is not supported.
+     */
+    private byte[] readPageDigests(PDDocumentInformation info, int index, DigestAlgorithm algorithm, byte[] signature,
+                                   PublicKey publicKey) throws Exception {
+        String tableSignature = info.getCustomMetadataValue(Sign.metadataKey("PageDigestsSignature", index));
+        if (tableSignature == null || tableSignature.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] table = PageDigests.read(info, Sign.metadataKey("PageDigests", index), algorithm);
+            if (table != null && verifyDigestSignature(algorithm, PageDigests.signedDigest(algorithm, signature, table),
+                    hexToBytes(tableSignature), publicKey)) {
+                return table;
+            }
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            // A corrupt table or signature is ignored like a missing one.
+        }
+        return null;
+    }
+
+    /**
+     * Finds where the revision storing a signature over the raw bytes ends.
+     *
+     * <p>A later signature must cover that revision with its own signed prefix, so the revisions of
+     * all signatures follow each other; the revision of the latest signature must end the file.</p>
+     *
+     * @param path  Path to the PDF document.
+     * @param info  The document information dictionary.
+     * @param index Index of the signature, starting at 1.
+     * @return The offset the revision ends at, or `-1` if the next signature does not cover the raw bytes.
+     * @throws IOException If the size of the document cannot be read.
+     */
+    private static long signedRevisionEnd(Path path, PDDocumentInformation info, int index) throws IOException {
+        String nextSignature = info.getCustomMetadataValue(Sign.metadataKey("Signature", index + 1));
+        if (nextSignature == null || nextSignature.isEmpty()) {
+            return Files.size(path);
+        }
+        String nextLength = info.getCustomMetadataValue(Sign.metadataKey("SignedLength", index + 1));
+        return nextLength != null ? Long.parseLong(nextLength) : -1;
+    }
+
+    /**
+     * Collects the metadata entries stored with a signature over the raw bytes.
+     *
+     * @param info  The document information dictionary.
+     * @param index Index of the signature, starting at 1.
+     * @return The entries and their values, starting with the signature value.
+     */
+    private static Map<String, String> signatureMetadata(PDDocumentInformation info, int index) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (String entry : List.of("Signature", "DigestAlgorithm", "SignedLength", "MerkleTree", "MerkleChunkSize")) {
+            String key = Sign.metadataKey(entry, index);
+            metadata.put(key, info.getCustomMetadataValue(key));
+        }
+        return metadata;
+    }
+
+    /**
+     * Reads the parameters of a signature over a Merkle root.
+     *
+     * @param tree      The recorded tree layout.
+     * @param chunkSize The recorded chunk size.
+     * @param algorithm The recorded digest algorithm.
+     * @return The chunk size.
+     * @throws IllegalArgumentException If the layout is unknown or a parameter is missing or invalid.
+     */
+    private static int merkleChunkSize(String tree, String chunkSize, DigestAlgorithm algorithm) {
+        if (!MerkleDigest.TREE.equals(tree) || chunkSize == null || algorithm == null) {
+            throw new IllegalArgumentException("Unsupported Merkle tree parameters: " + tree + ", " + chunkSize);
+        }
+        int size = Integer.parseInt(chunkSize);
+        MerkleDigest.checkChunkSize(size);
+        return size;
+    }
+
+    /**
+     * Verifies one metadata signature against the hash of the signed data.
+     *
+     * @param algorithm      The algorithm recorded with the signature, or `null` for signatures of earlier versions.
+     * @param calculatedHash The computed hash of the signed data.
+     * @param signatureBytes The signature to verify.
+     * @param publicKey      The public key.
+     * @return The verification status.
+     * @throws Exception If an error occurs during verification.
+     */
+    private VerificationStatus verifyMetadataSignature(DigestAlgorithm algorithm, byte[] calculatedHash,
+                                                       byte[] signatureBytes, PublicKey publicKey) throws Exception {
+        if (algorithm != null) {
+            return toStatus(verifyDigestSignature(algorithm, calculatedHash, signatureBytes, publicKey));
+        }
+        return toStatus(verifySignature(calculatedHash, signatureBytes, publicKey));
+    }
+
+    /**
+     * Runs the checks of all signatures of a document.
+     *
+     * <p>A single signature is checked on the calling thread. Several signatures cover independent
+     * revisions and only read their own byte ranges, so they are checked concurrently on virtual
+     * threads; their time is then measured as one {@link Stage#CRYPTO} stage, since a trace belongs
+     * to one thread. As soon as a check fails, the remaining checks are cancelled.</p>
+     *
+     * @param checks The checks, ordered from the earliest revision.
+     * @param trace  Trace receiving the stage times.
+     * @return {@link VerificationStatus#VALID} if all signatures are valid, otherwise the status of
+     * the earliest failing one.
+     * @throws Exception If a signature cannot be checked.
+     */
+    private static VerificationStatus verifyAll(List<SignatureCheck> checks, Trace trace) throws Exception {
+        if (checks.size() == 1) {
+            return checks.get(0).run(trace);
+        }
+
+        List<Future<VerificationStatus>> results = new ArrayList<>();
+        try (Trace.Span span = trace.stage(Stage.CRYPTO);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (SignatureCheck check : checks) {
+                results.add(executor.submit(() -> check.run(null)));
+            }
+            for (Future<VerificationStatus> result : results) {
+                VerificationStatus status;
+                try {
+                    status = result.get();
+                } catch (ExecutionException e) {
+                    results.forEach(pending -> pending.cancel(true));
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+                if (status != VerificationStatus.VALID) {
+                    results.forEach(pending -> pending.cancel(true));
+                    return status;
+                }
+            }
+        }
+        return VerificationStatus.VALID;
+    }
+
+    /**
+     * Starts a stage of an optional trace.
+     *
+     * @param trace The trace, or `null` if the stage is not measured.
+     * @param stage The stage.
+     * @return The running span, or `null`.
+     */
+    private static Trace.Span stage(Trace trace, Stage stage) {
+        return trace != null ? trace.stage(stage) : null;
+    }
+
+    /**
+     * Maps the result of a signature check to a verification status.
+     *
+     * @param isValid Whether the signature is valid.
+     * @return The verification status.
+     */
+    private static VerificationStatus toStatus(boolean isValid) {
+        return isValid ? VerificationStatus.VALID : VerificationStatus.MODIFIED;
+    }
+
+    /**
+     * Logs the verification result and toggles the result labels.
+     *
+     * @param isValid      Whether the signature is valid.
+     * @param correctLabel Text displayed when the document is valid.
+     * @param changedLabel Text displayed when the document has been modified.
+     */
+    private void showResult(boolean isValid, Text correctLabel, Text changedLabel) {
+        LOGGER.log(System.Logger.Level.INFO, "operation=verify document={0} status={1}", documentPath,
+                isValid ? "valid" : "invalid");
+        correctLabel.setVisible(isValid);
+        changedLabel.setVisible(!isValid);
     }
 
     /**
-     * Extracts the digital signature from the metadata of a PDF document.
+     * Verifies all PAdES signatures of a document.
+     *
+     * <p>Every signature must cover a prefix of the file that ends with a complete revision, and the
+     * latest signature must cover the whole file, so every revision added after an earlier signature
+     * is itself signed, and any data appended after the last signature is reported as a modification.
+     * The gap left out of each `/ByteRange` must hold nothing but the signature's own `/Contents`.
+     * Signatures added by later approvers therefore never invalidate earlier ones.</p>
      *
-     * @param document The PDF document.
-     * @return A byte array containing the signature, or `null` if not found.
+     * <p>The signature dictionaries and the document security store are read on the calling thread;
+     * the CMS containers are then checked by {@link #verifyAll(List, Trace)}.</p>
+     *
+     * @param path       Path to the signed document.
+     * @param document   The loaded document.
+     * @param signatures The signature dictionaries.
+     * @param publicKey  The public key of the signers, or `null` if a certificate validator is set.
+     * @param trace      Trace receiving the stage times.
+     * @return The verification status.
+     * @throws Exception If the document cannot be read or a CMS container cannot be parsed.
      */
-    private byte[] extractSignatureFromMetadata(PDDocument document) {
-        PDDocumentInformation info = document.getDocumentInformation();
-        String signatureHex = info.getCustomMetadataValue("Signature");
+    private VerificationStatus verifyPades(Path path, PDDocument document, List<PDSignature> signatures,
+                                           PublicKey publicKey, Trace trace) throws Exception {
+        long size = Files.size(path);
+        List<SignedRevision> revisions = new ArrayList<>();
+        for (PDSignature signature : signatures) {
+            int[] byteRange = readByteRange(signature);
+            if (byteRange == null || byteRange[0] != 0) {
+                return VerificationStatus.MODIFIED;
+            }
+            long end = (long) byteRange[2] + byteRange[3];
+            if (end > size || !AppendedRevision.endsRevision(path, end)) {
+                return VerificationStatus.MODIFIED;
+            }
+            if (!(signature.getCOSObject().getDictionaryObject(COSName.CONTENTS) instanceof COSString contents)
+                    || !isContentsGap(path, byteRange, contents.getBytes().length)) {
+                return VerificationStatus.MODIFIED;
+            }
+            revisions.add(new SignedRevision(byteRange, contents.getBytes(), end));
+        }
+        revisions.sort(Comparator.comparingLong(SignedRevision::end));
+        if (revisions.get(revisions.size() - 1).end() != size) {
+            return VerificationStatus.MODIFIED;
+        }
+
+        CertificateValidator validator = certificateValidator;
+        ValidationData embedded = validator != null
+                ? trace.time(Stage.VALIDATION, () -> DssDictionary.read(document)) : ValidationData.EMPTY;
+        List<SignatureCheck> checks = new ArrayList<>();
+        for (SignedRevision revision : revisions) {
+            checks.add(checkTrace -> verifyCms(path, revision, publicKey, validator, embedded, checkTrace));
+        }
+        return verifyAll(checks, trace);
+    }
 
-        if (signatureHex == null || signatureHex.isEmpty()) {
+    /**
+     * Reads the `/ByteRange` of a signature dictionary without trusting its structure.
+     *
+     * @param signature The signature dictionary.
+     * @return The two pairs of offsets and lengths, or `null` if the entry is missing, does not hold
+     * exactly four integers or holds a negative one.
+     */
+    private static int[] readByteRange(PDSignature signature) {
+        if (!(signature.getCOSObject().getDictionaryObject(COSName.BYTERANGE) instanceof COSArray array)
+                || array.size() != 4) {
             return null;
         }
+        int[] byteRange = new int[4];
+        for (int i = 0; i < byteRange.length; i++) {
+            if (!(array.getObject(i) instanceof COSInteger value) || value.longValue() < 0
+                    || value.longValue() > Integer.MAX_VALUE) {
+                return null;
+            }
+            byteRange[i] = value.intValue();
+        }
+        return byteRange;
+    }
+
+    /**
+     * Checks that the unsigned gap of a `/ByteRange` holds exactly the hex string of the signature's
+     * `/Contents`, so no other data can hide in the part of the file the signature does not cover.
+     *
+     * @param path           Path to the signed document.
+     * @param byteRange      Pairs of offsets and lengths of the signed ranges.
+     * @param contentsLength Length of the decoded `/Contents` string, including its zero padding.
+     * @return `true` if the gap is `&lt;hex&gt;` of that length; otherwise, `false`.
+     * @throws IOException If the document cannot be read.
+     */
+    private static boolean isContentsGap(Path path, int[] byteRange, int contentsLength) throws IOException {
+        long start = byteRange[1];
+        long end = byteRange[2];
+        if (start < 0 || start + 2L * contentsLength + 2 != end) {
+            return false;
+        }
+        ByteBuffer delimiter = ByteBuffer.allocate(1);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.read(delimiter, start) != 1 || delimiter.get(0) != '<') {
+                return false;
+            }
+            delimiter.clear();
+            return channel.read(delimiter, end - 1) == 1 && delimiter.get(0) == '>';
+        }
+    }
+
+    /**
+     * Verifies the CMS container of one PAdES signature against its signed byte range.
+     *
+     * <p>The byte ranges are streamed from disk into the CMS digest. A signature timestamp, if present,
+     * must match the signature value and is checked by {@link #verifyTimestamp}.</p>
+     *
+     * <p>Without a {@link CertificateValidator} the signer is identified by the given public key.
+     * With one, the signature is verified with the signer certificate embedded in the CMS container,
+     * which must chain to a trust anchor and must not be revoked; the certificates and revocation data
+     * of the document security store are used before any cached or downloaded data.</p>
+     *
+     * @param path      Path to the signed document.
+     * @param revision  The signed revision.
+     * @param publicKey The public key of the signer, or `null` if a certificate validator is set.
+     * @param validator The certificate validator, or `null`.
+     * @param embedded  Validation data of the document security store.
+     * @param trace     Trace receiving the stage times, or `null` if the check runs on another thread.
+     * @return The verification status.
+     * @throws Exception If the document cannot be read or the CMS container cannot be parsed.
+     */
+    private static VerificationStatus verifyCms(Path path, SignedRevision revision, PublicKey publicKey,
+                                                CertificateValidator validator, ValidationData embedded, Trace trace)
+            throws Exception {
+        CMSSignedData signedData = new CMSSignedData(new ByteRangeContent(path, revision.byteRange(), trace),
+                revision.contents());
+        JcaX509CertificateConverter converter = new JcaX509CertificateConverter();
+
+        try {
+            for (SignerInformation signer : signedData.getSignerInfos().getSigners()) {
+                if (validator == null) {
+                    try (Trace.Span span = stage(trace, Stage.CRYPTO)) {
+                        if (!signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(publicKey))) {
+                            return VerificationStatus.MODIFIED;
+                        }
+                    }
+                    VerificationStatus timestamp = verifyTimestamp(signer, null, embedded, trace);
+                    if (timestamp != VerificationStatus.VALID) {
+                        return timestamp;
+                    }
+                    continue;
+                }
 
-        return hexToBytes(signatureHex);
+                Collection<X509CertificateHolder> matches = signedData.getCertificates().getMatches(signer.getSID());
+                if (matches.isEmpty()) {
+                    return VerificationStatus.UNTRUSTED;
+                }
+                X509Certificate certificate = converter.getCertificate(matches.iterator().next());
+                try (Trace.Span span = stage(trace, Stage.CRYPTO)) {
+                    if (!signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(certificate))) {
+                        return VerificationStatus.MODIFIED;
+                    }
+                }
+                VerificationStatus timestamp = verifyTimestamp(signer, validator, embedded, trace);
+                if (timestamp == VerificationStatus.MODIFIED) {
+                    return timestamp;
+                }
+
+                List<X509Certificate> included = new ArrayList<>();
+                for (X509CertificateHolder holder : signedData.getCertificates().getMatches(null)) {
+                    included.add(converter.getCertificate(holder));
+                }
+                ChainStatus chain;
+                try (Trace.Span span = stage(trace, Stage.VALIDATION)) {
+                    chain = validator.validate(certificate, included, embedded);
+                }
+                if (chain != ChainStatus.TRUSTED) {
+                    return chain == ChainStatus.REVOKED ? VerificationStatus.REVOKED : VerificationStatus.UNTRUSTED;
+                }
+                if (timestamp != VerificationStatus.VALID) {
+                    return timestamp;
+                }
+            }
+        } catch (CMSException e) {
+            return VerificationStatus.MODIFIED;
+        }
+        return VerificationStatus.VALID;
     }
 
     /**
-     * Computes the SHA-256 hash of the input data.
+     * Checks the signature timestamp of a PAdES-B-T signer, if it carries one.
+     *
+     * <p>The token's message imprint must be the digest of the signature value, and the token must be
+     * signed by the certificate it embeds, which must be a timestamping certificate (critical
+     * `id-kp-timeStamping` extended key usage). Without a validator only this integrity is checked, as
+     * signers identified by a bare public key have no trust anchors either. With a validator the
+     * authority is only trusted if its certificate chains to a trust anchor and is not revoked, since
+     * anyone can create a timestamping certificate.</p>
      *
-     * @param data The data to hash.
-     * @return A byte array containing the SHA-256 hash.
-     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     * @param signer    The signer information.
+     * @param validator The certificate validator, or `null`.
+     * @param embedded  Validation data of the document security store.
+     * @param trace     Trace receiving the stage times, or `null` if the check runs on another thread.
+     * @return {@link VerificationStatus#VALID} if the signer has no timestamp or an intact one whose authority
+     * is trusted or not checked, {@link VerificationStatus#MODIFIED} if the token does not match the signature
+     * or is not correctly signed, otherwise {@link VerificationStatus#UNTRUSTED} or {@link VerificationStatus#REVOKED}.
+     * @throws Exception If the token cannot be parsed, uses an unsupported digest algorithm, or revocation
+     *                   data of the authority cannot be obtained.
      */
-    private byte[] computeSHA256(byte[] data) throws NoSuchAlgorithmException {
-        return MessageDigest.getInstance("SHA-256").digest(data);
+    private static VerificationStatus verifyTimestamp(SignerInformation signer, CertificateValidator validator,
+                                                      ValidationData embedded, Trace trace) throws Exception {
+        AttributeTable unsigned = signer.getUnsignedAttributes();
+        Attribute attribute = unsigned != null ? unsigned.get(PKCSObjectIdentifiers.id_aa_signatureTimeStampToken) : null;
+        if (attribute == null) {
+            return VerificationStatus.VALID;
+        }
+
+        TimeStampToken token = new TimeStampToken(new CMSSignedData(
+                attribute.getAttrValues().getObjectAt(0).toASN1Primitive().getEncoded()));
+        TimeStampTokenInfo info = token.getTimeStampInfo();
+        DigestAlgorithm algorithm = DigestAlgorithm.fromOid(info.getMessageImprintAlgOID());
+        if (!MessageDigest.isEqual(info.getMessageImprintDigest(), algorithm.newDigest().digest(signer.getSignature()))) {
+            return VerificationStatus.MODIFIED;
+        }
+
+        Collection<X509CertificateHolder> certificates = token.getCertificates().getMatches(token.getSID());
+        if (certificates.isEmpty()) {
+            return VerificationStatus.MODIFIED;
+        }
+        JcaX509CertificateConverter converter = new JcaX509CertificateConverter();
+        X509Certificate certificate = converter.getCertificate(certificates.iterator().next());
+        try (Trace.Span span = stage(trace, Stage.CRYPTO)) {
+            // Also requires the critical id-kp-timeStamping extended key usage of RFC 3161.
+            token.validate(new JcaSimpleSignerInfoVerifierBuilder().build(certificate));
+        } catch (TSPException e) {
+            return VerificationStatus.MODIFIED;
+        }
+
+        if (validator == null) {
+            return VerificationStatus.VALID;
+        }
+        List<String> usages = certificate.getExtendedKeyUsage();
+        if (usages == null || !usages.contains(TIME_STAMPING)) {
+            return VerificationStatus.UNTRUSTED;
+        }
+        List<X509Certificate> included = new ArrayList<>();
+        for (X509CertificateHolder holder : token.getCertificates().getMatches(null)) {
+            included.add(converter.getCertificate(holder));
+        }
+        ChainStatus chain;
+        try (Trace.Span span = stage(trace, Stage.VALIDATION)) {
+            chain = validator.validate(certificate, included, embedded);
+        }
+        return switch (chain) {
+            case TRUSTED -> VerificationStatus.VALID;
+            case REVOKED -> VerificationStatus.REVOKED;
+            case UNTRUSTED -> VerificationStatus.UNTRUSTED;
+        };
     }
 
     /**
      * Loads the public key from a PEM file.
      *
+     * <p>Parsed keys are kept in the shared {@link KeyCache}, so repeated verifications against
+     * the same key file skip reading and parsing it until the file changes.</p>
+     *
      * @return The `PublicKey` object.
      * @throws Exception If an error occurs during file reading or key parsing.
      */
-    private PublicKey loadPublicKey() throws Exception {
-        String keyBase64 = Files.lines(Paths.get(keyPath))
-                .filter(line -> !line.contains("BEGIN") && !line.contains("END"))
-                .collect(Collectors.joining());
+    public PublicKey loadPublicKey() throws Exception {
+        try (Timer.Sample sample = metricsRegistry.timer("verify", Stage.KEY_LOAD).start()) {
+            return KeyCache.shared().publicKey(Paths.get(keyPath), this::parsePublicKey);
+        }
+    }
 
-        byte[] keyBytes = Base64.getDecoder().decode(keyBase64);
-        X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
-        return KeyFactory.getInstance("RSA").generatePublic(keySpec);
+    /**
+     * Reads and parses the public key from a PEM file.
+     *
+     * @param path Path to the PEM file.
+     * @return The `PublicKey` object.
+     * @throws Exception If an error occurs during file reading or key parsing.
+     */
+    private PublicKey parsePublicKey(Path path) throws Exception {
+        return SignatureProfile.decodePublicKey(Pem.read(path));
     }
 
     /**
      * Verifies the digital signature using the hash and public key.
      *
+     * <p>Used for metadata signatures without a `DigestAlgorithm` entry, whose SHA-256 hash was hashed
+     * again by the signature algorithm. The signature algorithm is detected from the public key.</p>
+     *
      * @param hash The computed hash of the data.
      * @param signatureBytes The signature to verify.
      * @param publicKey The public key.
@@ -119,26 +866,41 @@ public class Verify {
      * @throws Exception If an error occurs during verification.
      */
     private boolean verifySignature(byte[] hash, byte[] signatureBytes, PublicKey publicKey) throws Exception {
-        Signature signature = Signature.getInstance("SHA256withRSA");
+        Signature signature = Signature.getInstance(SignatureProfile.of(publicKey).getSignatureAlgorithm());
         signature.initVerify(publicKey);
         signature.update(hash);
         return signature.verify(signatureBytes);
     }
 
+    /**
+     * Verifies a signature over a precomputed digest, as written by signers with a digest stage.
+     *
+     * @param algorithm      The algorithm that computed the digest.
+     * @param digest         The computed digest of the data.
+     * @param signatureBytes The signature to verify.
+     * @param publicKey      The public key.
+     * @return `true` if the signature is valid; otherwise, `false`.
+     * @throws Exception If an error occurs during verification.
+     * @see SignatureProfile#encodeDigest(DigestAlgorithm, byte[])
+     */
+    private boolean verifyDigestSignature(DigestAlgorithm algorithm, byte[] digest, byte[] signatureBytes,
+                                          PublicKey publicKey) throws Exception {
+        SignatureProfile profile = SignatureProfile.of(publicKey);
+        Signature signature = Signature.getInstance(profile.getDigestSignatureAlgorithm());
+        signature.initVerify(publicKey);
+        signature.update(profile.encodeDigest(algorithm, digest));
+        return signature.verify(signatureBytes);
+    }
+
     /**
      * Converts a hexadecimal string to a byte array.
      *
      * @param hex The hexadecimal string.
      * @return A byte array.
+     * @throws IllegalArgumentException If the string is not valid hexadecimal, e.g. a corrupted stored signature.
      */
-    private byte[] hexToBytes(String hex) {
-        int length = hex.length();
-        byte[] result = new byte[length / 2];
-        for (int i = 0; i < length; i += 2) {
-            result[i / 2] = (byte) ((Character.digit(hex.charAt(i), 16) << 4)
-                    + Character.digit(hex.charAt(i + 1), 16));
-        }
-        return result;
+    public static byte[] hexToBytes(String hex) {
+        return Hex.decode(hex);
     }
 
     /**
@@ -176,4 +938,102 @@ public class Verify {
     public void setKeyPath(String keyPath) {
         this.keyPath = keyPath;
     }
+
+    /**
+     * Gets the memory policy used to load documents.
+     *
+     * @return The memory policy.
+     */
+    public MemoryPolicy getMemoryPolicy() {
+        return memoryPolicy;
+    }
+
+    /**
+     * Sets the memory policy used to load documents.
+     *
+     * @param memoryPolicy The memory policy.
+     */
+    public void setMemoryPolicy(MemoryPolicy memoryPolicy) {
+        this.memoryPolicy = memoryPolicy;
+    }
+
+    /**
+     * Gets the cache of earlier verification results.
+     *
+     * @return The verification cache, or `null` if results are not cached.
+     */
+    public VerificationCache getVerificationCache() {
+        return verificationCache;
+    }
+
+    /**
+     * Sets the cache of earlier verification results.
+     *
+     * @param verificationCache The verification cache, or `null` to verify every document from scratch.
+     */
+    public void setVerificationCache(VerificationCache verificationCache) {
+        this.verificationCache = verificationCache;
+    }
+
+    /**
+     * Gets the validator of the signer certificates.
+     *
+     * @return The certificate validator, or `null` if signers are identified by the public key.
+     */
+    public CertificateValidator getCertificateValidator() {
+        return certificateValidator;
+    }
+
+    /**
+     * Sets the validator of the signer certificates of PAdES signatures.
+     *
+     * @param certificateValidator The certificate validator, or `null` to identify signers by the public key.
+     */
+    public void setCertificateValidator(CertificateValidator certificateValidator) {
+        this.certificateValidator = certificateValidator;
+    }
+
+    /**
+     * Gets the registry receiving the stage times of verified documents.
+     *
+     * @return The metrics registry.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Sets the registry receiving the stage times of verified documents.
+     *
+     * @param metricsRegistry The metrics registry.
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Check of one signature of a document.
+     */
+    @FunctionalInterface
+    private interface SignatureCheck {
+
+        /**
+         * Checks the signature.
+         *
+         * @param trace Trace receiving the stage times, or `null` if the check runs on another thread.
+         * @return The verification status.
+         * @throws Exception If the signature cannot be checked.
+         */
+        VerificationStatus run(Trace trace) throws Exception;
+    }
+
+    /**
+     * A PAdES signature with the revision it covers.
+     *
+     * @param byteRange Pairs of offsets and lengths of the signed ranges.
+     * @param contents  The DER-encoded CMS container.
+     * @param end       Length of the signed prefix of the file.
+     */
+    private record SignedRevision(int[] byteRange, byte[] contents, long end) {
+    }
 }
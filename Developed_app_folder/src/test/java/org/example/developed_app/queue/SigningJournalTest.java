@@ -0,0 +1,35 @@
+package org.example.developed_app.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an open journal is compacted while documents are signed.
+ */
+class SigningJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void openJournalIsCompacted() throws Exception {
+        Path file = directory.resolve("journal");
+        Path document = directory.resolve("document.pdf");
+        try (SigningJournal journal = new SigningJournal(file)) {
+            for (int i = 0; i < 2 * SigningJournal.COMPACTION_THRESHOLD; i++) {
+                journal.append(SigningJournal.State.QUEUED, document, "00", Lane.values()[0]);
+                journal.append(SigningJournal.State.SIGNED, document, "00", Lane.values()[0]);
+            }
+        }
+
+        assertTrue(Files.readAllLines(file).size() <= SigningJournal.COMPACTION_THRESHOLD + 1);
+        try (SigningJournal journal = new SigningJournal(file)) {
+            assertTrue(journal.isSigned(document, "00"));
+        }
+    }
+}
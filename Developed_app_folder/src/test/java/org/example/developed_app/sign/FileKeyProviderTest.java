@@ -0,0 +1,52 @@
+package org.example.developed_app.sign;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a key file keeps the same certificate across loads.
+ */
+class FileKeyProviderTest {
+
+    private static final String PIN = "1234";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void certificateIsStoredNextToKey() throws Exception {
+        Path keyPath = writeKeyFile();
+
+        FileKeyProvider first = FileKeyProvider.load(keyPath, PIN);
+        FileKeyProvider second = FileKeyProvider.load(keyPath, PIN);
+
+        assertTrue(Files.exists(directory.resolve("private.crt")));
+        assertEquals(first.certificate(), second.certificate());
+    }
+
+    private Path writeKeyFile() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        byte[] aesKey = MessageDigest.getInstance("SHA-256").digest(PIN.getBytes(StandardCharsets.UTF_8));
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(aesKey, "AES"));
+        Path keyPath = directory.resolve("private.enc");
+        Files.writeString(keyPath, Base64.getEncoder().encodeToString(cipher.doFinal(keyPair.getPrivate().getEncoded())));
+        return keyPath;
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.developed_app.verify;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.sign.FileKeyProvider;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.sign.SigningIdentity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that revisions appended after a signature over the raw bytes are reported as modifications.
+ */
+class AppendedRevisionTest {
+
+    private static KeyPair keyPair;
+
+    private static FileKeyProvider keyProvider;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        keyProvider = new FileKeyProvider(SigningIdentity.selfSigned(keyPair.getPrivate()));
+    }
+
+    @Test
+    void signedFileIsValid() throws Exception {
+        Path signed = sign(DigestMode.BYTES, createDocument());
+
+        assertEquals(VerificationStatus.VALID, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void revisionChangingPageIsModified() throws Exception {
+        Path signed = sign(DigestMode.BYTES, createDocument());
+        appendPageRevision(signed);
+
+        assertEquals(VerificationStatus.MODIFIED, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void revisionChangingPageAfterMerkleSignatureIsModified() throws Exception {
+        Path signed = sign(DigestMode.MERKLE, createDocument());
+        assertEquals(VerificationStatus.VALID, new Verify().verifyDocument(signed, keyPair.getPublic()));
+
+        appendPageRevision(signed);
+
+        assertEquals(VerificationStatus.MODIFIED, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void secondMetadataRevisionIsModified() throws Exception {
+        Path signed = sign(DigestMode.BYTES, createDocument());
+        appendInfoRevision(signed);
+
+        assertEquals(VerificationStatus.MODIFIED, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void sequentialSignaturesAreValid() throws Exception {
+        Path signed = sign(DigestMode.BYTES, sign(DigestMode.BYTES, createDocument()));
+
+        assertEquals(VerificationStatus.VALID, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void bytesSignatureAfterTextSignatureIsValid() throws Exception {
+        Path signed = sign(DigestMode.BYTES, sign(DigestMode.TEXT, createDocument()));
+
+        assertEquals(VerificationStatus.VALID, new Verify().verifyDocument(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void textSignatureAfterBytesSignatureIsRejected() throws Exception {
+        Path signed = sign(DigestMode.BYTES, createDocument());
+
+        assertThrows(IllegalArgumentException.class, () -> sign(DigestMode.TEXT, signed));
+    }
+
+    @Test
+    void padesSignatureAfterMetadataSignatureIsRejected() throws Exception {
+        Path signed = sign(DigestMode.TEXT, createDocument());
+
+        assertThrows(IllegalArgumentException.class, () -> sign(DigestMode.PADES, signed));
+    }
+
+    @Test
+    void metadataSignatureAfterPadesSignatureIsRejected() throws Exception {
+        Path signed = sign(DigestMode.PADES, createDocument());
+
+        assertThrows(IllegalArgumentException.class, () -> sign(DigestMode.BYTES, signed));
+    }
+
+    @Test
+    void corruptedSignatureHexIsModified() throws Exception {
+        Path signed = sign(DigestMode.TEXT, createDocument());
+        appendCorruptedSignatureRevision(signed);
+
+        Verify verify = new Verify();
+        assertEquals(VerificationStatus.MODIFIED, verify.verifyDocument(signed, keyPair.getPublic()));
+        assertEquals(List.of(), verify.findModifiedPages(signed, keyPair.getPublic()));
+    }
+
+    private Path createDocument() throws IOException {
+        Path path = directory.resolve("document.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                showText(content, "Umowa");
+            }
+            document.save(path.toFile());
+        }
+        return path;
+    }
+
+    private static Path sign(DigestMode mode, Path path) throws Exception {
+        Sign sign = new Sign();
+        sign.setDigestMode(mode);
+        return sign.signDocument(keyProvider, path);
+    }
+
+    private static void appendPageRevision(Path path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = PDDocument.load(path.toFile())) {
+            PDPage page = document.getPage(0);
+            try (PDPageContentStream content = new PDPageContentStream(document, page,
+                    PDPageContentStream.AppendMode.APPEND, false)) {
+                showText(content, "Aneks");
+            }
+            page.getCOSObject().setNeedToBeUpdated(true);
+            document.getPages().getCOSObject().setNeedToBeUpdated(true);
+            document.getDocumentCatalog().getCOSObject().setNeedToBeUpdated(true);
+            document.saveIncremental(out);
+        }
+        Files.write(path, out.toByteArray());
+    }
+
+    private static void appendInfoRevision(Path path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = PDDocument.load(path.toFile())) {
+            document.getDocumentInformation().setTitle("Aneks");
+            document.getDocumentInformation().getCOSObject().setNeedToBeUpdated(true);
+            document.saveIncremental(out);
+        }
+        Files.write(path, out.toByteArray());
+    }
+
+    private static void appendCorruptedSignatureRevision(Path path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = PDDocument.load(path.toFile())) {
+            document.getDocumentInformation().setCustomMetadataValue("Signature", "xyz");
+            document.getDocumentInformation().getCOSObject().setNeedToBeUpdated(true);
+            document.saveIncremental(out);
+        }
+        Files.write(path, out.toByteArray());
+    }
+
+    private static void showText(PDPageContentStream content, String text) throws IOException {
+        content.beginText();
+        content.setFont(PDType1Font.HELVETICA, 12);
+        content.newLineAtOffset(72, 720);
+        content.showText(text);
+        content.endText();
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.developed_app.verify;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.example.developed_app.digest.DigestAlgorithm;
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.digest.PageDigests;
+import org.example.developed_app.jobs.JobRunner;
+import org.example.developed_app.jobs.ProgressListener;
+import org.example.developed_app.sign.FileKeyProvider;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.sign.SigningIdentity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that only page digest tables signed with the text signature are trusted.
+ */
+class PageDigestsTest {
+
+    private static KeyPair keyPair;
+
+    private static FileKeyProvider keyProvider;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        keyProvider = new FileKeyProvider(SigningIdentity.selfSigned(keyPair.getPrivate()));
+    }
+
+    @Test
+    void modifiedPageIsReported() throws Exception {
+        Path signed = sign(createDocument("Umowa", "Aneks"));
+        appendPageRevision(signed);
+
+        Verify verify = new Verify();
+        assertEquals(VerificationStatus.MODIFIED, verify.verifyDocument(signed, keyPair.getPublic()));
+        assertEquals(List.of(2), verify.findModifiedPages(signed, keyPair.getPublic()));
+    }
+
+    @Test
+    void asyncVerificationListsModifiedPages() throws Exception {
+        Path signed = sign(createDocument("Umowa", "Aneks"));
+        appendPageRevision(signed);
+        Path key = directory.resolve("public.pem");
+        Files.writeString(key, "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n");
+
+        Verify verify = new Verify();
+        verify.setDocumentPath(signed.toString());
+        verify.setKeyPath(key.toString());
+        try (JobRunner runner = new JobRunner(1)) {
+            VerificationResult result = verify.verifyAsync(runner, ProgressListener.NONE).result().get();
+            assertEquals(VerificationStatus.MODIFIED, result.status());
+            assertEquals(List.of(2), result.modifiedPages());
+        }
+    }
+
+    @Test
+    void replacedTableIsIgnored() throws Exception {
+        Path signed = sign(createDocument("Umowa", "Aneks"));
+        replaceTable(signed);
+
+        Verify verify = new Verify();
+        assertEquals(VerificationStatus.VALID, verify.verifyDocument(signed, keyPair.getPublic()));
+        assertEquals(List.of(), verify.findModifiedPages(signed, keyPair.getPublic()));
+    }
+
+    private Path createDocument(String... texts) throws IOException {
+        Path path = directory.resolve("document.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (String text : texts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    showText(content, text);
+                }
+            }
+            document.save(path.toFile());
+        }
+        return path;
+    }
+
+    private static Path sign(Path path) throws Exception {
+        Sign sign = new Sign();
+        sign.setDigestMode(DigestMode.TEXT);
+        return sign.signDocument(keyProvider, path);
+    }
+
+    private static void appendPageRevision(Path path) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = PDDocument.load(path.toFile())) {
+            PDPage page = document.getPage(1);
+            try (PDPageContentStream content = new PDPageContentStream(document, page,
+                    PDPageContentStream.AppendMode.APPEND, false)) {
+                showText(content, "Zmiana");
+            }
+            page.getCOSObject().setNeedToBeUpdated(true);
+            document.getPages().getCOSObject().setNeedToBeUpdated(true);
+            document.getDocumentCatalog().getCOSObject().setNeedToBeUpdated(true);
+            document.saveIncremental(out);
+        }
+        Files.write(path, out.toByteArray());
+    }
+
+    private static void replaceTable(Path path) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = PDDocument.load(path.toFile())) {
+            PDDocumentInformation info = document.getDocumentInformation();
+            DigestAlgorithm algorithm = DigestAlgorithm.fromName(info.getCustomMetadataValue("DigestAlgorithm"));
+            byte[] table = PageDigests.read(info, "PageDigests", algorithm);
+            table[0] ^= 1;
+            PageDigests.write(document, info, "PageDigests", table, document.getNumberOfPages());
+            document.saveIncremental(out);
+        }
+        Files.write(path, out.toByteArray());
+    }
+
+    private static void showText(PDPageContentStream content, String text) throws IOException {
+        content.beginText();
+        content.setFont(PDType1Font.HELVETICA, 12);
+        content.newLineAtOffset(72, 720);
+        content.showText(text);
+        content.endText();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.auxiliaryapilcationgui;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The BatchProvisioner class creates keys for many identities at once, e.g. when onboarding a department.
+ *
+ * <p>Every identity gets its own directory below the output directory, holding its `public.pem`
+ * and `private.enc`. The key pairs are taken from a {@link KeyPairPool}, whose generator threads
+ * produce them in parallel while the previous ones are being encrypted and written.</p>
+ */
+public class BatchProvisioner {
+
+    /**
+     * Source of the key pairs.
+     */
+    private final KeyPairPool pool;
+
+    /**
+     * Creates a provisioner taking its key pairs from the given pool.
+     *
+     * @param pool Source of the key pairs.
+     */
+    public BatchProvisioner(KeyPairPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Generates and saves the keys of every identity.
+     *
+     * <p>Identities whose directory already contains keys are skipped, so existing keys are never overwritten
+     * and an interrupted batch can simply be run again.</p>
+     *
+     * @param identities Names of the identities, used as directory names.
+     * @param outputRoot Directory in which the identity directories are created.
+     * @param pin        PIN used to encrypt every private key.
+     * @return Report of the batch.
+     * @throws IllegalArgumentException If an identity name is not a plain directory name.
+     * @throws Exception                If a key cannot be generated, encrypted or written.
+     */
+    public ProvisioningReport provision(List<String> identities, Path outputRoot, String pin) throws Exception {
+        long start = System.nanoTime();
+        List<String> provisioned = new ArrayList<>(identities.size());
+        List<String> skipped = new ArrayList<>();
+
+        for (String identity : identities) {
+            Path directory = identityDirectory(outputRoot, identity);
+            if (Files.exists(directory.resolve("public.pem")) || Files.exists(directory.resolve("private.enc"))) {
+                skipped.add(identity);
+                continue;
+            }
+            new KeyGenerator(pin, directory.toString()).save(pool.take());
+            provisioned.add(identity);
+        }
+
+        return new ProvisioningReport(provisioned, skipped, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Resolves the directory of an identity, rejecting names that would escape the output directory.
+     *
+     * @param outputRoot Directory in which the identity directories are created.
+     * @param identity   Name of the identity.
+     * @return The directory of the identity.
+     */
+    private static Path identityDirectory(Path outputRoot, String identity) {
+        Path directory = outputRoot.resolve(identity).normalize();
+        if (identity.isBlank() || !outputRoot.normalize().equals(directory.getParent())) {
+            throw new IllegalArgumentException("Invalid identity name: " + identity);
+        }
+        return directory;
+    }
+}
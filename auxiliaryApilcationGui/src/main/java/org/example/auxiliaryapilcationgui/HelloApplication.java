@@ -11,9 +11,14 @@ import java.io.IOException;
 
 /**
  * The HelloApplication class serves as the entry point for the JavaFX application.
- * It initializes the GUI and sets up the main stage for the RSA key generation tool.
+ * It initializes the GUI and sets up the main stage for the key generation tool.
  */
 public class HelloApplication extends Application {
+    /**
+     * Controller of the main view, shut down when the application exits.
+     */
+    private HelloController controller;
+
     /**
      * Starts the JavaFX application by setting up the main stage and loading the FXML layout.
      *
@@ -24,13 +29,24 @@ public class HelloApplication extends Application {
     public void start(Stage stage) throws IOException {
         HelloController.stage = stage;
         FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("hello-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 320, 290);
+        Scene scene = new Scene(fxmlLoader.load(), 320, 330);
+        controller = fxmlLoader.getController();
 
-        stage.setTitle("Generate RSA keys!");
+        stage.setTitle("Generate keys!");
         stage.setScene(scene);
         stage.show();
     }
 
+    /**
+     * Stops the background work of the controller when the application exits.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     /**
      * The main method launches the JavaFX application.
      *
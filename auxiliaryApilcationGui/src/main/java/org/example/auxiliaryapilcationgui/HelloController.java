@@ -2,6 +2,7 @@ package org.example.auxiliaryapilcationgui;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.stage.DirectoryChooser;
@@ -11,7 +12,7 @@ import java.io.File;
 import java.nio.file.Paths;
 
 /**
- * GUI controller for the RSA key generation application.
+ * GUI controller for the key generation application.
  * Allows the user to input a password (PIN) for encrypting the private key
  * and select a directory where the keys will be saved.
  */
@@ -28,6 +29,11 @@ public class HelloController {
      */
     static Stage stage;
 
+    /**
+     * Keeps the next RSA key pair pre-generated in the background, so generating keys does not block the GUI for seconds.
+     */
+    private final KeyPairPool keyPool = new KeyPairPool(1, 1);
+
     @FXML
     private Label welcomeText;
 
@@ -40,19 +46,37 @@ public class HelloController {
     @FXML
     private Button selectButton;
 
+    @FXML
+    private ChoiceBox<KeyProfile> profileChoice;
+
+    /**
+     * Fills the key profile choice. Called by the FXML loader.
+     */
+    @FXML
+    protected void initialize() {
+        profileChoice.getItems().setAll(KeyProfile.values());
+        profileChoice.setValue(KeyProfile.RSA_4096);
+    }
+
     /**
      * Handles the "Generate" button click event.
-     * Creates an instance of `KeyGenerator` and generates RSA keys.
+     * Creates an instance of `KeyGenerator` and saves a key pair of the selected profile.
+     * RSA key pairs are taken pre-generated from the pool; EC and Ed25519 key pairs are fast enough to generate on demand.
      *
      * @throws Exception If an error occurs during key generation.
      */
     @FXML
     protected void onGenerateButtonClick() throws Exception {
-        KeyGenerator keyGenerator = new KeyGenerator(passwordField.getText(), pathToSave);
+        KeyProfile profile = profileChoice.getValue();
+        KeyGenerator keyGenerator = new KeyGenerator(passwordField.getText(), pathToSave, profile);
 
-        keyGenerator.init();
+        if (profile == keyPool.getProfile()) {
+            keyGenerator.init(keyPool.take());
+        } else {
+            keyGenerator.init();
+        }
 
-        welcomeText.setText("RSA key has been generated!");
+        welcomeText.setText(profile + " key has been generated!");
     }
 
     /**
@@ -78,4 +102,11 @@ public class HelloController {
         pathToSave = (selectedDirectory != null) ?
                 selectedDirectory.getAbsolutePath() : Paths.get(System.getProperty("user.home"), "Desktop").toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Stops the background key generation. Called when the application exits.
+     */
+    public void shutdown() {
+        keyPool.close();
+    }
+}
@@ -2,21 +2,32 @@ package org.example.auxiliaryapilcationgui;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.*;
+import java.security.spec.ECGenParameterSpec;
 import java.util.Base64;
 
-import static java.lang.Integer.min;
-
 /**
- * The KeyGenerator class is responsible for generating RSA key pairs and saving them securely.
+ * The KeyGenerator class is responsible for generating RSA, ECDSA or Ed25519 key pairs and saving them securely.
  * It encrypts the private key using a PIN and saves both the public and private keys to files.
  */
 public class KeyGenerator {
 
+    /**
+     * Size of the generated RSA keys in bits.
+     */
+    public static final int KEY_SIZE = 4096;
+
+    /**
+     * Base64 encoder splitting the PEM body into lines of 64 characters.
+     */
+    private static final Base64.Encoder PEM_ENCODER = Base64.getMimeEncoder(64, new byte[]{'\n'});
+
     /**
      * The PIN used for encrypting the private key.
      */
@@ -27,6 +38,10 @@ public class KeyGenerator {
      */
     private final String pathToSave;
 
+    /**
+     * The kind of key pair generated by {@link #init()}.
+     */
+    private final KeyProfile profile;
 
     /**
      * Konstruktor klasy KeyGenerator.
@@ -35,27 +50,82 @@ public class KeyGenerator {
      * @param pathToSave Ścieżka do katalogu, w którym klucze będą zapisywane.
      */
     public KeyGenerator(String pin, String pathToSave) {
+        this(pin, pathToSave, KeyProfile.RSA_4096);
+    }
+
+    /**
+     * Konstruktor klasy KeyGenerator z wyborem rodzaju klucza.
+     *
+     * @param pin        Hasło (PIN) używane do szyfrowania klucza prywatnego.
+     * @param pathToSave Ścieżka do katalogu, w którym klucze będą zapisywane.
+     * @param profile    Rodzaj generowanej pary kluczy.
+     */
+    public KeyGenerator(String pin, String pathToSave, KeyProfile profile) {
         this.pin = pin;
         this.pathToSave = pathToSave;
+        this.profile = profile;
     }
 
     /**
-     * Initializes the key generation process. Generates RSA key pairs, encrypts the private key,
+     * Initializes the key generation process. Generates a key pair of the selected profile, encrypts the private key,
      * and saves both keys to files.
      *
      * @throws Exception If an error occurs during key generation or encryption.
      */
     public void init() throws Exception {
-        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
-        keyGen.initialize(4096);
+        init(generateKeyPair(profile));
+    }
 
-        KeyPair keyPair = keyGen.generateKeyPair();
+    /**
+     * Encrypts the private key of an already generated key pair and saves both keys to files.
+     *
+     * @param keyPair The key pair, e.g. taken from a {@link KeyPairPool}.
+     * @throws Exception If an error occurs during encryption.
+     */
+    public void init(KeyPair keyPair) throws Exception {
+        System.out.println("\nKlucz prywatny (Base64):");
+        System.out.println(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+
+        save(keyPair);
+    }
+
+    /**
+     * Generates a new RSA key pair of {@value #KEY_SIZE} bits.
+     *
+     * @return The generated key pair.
+     * @throws GeneralSecurityException If RSA is not supported.
+     */
+    public static KeyPair generateKeyPair() throws GeneralSecurityException {
+        return generateKeyPair(KeyProfile.RSA_4096);
+    }
+
+    /**
+     * Generates a new key pair of the given profile.
+     *
+     * @param profile The kind of key pair.
+     * @return The generated key pair.
+     * @throws GeneralSecurityException If the algorithm or curve is not supported.
+     */
+    public static KeyPair generateKeyPair(KeyProfile profile) throws GeneralSecurityException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(profile.getAlgorithm());
+        if (profile == KeyProfile.RSA_4096) {
+            keyGen.initialize(KEY_SIZE);
+        } else if (profile.getCurve() != null) {
+            keyGen.initialize(new ECGenParameterSpec(profile.getCurve()));
+        }
+        return keyGen.generateKeyPair();
+    }
+
+    /**
+     * Encrypts the private key with the PIN and saves both keys to files without printing them.
+     *
+     * @param keyPair The key pair to save.
+     * @throws Exception If an error occurs during encryption.
+     */
+    public void save(KeyPair keyPair) throws Exception {
         PublicKey publicKey = keyPair.getPublic();
         PrivateKey privateKey = keyPair.getPrivate();
 
-        System.out.println("\nKlucz prywatny (Base64):");
-        System.out.println(Base64.getEncoder().encodeToString(privateKey.getEncoded()));
-
         MessageDigest sha = MessageDigest.getInstance("SHA-256");
         byte[] keyBytes = sha.digest(pin.getBytes(StandardCharsets.UTF_8));
         SecretKeySpec key = new SecretKeySpec(keyBytes, "AES");
@@ -64,25 +134,29 @@ public class KeyGenerator {
         cipher.init(Cipher.ENCRYPT_MODE, key);
         byte[] encryptedPrivateKey = cipher.doFinal(privateKey.getEncoded());
 
-        saveToFile(Base64.getEncoder().encodeToString(publicKey.getEncoded()), true);
-        saveToFile(Base64.getEncoder().encodeToString(encryptedPrivateKey), false);
+        saveToFile(publicKey.getEncoded(), true);
+        saveToFile(encryptedPrivateKey, false);
     }
 
     /**
-     * Saves the given key string to a file.
+     * Saves the given key bytes to a PEM file.
+     *
+     * <p>The Base64 body is encoded in one pass straight into 64-character lines, without building
+     * the encoded string and cutting it into line strings.</p>
      *
-     * @param s   The key string to save.
+     * @param key The key bytes to save.
      * @param pub Indicates whether the key is public or private.
      */
-    private void saveToFile(String s, boolean pub) {
+    private void saveToFile(byte[] key, boolean pub) {
+        String type = pub ? "PUBLIC" : "PRIVATE";
         try {
-            PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(pathToSave + (pub ? "\\public.pem" : "\\private.enc"))));
-            writer.printf("-----BEGIN %s KEY-----\n", pub ? "PUBLIC" : "PRIVATE");
-            for (int i = 0; i < s.length(); i += 64) {
-                writer.println(s.substring(i, min(i + 64, s.length())));
+            Path directory = Paths.get(pathToSave);
+            Files.createDirectories(directory);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(directory.resolve(pub ? "public.pem" : "private.enc")))) {
+                out.write(("-----BEGIN " + type + " KEY-----\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(PEM_ENCODER.encode(key));
+                out.write(("\n-----END " + type + " KEY-----\n").getBytes(StandardCharsets.US_ASCII));
             }
-            writer.printf("-----END %s KEY-----\n", pub ? "PUBLIC" : "PRIVATE");
-            writer.close();
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
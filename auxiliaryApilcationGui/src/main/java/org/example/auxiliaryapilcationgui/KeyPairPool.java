@@ -0,0 +1,155 @@
+package org.example.auxiliaryapilcationgui;
+
+import java.security.KeyPair;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The KeyPairPool class keeps a number of pre-generated key pairs of one {@link KeyProfile} ready for use.
+ *
+ * <p>Generator threads run in the background and top the pool up whenever a key pair is taken,
+ * so callers only wait for a new key pair when they drain the pool faster than it is refilled.
+ * With one generator thread per core, the pool also serves as the parallel key generator of
+ * {@link BatchProvisioner}.</p>
+ */
+public class KeyPairPool implements AutoCloseable {
+
+    /**
+     * How long {@link #take()} waits between checks for a failed generator.
+     */
+    private static final long POLL_MILLIS = 500;
+
+    /**
+     * The kind of generated key pairs.
+     */
+    private final KeyProfile profile;
+
+    /**
+     * Pre-generated key pairs.
+     */
+    private final BlockingQueue<KeyPair> pool;
+
+    /**
+     * Threads generating the key pairs.
+     */
+    private final ExecutorService generators;
+
+    /**
+     * Number of key pairs generated so far.
+     */
+    private final LongAdder generated = new LongAdder();
+
+    /**
+     * First error raised by a generator thread, or `null`.
+     */
+    private volatile Exception failure;
+
+    /**
+     * Creates a pool of RSA key pairs and starts filling it.
+     *
+     * @param capacity Number of key pairs kept ready.
+     * @param threads  Number of generator threads.
+     */
+    public KeyPairPool(int capacity, int threads) {
+        this(KeyProfile.RSA_4096, capacity, threads);
+    }
+
+    /**
+     * Creates a pool and starts filling it.
+     *
+     * @param profile  The kind of generated key pairs.
+     * @param capacity Number of key pairs kept ready.
+     * @param threads  Number of generator threads.
+     */
+    public KeyPairPool(KeyProfile profile, int capacity, int threads) {
+        this.profile = profile;
+        this.pool = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger counter = new AtomicInteger();
+        this.generators = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "key-generator-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            generators.execute(this::fill);
+        }
+    }
+
+    /**
+     * Generates key pairs until the pool is closed.
+     */
+    private void fill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                KeyPair keyPair = KeyGenerator.generateKeyPair(profile);
+                generated.increment();
+                pool.put(keyPair);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Takes a key pair from the pool, waiting for one to be generated if the pool is empty.
+     *
+     * @return A key pair used by no one else.
+     * @throws InterruptedException  If the calling thread is interrupted while waiting.
+     * @throws IllegalStateException If the key pairs cannot be generated.
+     */
+    public KeyPair take() throws InterruptedException {
+        while (true) {
+            KeyPair keyPair = pool.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (keyPair != null) {
+                return keyPair;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Key pair generation failed", failure);
+            }
+        }
+    }
+
+    /**
+     * Gets the kind of generated key pairs.
+     *
+     * @return The key profile.
+     */
+    public KeyProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets the number of key pairs ready to be taken.
+     *
+     * @return Number of key pairs in the pool.
+     */
+    public int available() {
+        return pool.size();
+    }
+
+    /**
+     * Gets the number of key pairs generated since the pool was created.
+     *
+     * @return Number of generated key pairs.
+     */
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    /**
+     * Stops the generator threads and discards the key pairs that were not taken.
+     */
+    @Override
+    public void close() {
+        generators.shutdownNow();
+        pool.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.auxiliaryapilcationgui;
+
+import java.util.Locale;
+
+/**
+ * The KeyProfile enum lists the kinds of key pairs the generator can create.
+ *
+ * <p>All of them are saved in the same file format: the public key as X.509 `SubjectPublicKeyInfo`
+ * and the private key as encrypted PKCS#8. Both encodings name the key algorithm, so the signing
+ * application detects the profile from the key files alone.</p>
+ */
+public enum KeyProfile {
+
+    /**
+     * RSA with a {@value KeyGenerator#KEY_SIZE}-bit modulus.
+     */
+    RSA_4096("RSA", null, "RSA 4096"),
+
+    /**
+     * ECDSA on the NIST P-256 curve.
+     */
+    ECDSA_P256("EC", "secp256r1", "ECDSA P-256"),
+
+    /**
+     * ECDSA on the NIST P-384 curve.
+     */
+    ECDSA_P384("EC", "secp384r1", "ECDSA P-384"),
+
+    /**
+     * Ed25519.
+     */
+    ED25519("Ed25519", null, "Ed25519");
+
+    /**
+     * JCA name of the key algorithm.
+     */
+    private final String algorithm;
+
+    /**
+     * Standard name of the elliptic curve, or `null` if the algorithm has no curve parameter.
+     */
+    private final String curve;
+
+    /**
+     * Name shown to the user.
+     */
+    private final String label;
+
+    KeyProfile(String algorithm, String curve, String label) {
+        this.algorithm = algorithm;
+        this.curve = curve;
+        this.label = label;
+    }
+
+    /**
+     * Gets the JCA name of the key algorithm.
+     *
+     * @return The key algorithm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the standard name of the elliptic curve.
+     *
+     * @return The curve name, or `null` if the algorithm has no curve parameter.
+     */
+    public String getCurve() {
+        return curve;
+    }
+
+    /**
+     * Parses a profile name as used on the command line: `rsa`, `p256`, `p384` or `ed25519`.
+     *
+     * @param name The profile name.
+     * @return The profile.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static KeyProfile fromName(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "rsa" -> RSA_4096;
+            case "p256" -> ECDSA_P256;
+            case "p384" -> ECDSA_P384;
+            case "ed25519" -> ED25519;
+            default -> throw new IllegalArgumentException("Unknown key profile: " + name);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.auxiliaryapilcationgui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ProvisionCli class is the headless entry point for generating the keys of many identities at once.
+ *
+ * <p>Usage: {@code ProvisionCli --output <directory> (--count <n> | --identities <file>) [--pin <pin>]
+ * [--profile rsa|p256|p384|ed25519] [--threads <n>] [--pool <n>]}. The identities file lists one name per line; lines starting with `#`
+ * are ignored. With `--count` the identities are named `identity-0001`, `identity-0002`, ...
+ * If `--pin` is omitted, the PIN is read from the `PADES_PIN` environment variable.</p>
+ */
+public class ProvisionCli {
+
+    /**
+     * Runs the batch provisioning.
+     *
+     * @param args Command-line arguments.
+     * @throws Exception If a key cannot be generated or written.
+     */
+    public static void main(String[] args) throws Exception {
+        Path output = null;
+        Path identitiesFile = null;
+        int count = 0;
+        String pin = System.getenv("PADES_PIN");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int poolSize = 0;
+        KeyProfile profile = KeyProfile.RSA_4096;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--output" -> output = Paths.get(requireValue(args, ++i));
+                case "--count" -> count = Integer.parseInt(requireValue(args, ++i));
+                case "--identities" -> identitiesFile = Paths.get(requireValue(args, ++i));
+                case "--pin" -> pin = requireValue(args, ++i);
+                case "--profile" -> profile = KeyProfile.fromName(requireValue(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i));
+                case "--pool" -> poolSize = Integer.parseInt(requireValue(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (output == null || pin == null || pin.isEmpty() || (count > 0) == (identitiesFile != null)) {
+            System.err.println("Usage: ProvisionCli --output <directory> (--count <n> | --identities <file>)"
+                    + " [--pin <pin>] [--profile rsa|p256|p384|ed25519] [--threads <n>] [--pool <n>]");
+            System.exit(2);
+        }
+
+        List<String> identities = identitiesFile != null ? readIdentities(identitiesFile) : numberedIdentities(count);
+        ProvisioningReport report;
+        try (KeyPairPool pool = new KeyPairPool(profile, poolSize > 0 ? poolSize : threads * 2, threads)) {
+            report = new BatchProvisioner(pool).provision(identities, output, pin);
+        }
+        report.print(System.out);
+    }
+
+    /**
+     * Reads identity names from a file, one per line.
+     *
+     * @param file The identities file.
+     * @return The identity names.
+     * @throws IOException If the file cannot be read.
+     */
+    private static List<String> readIdentities(Path file) throws IOException {
+        List<String> identities = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String identity = line.strip();
+            if (!identity.isEmpty() && !identity.startsWith("#")) {
+                identities.add(identity);
+            }
+        }
+        return identities;
+    }
+
+    /**
+     * Creates numbered identity names.
+     *
+     * @param count Number of identities.
+     * @return The identity names.
+     */
+    private static List<String> numberedIdentities(int count) {
+        List<String> identities = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            identities.add(String.format("identity-%04d", i));
+        }
+        return identities;
+    }
+
+    /**
+     * Returns the value of an option, failing if it is missing.
+     *
+     * @param args  Command-line arguments.
+     * @param index Index of the option value.
+     * @return The option value.
+     */
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + args[index - 1]);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.auxiliaryapilcationgui;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * The ProvisioningReport record summarizes a batch of provisioned identities.
+ *
+ * @param provisioned   Names of the identities whose keys were written.
+ * @param skipped       Names of the identities skipped because their directory already holds keys.
+ * @param elapsedMillis Wall-clock time of the whole batch, in milliseconds.
+ */
+public record ProvisioningReport(List<String> provisioned, List<String> skipped, long elapsedMillis) {
+
+    /**
+     * Gets the throughput of the batch.
+     *
+     * @return Number of provisioned key pairs per second.
+     */
+    public double keysPerSecond() {
+        return elapsedMillis > 0 ? provisioned.size() * 1000.0 / elapsedMillis : 0;
+    }
+
+    /**
+     * Prints a summary of the batch.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        for (String identity : skipped) {
+            out.println("Pominięto (klucze już istnieją): " + identity);
+        }
+        out.printf("Provisioned %d identities in %d ms (%.2f keys/s), %d skipped%n",
+                provisioned.size(), elapsedMillis, keysPerSecond(), skipped.size());
+    }
+}
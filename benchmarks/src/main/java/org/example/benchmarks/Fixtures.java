@@ -0,0 +1,133 @@
+package org.example.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The `Fixtures` class generates the documents and key files used by the benchmarks.
+ *
+ * <p>Key files are written in the same format as the key generator of the auxiliary application,
+ * so the benchmarks exercise the real key loading path.</p>
+ */
+final class Fixtures {
+
+    /**
+     * PIN protecting the generated private keys.
+     */
+    static final String PIN = "1234";
+
+    /**
+     * Number of text lines written on each generated page.
+     */
+    private static final int LINES_PER_PAGE = 40;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a PDF document with the given number of text pages.
+     *
+     * @param directory Directory to create the document in.
+     * @param pages     Number of pages.
+     * @return Path to the document.
+     * @throws IOException If the document cannot be written.
+     */
+    static Path createDocument(Path directory, int pages) throws IOException {
+        Path path = directory.resolve("document-" + pages + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText("Page " + (page + 1) + ", line " + (line + 1)
+                                + ": The quick brown fox jumps over the lazy dog 0123456789.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(path.toFile());
+        }
+        return path;
+    }
+
+    /**
+     * Generates an RSA key pair and writes it as `public.pem` and `private.enc`.
+     *
+     * @param directory Directory to write the key files to.
+     * @param keySize   Size of the RSA modulus in bits.
+     * @throws Exception If the keys cannot be generated or written.
+     */
+    static void createKeys(Path directory, int keySize) throws Exception {
+        createKeys(directory, "RSA-" + keySize);
+    }
+
+    /**
+     * Generates a key pair and writes it as `public.pem` and `private.enc`.
+     *
+     * @param directory Directory to write the key files to.
+     * @param key       `RSA-<bits>`, `P-256`, `P-384` or `Ed25519`.
+     * @throws Exception If the keys cannot be generated or written.
+     */
+    static void createKeys(Path directory, String key) throws Exception {
+        KeyPairGenerator generator;
+        if (key.startsWith("RSA-")) {
+            generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(Integer.parseInt(key.substring(4)));
+        } else if (key.startsWith("P-")) {
+            generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp" + key.substring(2) + "r1"));
+        } else {
+            generator = KeyPairGenerator.getInstance(key);
+        }
+        KeyPair keyPair = generator.generateKeyPair();
+
+        byte[] aesKey = MessageDigest.getInstance("SHA-256").digest(PIN.getBytes(StandardCharsets.UTF_8));
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(aesKey, "AES"));
+        byte[] encryptedPrivateKey = cipher.doFinal(keyPair.getPrivate().getEncoded());
+
+        writePem(directory.resolve("public.pem"), "PUBLIC", keyPair.getPublic().getEncoded());
+        writePem(directory.resolve("private.enc"), "PRIVATE", encryptedPrivateKey);
+    }
+
+    /**
+     * Deletes a directory tree created by the fixtures.
+     *
+     * @param directory Root of the directory tree.
+     * @throws IOException If the tree cannot be deleted.
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void writePem(Path path, String type, byte[] der) throws IOException {
+        String base64 = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        Files.writeString(path, "-----BEGIN " + type + " KEY-----\n" + base64 + "\n-----END " + type + " KEY-----\n");
+    }
+}
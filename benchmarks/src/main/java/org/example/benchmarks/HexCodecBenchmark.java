@@ -0,0 +1,54 @@
+package org.example.benchmarks;
+
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.verify.Verify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures hex encoding and decoding of signatures of each RSA key size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexCodecBenchmark {
+
+    @Param({"2048", "3072", "4096"})
+    public int keySize;
+
+    private byte[] signature;
+
+    private String hex;
+
+    @Setup
+    public void setUp() {
+        signature = new byte[keySize / 8];
+        new Random(42).nextBytes(signature);
+        hex = Sign.bytesToHex(signature);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Sign.bytesToHex(signature);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Verify.hexToBytes(hex);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.benchmarks;
+
+import org.example.developed_app.keys.KeyCache;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.verify.Verify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading, decrypting and parsing the key files, with and without the key cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyLoadingBenchmark {
+
+    @Param({"2048", "3072", "4096"})
+    public int keySize;
+
+    private Path directory;
+
+    private Sign sign;
+
+    private Verify verify;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("key-benchmark");
+        Fixtures.createKeys(directory, keySize);
+
+        sign = new Sign();
+        sign.setKeyPath(directory.resolve("private.enc").toString());
+        sign.setPin(Fixtures.PIN);
+
+        verify = new Verify();
+        verify.setKeyPath(directory.resolve("public.pem").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        KeyCache.shared().clear();
+        Fixtures.delete(directory);
+    }
+
+    /**
+     * PEM read, Base64 decode and X.509 parse of the public key.
+     */
+    @Benchmark
+    public PublicKey loadPublicKeyUncached() throws Exception {
+        KeyCache.shared().clear();
+        return verify.loadPublicKey();
+    }
+
+    @Benchmark
+    public PublicKey loadPublicKeyCached() throws Exception {
+        return verify.loadPublicKey();
+    }
+
+    /**
+     * PEM read, AES decryption and PKCS#8 parse of the private key.
+     */
+    @Benchmark
+    public PrivateKey loadPrivateKeyUncached() throws Exception {
+        KeyCache.shared().clear();
+        return sign.loadPrivateKey();
+    }
+
+    @Benchmark
+    public PrivateKey loadPrivateKeyCached() throws Exception {
+        return sign.loadPrivateKey();
+    }
+}
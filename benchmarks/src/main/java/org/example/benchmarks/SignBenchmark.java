@@ -0,0 +1,108 @@
+package org.example.benchmarks;
+
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.keys.KeyCache;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.sign.KeyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures signing of a whole document, from loading the PDF to writing the signed copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int pages;
+
+    @Param({"RSA-2048", "RSA-3072", "RSA-4096", "P-256", "P-384", "Ed25519"})
+    public String key;
+
+    @Param({"PADES", "BYTES", "MERKLE", "TEXT"})
+    public DigestMode digestMode;
+
+    private Path directory;
+
+    private Path document;
+
+    private Sign sign;
+
+    private KeyProvider keyProvider;
+
+    private PrintStream standardOutput;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("sign-benchmark");
+        document = Fixtures.createDocument(directory, pages);
+        Fixtures.createKeys(directory, key);
+
+        sign = new Sign();
+        sign.setKeyPath(directory.resolve("private.enc").toString());
+        sign.setPin(Fixtures.PIN);
+        sign.setDocumentPath(document.toString());
+        sign.setDigestMode(digestMode);
+        keyProvider = sign.loadKeyProvider();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        KeyCache.shared().clear();
+        Fixtures.delete(directory);
+    }
+
+    /**
+     * Silences standard output for the iteration, since {@link Sign#init()} prints the name of every signed copy.
+     */
+    @Setup(Level.Iteration)
+    public void silenceOutput() {
+        standardOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void restoreOutput() {
+        System.setOut(standardOutput);
+    }
+
+    /**
+     * Signs the document with an already decrypted key, as the batch signer does.
+     */
+    @Benchmark
+    public Path signDocument() throws Exception {
+        return sign.signDocument(keyProvider, document);
+    }
+
+    /**
+     * Signs the document through the GUI entry point, including reading, decrypting and parsing the key file,
+     * which the key cache would otherwise skip after the first invocation.
+     */
+    @Benchmark
+    public void init() throws Exception {
+        KeyCache.shared().clear();
+        sign.init();
+    }
+}
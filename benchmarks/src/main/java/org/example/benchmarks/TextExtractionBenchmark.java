@@ -0,0 +1,83 @@
+package org.example.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.example.developed_app.digest.StreamingDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hashing the extracted text of a document with hashing its bytes straight from disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextExtractionBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int pages;
+
+    private Path directory;
+
+    private Path document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("text-benchmark");
+        document = Fixtures.createDocument(directory, pages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.delete(directory);
+    }
+
+    /**
+     * Load, `PDFTextStripper.getText()` and SHA-256 of the UTF-8 text, as in the TEXT digest mode.
+     */
+    @Benchmark
+    public byte[] extractAndHashText() throws Exception {
+        try (PDDocument pdf = PDDocument.load(document.toFile())) {
+            String text = new PDFTextStripper().getText(pdf);
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Text extraction only, on a document loaded per invocation.
+     */
+    @Benchmark
+    public String extractText() throws Exception {
+        try (PDDocument pdf = PDDocument.load(document.toFile())) {
+            return new PDFTextStripper().getText(pdf);
+        }
+    }
+
+    /**
+     * Streaming SHA-256 of the file bytes, as in the BYTES digest mode.
+     */
+    @Benchmark
+    public byte[] hashBytes() throws Exception {
+        return StreamingDigest.digest(document, "SHA-256");
+    }
+}
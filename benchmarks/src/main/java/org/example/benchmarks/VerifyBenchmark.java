@@ -0,0 +1,84 @@
+package org.example.benchmarks;
+
+import org.example.developed_app.digest.DigestMode;
+import org.example.developed_app.sign.Sign;
+import org.example.developed_app.verify.VerificationStatus;
+import org.example.developed_app.verify.Verify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures verification of a signed document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifyBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int pages;
+
+    @Param({"RSA-2048", "RSA-3072", "RSA-4096", "P-256", "P-384", "Ed25519"})
+    public String key;
+
+    @Param({"PADES", "BYTES", "MERKLE", "TEXT"})
+    public DigestMode digestMode;
+
+    private Path directory;
+
+    private Path signedDocument;
+
+    private Verify verify;
+
+    private PublicKey publicKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("verify-benchmark");
+        Path document = Fixtures.createDocument(directory, pages);
+        Fixtures.createKeys(directory, key);
+
+        Sign sign = new Sign();
+        sign.setKeyPath(directory.resolve("private.enc").toString());
+        sign.setPin(Fixtures.PIN);
+        sign.setDigestMode(digestMode);
+        signedDocument = sign.signDocument(sign.loadKeyProvider(), document);
+
+        verify = new Verify();
+        verify.setKeyPath(directory.resolve("public.pem").toString());
+        verify.setDocumentPath(signedDocument.toString());
+        publicKey = verify.loadPublicKey();
+        if (verify.verifyDocument(signedDocument, publicKey) != VerificationStatus.VALID) {
+            throw new IllegalStateException("Fixture signature does not verify");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public VerificationStatus verifyDocument() throws Exception {
+        return verify.verifyDocument(signedDocument, publicKey);
+    }
+}